@@ -2,8 +2,35 @@ CREATE TABLE IF NOT EXISTS api_limits (
     api_key VARCHAR(255) PRIMARY KEY,
     limit_count INT NOT NULL,
     window_seconds INT NOT NULL,
+    failure_mode VARCHAR(16) NULL COMMENT 'OPEN | LOCAL | CLOSED, NULL = app default',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
-CREATE INDEX idx_api_limits_created_at ON api_limits(created_at);
\ No newline at end of file
+-- GET /limits keyset 分頁：ORDER BY created_at DESC, api_key DESC
+CREATE INDEX idx_api_limits_created_at_api_key ON api_limits(created_at, api_key);
+
+-- 同時進行中請求數上限，lease 本身存於 Redis ZSET
+CREATE TABLE IF NOT EXISTS concurrency_limits (
+    api_key VARCHAR(255) PRIMARY KEY,
+    max_concurrent INT NOT NULL,
+    lease_seconds INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS rate_limit_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_time DATETIME(3) NOT NULL,
+    api_key VARCHAR(255) NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    current_count INT NULL,
+    limit_count INT NULL,
+    rejected_count INT NULL COMMENT 'BLOCKED summary: rejections in the window',
+    window_ttl BIGINT NULL,
+    first_seen DATETIME(3) NULL,
+    last_seen DATETIME(3) NULL,
+    message VARCHAR(255) NULL,
+    INDEX idx_rate_limit_events_time (event_time),
+    INDEX idx_rate_limit_events_key_time (api_key, event_time)
+);
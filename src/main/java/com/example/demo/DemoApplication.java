@@ -1,9 +1,12 @@
 package com.example.demo;
 
+import com.example.demo.config.AppRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(AppRuntimeHints.class)
 public class DemoApplication {
 
 	public static void main(String[] args) {
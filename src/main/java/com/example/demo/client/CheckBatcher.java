@@ -0,0 +1,66 @@
+package com.example.demo.client;
+
+import com.example.demo.model.dto.CheckResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects checks for at most one window, or until the batch is full, and hands them to the
+ * dispatcher as one list. The dispatcher runs outside the lock.
+ */
+final class CheckBatcher {
+
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<List<PendingCheck>> dispatcher;
+
+    private List<PendingCheck> pending = new ArrayList<>();
+    private boolean flushScheduled;
+
+    CheckBatcher(int maxBatchSize, long windowNanos, ScheduledExecutorService scheduler,
+                 Consumer<List<PendingCheck>> dispatcher) {
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = windowNanos;
+        this.scheduler = scheduler;
+        this.dispatcher = dispatcher;
+    }
+
+    void add(PendingCheck check) {
+        List<PendingCheck> full = null;
+        synchronized (this) {
+            pending.add(check);
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new ArrayList<>();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatcher.accept(full);
+        }
+    }
+
+    void flush() {
+        List<PendingCheck> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        dispatcher.accept(batch);
+    }
+
+    record PendingCheck(String apiKey, CompletableFuture<CheckResponse> future) {
+    }
+}
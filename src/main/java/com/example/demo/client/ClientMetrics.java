@@ -0,0 +1,88 @@
+package com.example.demo.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side view of check latency and failures, kept lock-free so it can sit on every call.
+ * Latency goes into power-of-two microsecond buckets; percentiles report the bucket's upper bound,
+ * so they can overstate by up to 2x.
+ */
+public class ClientMetrics {
+
+    private static final int BUCKETS = 40;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedChecks = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    void recordCheck(long nanos) {
+        checks.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        histogram.incrementAndGet(bucket);
+    }
+
+    void recordFailure(boolean timeout) {
+        failures.increment();
+        if (timeout) {
+            timeouts.increment();
+        }
+    }
+
+    void recordBatch(int size) {
+        batches.increment();
+        batchedChecks.add(size);
+    }
+
+    public Snapshot snapshot() {
+        long count = checks.sum();
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return new Snapshot(count, failures.sum(), timeouts.sum(), batches.sum(), batchedChecks.sum(),
+            count == 0 ? 0 : nanosToMillis(totalNanos.sum()) / count,
+            percentile(counts, 0.50), percentile(counts, 0.99), nanosToMillis(maxNanos.get()));
+    }
+
+    private static double percentile(long[] counts, double quantile) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (1L << (i + 1)) / 1000.0;
+            }
+        }
+        return (1L << BUCKETS) / 1000.0;
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * @param failures checks answered by the fail-open/closed policy instead of the service
+     * @param batchedChecks checks that travelled inside a POST /check/batch request
+     */
+    public record Snapshot(long checks, long failures, long timeouts, long batches, long batchedChecks,
+                           double meanMillis, double p50Millis, double p99Millis, double maxMillis) {
+    }
+}
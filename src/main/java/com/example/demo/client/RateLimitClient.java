@@ -0,0 +1,233 @@
+package com.example.demo.client;
+
+import com.example.demo.client.CheckBatcher.PendingCheck;
+import com.example.demo.model.dto.CheckResponse;
+import com.example.demo.model.dto.UsageResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Java client for the rate limiting service.
+ * <p>
+ * Create one instance per service and share it: the JDK {@link HttpClient} underneath keeps
+ * keep-alive connections pooled and every call is non-blocking. Concurrent {@link #checkAsync}
+ * calls are coalesced onto {@code POST /check/batch}; if the server does not expose it the client
+ * switches to single {@code GET /check} calls for good. Every request carries
+ * {@link RateLimitClientConfig#getRequestTimeout()} as its deadline, and a check that misses it or
+ * hits a service error is answered locally according to {@link RateLimitClientConfig#isFailOpen()}.
+ */
+@Slf4j
+public class RateLimitClient implements AutoCloseable {
+
+    static final String FAIL_OPEN_MESSAGE = "Rate limiting service unavailable - request allowed by client";
+    static final String FAIL_CLOSED_MESSAGE = "Rate limiting service unavailable - request rejected by client";
+
+    private static final TypeReference<List<CheckResponse>> CHECK_LIST = new TypeReference<>() {
+    };
+
+    private final RateLimitClientConfig config;
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ClientMetrics metrics = new ClientMetrics();
+    private final ScheduledExecutorService scheduler;
+    private final CheckBatcher batcher;
+    private volatile boolean batchSupported = true;
+
+    public RateLimitClient(RateLimitClientConfig config) {
+        if (config.getBaseUri() == null) {
+            throw new IllegalArgumentException("baseUri is required");
+        }
+        this.config = config;
+        this.baseUri = URI.create(config.getBaseUri().endsWith("/") ? config.getBaseUri() : config.getBaseUri() + "/");
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(config.getConnectTimeout())
+            .build();
+        this.objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        if (config.isBatchingEnabled() && config.getMaxBatchSize() > 1) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rate-limit-client-batcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.batcher = new CheckBatcher(config.getMaxBatchSize(), config.getBatchWindow().toNanos(),
+                scheduler, this::dispatch);
+        } else {
+            this.scheduler = null;
+            this.batcher = null;
+        }
+    }
+
+    /**
+     * Never completes exceptionally: service failures resolve to the fail-open/closed decision.
+     */
+    public CompletableFuture<CheckResponse> checkAsync(String apiKey) {
+        long start = System.nanoTime();
+        CompletableFuture<CheckResponse> future = new CompletableFuture<>();
+        if (batcher != null && batchSupported) {
+            batcher.add(new PendingCheck(apiKey, future));
+        } else {
+            sendSingle(new PendingCheck(apiKey, future));
+        }
+        return future.whenComplete((response, e) -> metrics.recordCheck(System.nanoTime() - start));
+    }
+
+    public CheckResponse check(String apiKey) {
+        return checkAsync(apiKey).join();
+    }
+
+    /**
+     * Completes exceptionally with {@link RateLimitClientException} for unknown keys or service failures.
+     */
+    public CompletableFuture<UsageResponse> usageAsync(String apiKey) {
+        HttpRequest request = request("usage?apiKey=" + encode(apiKey)).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    throw new RateLimitClientException("Usage lookup failed with HTTP " + response.statusCode());
+                }
+                return read(response.body(), UsageResponse.class);
+            });
+    }
+
+    public UsageResponse usage(String apiKey) {
+        try {
+            return usageAsync(apiKey).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RateLimitClientException clientException) {
+                throw clientException;
+            }
+            throw new RateLimitClientException("Usage lookup failed", e.getCause());
+        }
+    }
+
+    public ClientMetrics.Snapshot getMetrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Sends checks still waiting for their batch window, then stops the batching thread.
+     */
+    @Override
+    public void close() {
+        if (batcher != null) {
+            batcher.flush();
+            scheduler.shutdown();
+        }
+    }
+
+    private void dispatch(List<PendingCheck> batch) {
+        if (batch.size() == 1 || !batchSupported) {
+            batch.forEach(this::sendSingle);
+            return;
+        }
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(batch.stream().map(PendingCheck::apiKey).toList());
+        } catch (IOException e) {
+            batch.forEach(check -> fail(check, e));
+            return;
+        }
+        HttpRequest request = request("check/batch")
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        metrics.recordBatch(batch.size());
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, e) -> {
+                if (e != null) {
+                    batch.forEach(check -> fail(check, e));
+                } else if (response.statusCode() == 404 || response.statusCode() == 405) {
+                    // 舊版服務沒有批次端點，之後一律逐筆呼叫
+                    log.info("Server has no /check/batch endpoint, falling back to single checks");
+                    batchSupported = false;
+                    batch.forEach(this::sendSingle);
+                } else if (response.statusCode() != 200) {
+                    batch.forEach(check -> fail(check, null));
+                } else {
+                    complete(batch, response.body());
+                }
+            });
+    }
+
+    private void complete(List<PendingCheck> batch, byte[] body) {
+        List<CheckResponse> results;
+        try {
+            results = objectMapper.readValue(body, CHECK_LIST);
+        } catch (IOException e) {
+            batch.forEach(check -> fail(check, e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (i < results.size()) {
+                batch.get(i).future().complete(results.get(i));
+            } else {
+                fail(batch.get(i), null);
+            }
+        }
+    }
+
+    private void sendSingle(PendingCheck check) {
+        HttpRequest request = request("check?apiKey=" + encode(check.apiKey())).GET().build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, e) -> {
+                if (e != null) {
+                    fail(check, e);
+                } else if (response.statusCode() != 200 && response.statusCode() != 429) {
+                    fail(check, null);
+                } else {
+                    try {
+                        check.future().complete(objectMapper.readValue(response.body(), CheckResponse.class));
+                    } catch (IOException parseError) {
+                        fail(check, parseError);
+                    }
+                }
+            });
+    }
+
+    private void fail(PendingCheck check, Throwable cause) {
+        Throwable root = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        metrics.recordFailure(root instanceof HttpTimeoutException);
+        log.debug("Rate limit check for apiKey {} failed, applying client policy: {}", check.apiKey(),
+            root != null ? root.toString() : "unexpected HTTP status");
+        check.future().complete(config.isFailOpen()
+            ? new CheckResponse(true, FAIL_OPEN_MESSAGE)
+            : new CheckResponse(false, FAIL_CLOSED_MESSAGE));
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(baseUri.resolve(pathAndQuery))
+            .timeout(config.getRequestTimeout())
+            .header("Accept", "application/json");
+    }
+
+    private <T> T read(byte[] body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new RateLimitClientException("Malformed response from rate limiting service", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
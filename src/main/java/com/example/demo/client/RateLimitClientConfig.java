@@ -0,0 +1,31 @@
+package com.example.demo.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link RateLimitClient}. Only {@code baseUri} is required; the defaults suit a
+ * caller that checks on every inbound request and must not stall when the service is slow.
+ */
+@Data
+public class RateLimitClientConfig {
+
+    /** Service root, e.g. {@code http://rate-limiter:8080} */
+    private String baseUri;
+
+    private Duration connectTimeout = Duration.ofMillis(500);
+
+    /** Deadline per HTTP request; a batched check may additionally wait up to {@link #batchWindow} */
+    private Duration requestTimeout = Duration.ofMillis(200);
+
+    /** Decision returned when the service errors or misses the deadline: allow (true) or reject */
+    private boolean failOpen = true;
+
+    /** Coalesce concurrent checks onto POST /check/batch while the server supports it */
+    private boolean batchingEnabled = true;
+
+    private Duration batchWindow = Duration.ofMillis(2);
+
+    private int maxBatchSize = 100;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.client;
+
+/**
+ * Raised by calls that have no fail-open/closed answer, such as usage lookups.
+ */
+public class RateLimitClientException extends RuntimeException {
+
+    public RateLimitClientException(String message) {
+        super(message);
+    }
+
+    public RateLimitClientException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
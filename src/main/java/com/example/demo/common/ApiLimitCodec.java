@@ -0,0 +1,107 @@
+package com.example.demo.common;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.FailureMode;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * ApiLimit 固定格式二進位編碼，用於 Redis 配置快取與全表快照
+ *
+ * <pre>
+ * offset  size  field
+ * 0       1     format (目前為 1)
+ * 1       4     limitCount
+ * 5       4     windowSeconds
+ * 9       1     failureMode ordinal，-1 = 未設定
+ * 10      8     createdAt (epoch ms, UTC)，Long.MIN_VALUE = null
+ * 18      8     updatedAt (epoch ms, UTC)，Long.MIN_VALUE = null
+ * 26      2     apiKey 長度 (UTF-8 bytes)
+ * 28      n     apiKey
+ * </pre>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ApiLimitCodec {
+
+    private static final byte FORMAT = 1;
+    private static final int HEADER_SIZE = 28;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final FailureMode[] FAILURE_MODES = FailureMode.values();
+
+    public static byte[] encode(ApiLimit limit) {
+        byte[] apiKey = limit.getApiKey().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + apiKey.length);
+        write(buffer, limit, apiKey);
+        return buffer.array();
+    }
+
+    public static ApiLimit decode(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * 編碼後長度，供批次寫入時預先配置緩衝區
+     */
+    public static int encodedSize(ApiLimit limit) {
+        return HEADER_SIZE + limit.getApiKey().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * 寫入 buffer 目前位置，buffer 需至少剩 encodedSize 空間
+     */
+    public static void write(ByteBuffer buffer, ApiLimit limit) {
+        write(buffer, limit, limit.getApiKey().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 從 buffer 目前位置讀取一筆，讀完後位置移到下一筆開頭
+     */
+    public static ApiLimit read(ByteBuffer buffer) {
+        byte format = buffer.get();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Unsupported ApiLimit encoding: " + format);
+        }
+        ApiLimit limit = new ApiLimit();
+        limit.setLimitCount(buffer.getInt());
+        limit.setWindowSeconds(buffer.getInt());
+        byte failureMode = buffer.get();
+        limit.setFailureMode(failureMode >= 0 ? FAILURE_MODES[failureMode] : null);
+        limit.setCreatedAt(fromEpochMillis(buffer.getLong()));
+        limit.setUpdatedAt(fromEpochMillis(buffer.getLong()));
+        byte[] apiKey = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(apiKey);
+        limit.setApiKey(new String(apiKey, StandardCharsets.UTF_8));
+        return limit;
+    }
+
+    private static void write(ByteBuffer buffer, ApiLimit limit, byte[] apiKey) {
+        if (apiKey.length > 0xFFFF) {
+            throw new IllegalArgumentException("API key too long to encode: " + apiKey.length + " bytes");
+        }
+        buffer.put(FORMAT);
+        buffer.putInt(limit.getLimitCount());
+        buffer.putInt(limit.getWindowSeconds());
+        buffer.put(limit.getFailureMode() != null ? (byte) limit.getFailureMode().ordinal() : -1);
+        buffer.putLong(toEpochMillis(limit.getCreatedAt()));
+        buffer.putLong(toEpochMillis(limit.getUpdatedAt()));
+        buffer.putShort((short) apiKey.length);
+        buffer.put(apiKey);
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NULL_TIME;
+    }
+
+    private static LocalDateTime fromEpochMillis(long millis) {
+        if (millis == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+            (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
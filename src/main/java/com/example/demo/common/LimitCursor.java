@@ -0,0 +1,33 @@
+package com.example.demo.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * GET /limits 的 keyset 分頁位置：上一頁最後一筆的 (createdAt, apiKey)
+ * 對外以 base64url 不透明字串傳遞，呼叫端不應解析內容
+ */
+public record LimitCursor(LocalDateTime createdAt, String apiKey) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt + String.valueOf(SEPARATOR) + apiKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static LimitCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // ISO 時間不含分隔字元，apiKey 可能含有，因此以第一個分隔字元切開
+            int separator = raw.indexOf(SEPARATOR);
+            return new LimitCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.common;
+
+import com.example.demo.model.dto.CheckResponse;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 限流決策對應的回應標頭（IETF RateLimit header fields 草案的 RateLimit-Limit / Remaining / Reset）
+ * 未設定限額或降級回應沒有計數時不輸出；被拒絕時另加 Retry-After，重置時間未知時兩者皆省略
+ */
+public final class RateLimitHeaders {
+
+    public static final String LIMIT = "RateLimit-Limit";
+    public static final String REMAINING = "RateLimit-Remaining";
+    public static final String RESET = "RateLimit-Reset";
+
+    private RateLimitHeaders() {
+    }
+
+    public static HttpHeaders of(CheckResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        if (response.getLimitCount() == null || response.getCurrentCount() == null) {
+            return headers;
+        }
+
+        int remaining = Math.max(0, response.getLimitCount() - response.getCurrentCount());
+        headers.set(LIMIT, String.valueOf(response.getLimitCount()));
+        headers.set(REMAINING, String.valueOf(remaining));
+        // 重置時間未知（TTL 缺少或為負）時不輸出，避免回報 0 讓客戶端立即重試
+        Long ttl = response.getRemainingTtl();
+        if (ttl == null || ttl < 0) {
+            return headers;
+        }
+        headers.set(RESET, String.valueOf(ttl));
+        if (!response.isAllowed()) {
+            // 秒數無條件捨去後可能為 0，被拒絕時至少等待 1 秒
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ttl)));
+        }
+        return headers;
+    }
+}
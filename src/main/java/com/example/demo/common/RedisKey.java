@@ -8,20 +8,65 @@ public final class RedisKey {
 
     // ==================== Prefixes ====================
 
-    private static final String CONFIG_CACHE_PREFIX = "cache:config:";
+    private static final String CONFIG_CACHE_PREFIX = "cache:config:bin:";
     private static final String RATE_LIMIT_PREFIX = "rate:limit:cnt:";
     private static final String MQ_DEDUP_PREFIX = "mq:dedup:";
+    private static final String NODE_REGISTRY = "rate:limit:nodes";
+    private static final String USAGE_HISTORY_PREFIX = "usage:";
+    private static final String TOP_KEYS_PREFIX = "stats:top:";
+    private static final String CONFIG_SNAPSHOT_PREFIX = "config:snapshot";
+    private static final String CONCURRENCY_LEASES_PREFIX = "concurrency:leases:";
 
     // ==================== Key Builders ====================
 
     /**
-     * 配置緩存 Key
-     * 格式: cache:config:{apiKey}
+     * 配置緩存 Key (String, ApiLimitCodec 二進位)
+     * 格式: cache:config:bin:{apiKey}
      */
     public static String configCache(String apiKey) {
         return CONFIG_CACHE_PREFIX + apiKey;
     }
 
+    /**
+     * 全表配置快照 (String, gzip 二進位，內含快照版本號)
+     * 格式: config:snapshot
+     */
+    public static String configSnapshot() {
+        return CONFIG_SNAPSHOT_PREFIX;
+    }
+
+    /**
+     * 配置版本號 (String, 每次異動 INCR)
+     * 格式: config:snapshot:version
+     */
+    public static String configVersion() {
+        return CONFIG_SNAPSHOT_PREFIX + ":version";
+    }
+
+    /**
+     * 配置異動日誌 (ZSET, member={version}|{payload}, score=version)
+     * 格式: config:snapshot:deltas
+     */
+    public static String configDeltas() {
+        return CONFIG_SNAPSHOT_PREFIX + ":deltas";
+    }
+
+    /**
+     * 已發布快照的版本號 (String)，供節點以單次 GET 判斷快照是否超前本地版本
+     * 格式: config:snapshot:built
+     */
+    public static String configSnapshotBuilt() {
+        return CONFIG_SNAPSHOT_PREFIX + ":built";
+    }
+
+    /**
+     * 快照重建鎖，同一時間只有一個節點重建
+     * 格式: config:snapshot:lock
+     */
+    public static String configSnapshotLock() {
+        return CONFIG_SNAPSHOT_PREFIX + ":lock";
+    }
+
     /**
      * 限流計數器 Key
      * 格式: rate:limit:cnt:{apiKey}
@@ -31,11 +76,51 @@ public final class RedisKey {
     }
 
     /**
-     * MQ 去重 Key
-     * 格式: mq:dedup:{msgId}
+     * 進行中 lease (ZSET, member=leaseId, score=到期時間 epoch 毫秒)
+     * 格式: concurrency:leases:{apiKey}
+     */
+    public static String concurrencyLeases(String apiKey) {
+        return CONCURRENCY_LEASES_PREFIX + apiKey;
+    }
+
+    /**
+     * MQ 去重時間分桶 Key (SET, member=訊息指紋)
+     * 格式: mq:dedup:{bucket}，bucket = epoch 秒 / 分桶秒數
+     */
+    public static String mqDedupBucket(long bucket) {
+        return MQ_DEDUP_PREFIX + bucket;
+    }
+
+    /**
+     * 使用量歷史 Key (HASH, field=a{offset}/b{offset} 為放行/拒絕次數)
+     * 格式: usage:{granularity}:{apiKey}:{group}
+     */
+    public static String usageHistory(String granularity, String apiKey, long group) {
+        return USAGE_HISTORY_PREFIX + granularity + ":" + apiKey + ":" + group;
+    }
+
+    /**
+     * 單一節點發布的熱點 apiKey (ZSET, member=apiKey, score=估計次數)
+     * 格式: stats:top:{metric}:{nodeId}
+     */
+    public static String topKeys(String metric, String nodeId) {
+        return TOP_KEYS_PREFIX + metric + ":" + nodeId;
+    }
+
+    /**
+     * 已發布熱點統計的節點 (ZSET, member=nodeId, score=最後發布時間)
+     * 格式: stats:top:nodes
+     */
+    public static String topKeysNodes() {
+        return TOP_KEYS_PREFIX + "nodes";
+    }
+
+    /**
+     * 節點註冊表 Key (ZSET, member=nodeId, score=最後心跳時間)
+     * 格式: rate:limit:nodes
      */
-    public static String mqDedup(String msgId) {
-        return MQ_DEDUP_PREFIX + msgId;
+    public static String nodeRegistry() {
+        return NODE_REGISTRY;
     }
 
 }
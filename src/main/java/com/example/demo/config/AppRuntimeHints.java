@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.ConcurrencyLimit;
+import com.example.demo.model.dto.BulkImportResponse;
+import com.example.demo.model.dto.CheckResponse;
+import com.example.demo.model.dto.CreateConcurrencyLimitRequest;
+import com.example.demo.model.dto.CreateLimitRequest;
+import com.example.demo.model.dto.LeaseResponse;
+import com.example.demo.model.dto.LimitsCursorResponse;
+import com.example.demo.model.dto.LimitsResponse;
+import com.example.demo.model.dto.TopKeysResponse;
+import com.example.demo.model.dto.UsageHistoryResponse;
+import com.example.demo.model.dto.UsageResponse;
+import com.example.demo.mq.RateLimitEventMessage;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.List;
+
+/**
+ * Native image 執行期提示：AOT 只能從 @RequestBody / 具體回傳型別推得 JSON 型別，
+ * ResponseEntity<?> 回應、MQ 訊息、配置異動與 NDJSON 匯入以 ObjectMapper 手動讀寫，需在此註冊
+ */
+public class AppRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> JSON_TYPES = List.of(
+        ApiLimit.class,
+        ConcurrencyLimit.class,
+        CheckResponse.class,
+        UsageResponse.class,
+        CreateLimitRequest.class,
+        CreateConcurrencyLimitRequest.class,
+        LeaseResponse.class,
+        BulkImportResponse.class,
+        LimitsResponse.class,
+        LimitsCursorResponse.class,
+        TopKeysResponse.class,
+        UsageHistoryResponse.class,
+        RateLimitEventMessage.class
+    );
+
+    // ConfigSnapshotService 內部的異動記錄，非 public 故以名稱註冊
+    static final String CONFIG_DELTA_TYPE = "com.example.demo.service.ConfigSnapshotService$ConfigDelta";
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // 含巢狀型別 (RowError、LimitInfo、UsagePoint、KeyCount) 與列舉欄位
+        bindingRegistrar.registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+        hints.reflection().registerType(TypeReference.of(CONFIG_DELTA_TYPE),
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+            MemberCategory.DECLARED_FIELDS);
+
+        // Lua 腳本 bean：腳本內容在 @Bean 方法內組成，結果型別 (Long / List) 於執行期以 Class 轉換
+        hints.reflection().registerType(DefaultRedisScript.class,
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerTypes(List.of(TypeReference.of(Long.class), TypeReference.of(List.class)),
+            builder -> builder.withMembers(MemberCategory.INVOKE_PUBLIC_METHODS));
+    }
+}
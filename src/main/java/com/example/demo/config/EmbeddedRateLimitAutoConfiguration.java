@@ -0,0 +1,134 @@
+package com.example.demo.config;
+
+import com.example.demo.filter.RateLimitFilter;
+import com.example.demo.filter.RateLimitInterceptor;
+import com.example.demo.filter.RateLimitKeyExtractor;
+import com.example.demo.mq.BlockedEventAggregator;
+import com.example.demo.repository.ApiLimitJdbcRepository;
+import com.example.demo.service.DecisionLogger;
+import com.example.demo.service.HeavyHitterTracker;
+import com.example.demo.service.LocalConfigCache;
+import com.example.demo.service.LocalFallbackLimiter;
+import com.example.demo.service.RateLimitCheckService;
+import com.example.demo.service.RedisHealthMonitor;
+import com.example.demo.service.RedisReadRouting;
+import com.example.demo.service.RedisService;
+import com.example.demo.service.UsageHistoryService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 內嵌模式：在本行程內直接以 RateLimitCheckService 決策，省去呼叫 /check 的網路往返
+ * 計數鍵與 api_limits 配置與獨立服務共用；mode=FILTER 以 servlet filter 註冊，INTERCEPTOR 掛在 Spring MVC
+ * 以自動配置載入，於宿主的 bean 之後評估，宿主自訂的 RateLimitKeyExtractor / RateLimitCheckService 一定優先
+ */
+@AutoConfiguration(after = {RedisAutoConfiguration.class, RedisReactiveAutoConfiguration.class,
+    JdbcTemplateAutoConfiguration.class, TaskExecutionAutoConfiguration.class},
+    before = TaskSchedulingAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.rate-limit.embedded", name = "enabled", havingValue = "true")
+public class EmbeddedRateLimitAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitKeyExtractor rateLimitKeyExtractor(
+            @Value("${app.rate-limit.embedded.key-source:HEADER}") String keySource,
+            @Value("${app.rate-limit.embedded.key-name:X-API-Key}") String keyName) {
+        return switch (keySource.toUpperCase()) {
+            case "HEADER" -> RateLimitKeyExtractor.header(keyName);
+            case "QUERY" -> RateLimitKeyExtractor.queryParameter(keyName);
+            case "REMOTE_ADDR" -> RateLimitKeyExtractor.remoteAddress();
+            default -> throw new IllegalArgumentException("Unknown rate limit key source: " + keySource);
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitInterceptor rateLimitInterceptor(RateLimitCheckService rateLimitCheckService,
+                                                     RateLimitKeyExtractor rateLimitKeyExtractor) {
+        return new RateLimitInterceptor(rateLimitCheckService, rateLimitKeyExtractor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.rate-limit.embedded", name = "mode", havingValue = "FILTER", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(
+            RateLimitInterceptor rateLimitInterceptor,
+            @Value("${app.rate-limit.embedded.url-patterns:/*}") String[] urlPatterns) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+            new FilterRegistrationBean<>(new RateLimitFilter(rateLimitInterceptor));
+        registration.addUrlPatterns(urlPatterns);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.rate-limit.embedded", name = "mode", havingValue = "INTERCEPTOR")
+    public WebMvcConfigurer rateLimitInterceptorConfigurer(
+            RateLimitInterceptor rateLimitInterceptor,
+            @Value("${app.rate-limit.embedded.url-patterns:/**}") String[] pathPatterns) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(rateLimitInterceptor).addPathPatterns(pathPatterns);
+            }
+        };
+    }
+
+    /**
+     * 宿主沒有 RateLimitCheckService 時只建立檢查路徑：Redis 計數、JDBC 配置讀取、降級與統計
+     * 不含 JPA、RocketMQ、快照同步與管理端點；配置未命中 Redis 快取時直接以 JDBC 讀取 api_limits
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnMissingBean(RateLimitCheckService.class)
+    @Import({RedisConfig.class, ApiLimitJdbcRepository.class, RedisReadRouting.class, RedisService.class,
+        RedisHealthMonitor.class, LocalFallbackLimiter.class, DecisionLogger.class, UsageHistoryService.class,
+        HeavyHitterTracker.class, LocalConfigCache.class})
+    static class CheckPathConfiguration {
+
+        @Bean
+        public RateLimitCheckService rateLimitCheckService(ApiLimitJdbcRepository apiLimitJdbcRepository,
+                                                           RedisService redisService,
+                                                           ObjectProvider<BlockedEventAggregator> blockedEventAggregator,
+                                                           DecisionLogger decisionLogger,
+                                                           RedisHealthMonitor redisHealthMonitor,
+                                                           LocalFallbackLimiter localFallbackLimiter,
+                                                           UsageHistoryService usageHistoryService,
+                                                           HeavyHitterTracker heavyHitterTracker,
+                                                           LocalConfigCache localConfigCache,
+                                                           @Qualifier("applicationTaskExecutor") Executor applicationTaskExecutor) {
+            // BLOCKED 摘要僅在宿主有 MQ 時送出
+            return new RateLimitCheckService(apiLimitJdbcRepository, redisService,
+                blockedEventAggregator.getIfAvailable(), decisionLogger, redisHealthMonitor, localFallbackLimiter,
+                usageHistoryService, heavyHitterTracker, localConfigCache, applicationTaskExecutor);
+        }
+
+        /**
+         * 健康探測、決策日誌、用量彙總與熱點輪替都靠 @Scheduled；宿主未啟用排程時由此啟用，
+         * 否則 Redis 出錯一次就永久停在降級模式。排在 TaskSchedulingAutoConfiguration 之前，沿用 Boot 的排程執行緒池
+         */
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnMissingBean(name = TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME)
+        @EnableScheduling
+        static class EmbeddedSchedulingConfiguration {
+        }
+    }
+}
@@ -5,29 +5,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 @Configuration
 public class RedisConfig {
     
-    @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
-        
-        StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
-        template.setKeySerializer(stringRedisSerializer);
-        template.setHashKeySerializer(stringRedisSerializer);
-        
-        GenericJackson2JsonRedisSerializer jsonRedisSerializer = new GenericJackson2JsonRedisSerializer();
-        template.setValueSerializer(jsonRedisSerializer);
-        template.setHashValueSerializer(jsonRedisSerializer);
-        
-        template.afterPropertiesSet();
-        return template;
-    }
-    
     @Bean("counterRedisTemplate")
     public RedisTemplate<String, String> counterRedisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, String> template = new RedisTemplate<>();
@@ -43,6 +28,20 @@ public class RedisConfig {
         return template;
     }
     
+    @Bean("binaryRedisTemplate")
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+    
+    /**
+     * 固定窗口扣除：ARGV[1] 窗口秒數, ARGV[2] 限額, ARGV[3] 本次成本
+     * 剩餘額度不足時不扣除，回傳「若放行將達到的計數」，呼叫端以 > 限額判定拒絕
+     */
     @Bean
     public DefaultRedisScript<Long> rateLimitScript() {
         DefaultRedisScript<Long> script = new DefaultRedisScript<>();
@@ -51,38 +50,111 @@ public class RedisConfig {
             local key = KEYS[1]
             local window_seconds = tonumber(ARGV[1])
             local limit = tonumber(ARGV[2])
+            local cost = tonumber(ARGV[3])
             
             local current = redis.call('GET', key)
             if current == false then
-                redis.call('SET', key, 1)
-                redis.call('EXPIRE', key, window_seconds)
-                return 1
-            else
-                local count = tonumber(current)
-                local new_count = redis.call('INCR', key)
-                return new_count
+                if cost > limit then
+                    return cost
+                end
+                redis.call('SET', key, cost, 'EX', window_seconds)
+                return cost
+            end
+            
+            local count = tonumber(current)
+            if count + cost > limit then
+                return count + cost
             end
+            return redis.call('INCRBY', key, cost)
             """
         );
         script.setResultType(Long.class);
         return script;
     }
     
+    /**
+     * 並行 lease 取得：先移除已到期 lease，名額足夠才以到期時間為 score 加入
+     * KEYS[1] lease ZSET; ARGV[1] 上限, ARGV[2] leaseId, ARGV[3] lease 毫秒
+     * 以 Redis TIME 為時鐘，各節點不需對時；回傳「若取得將達到的進行中數量」，> 上限即未取得
+     */
     @Bean
-    public DefaultRedisScript<Long> getCurrentCountScript() {
+    public DefaultRedisScript<Long> concurrencyAcquireScript() {
         DefaultRedisScript<Long> script = new DefaultRedisScript<>();
         script.setScriptText(
             """
             local key = KEYS[1]
-            local current = redis.call('GET', key)
-            if current == false then
-                return 0
-            else
-                return tonumber(current)
+            local max = tonumber(ARGV[1])
+            local lease_ms = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            
+            redis.call('ZREMRANGEBYSCORE', key, '-inf', now)
+            local in_flight = redis.call('ZCARD', key) + 1
+            if in_flight > max then
+                return in_flight
             end
+            redis.call('ZADD', key, now + lease_ms, ARGV[2])
+            redis.call('PEXPIRE', key, lease_ms)
+            return in_flight
+            """
+        );
+        script.setResultType(Long.class);
+        return script;
+    }
+    
+    /**
+     * 配置異動日誌：INCR 版本號並以該版本寫入 ZSET，兩者原子完成，版本號與寫入順序一致。
+     * KEYS[1] 版本號, KEYS[2] 異動 ZSET; ARGV[1] 異動內容, ARGV[2] 保留筆數
+     * 成員格式為 "{version}|{payload}"，回傳新版本號。
+     */
+    @Bean
+    public DefaultRedisScript<Long> configDeltaScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptText(
+            """
+            local version = redis.call('INCR', KEYS[1])
+            redis.call('ZADD', KEYS[2], version, version .. '|' .. ARGV[1])
+            redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -(tonumber(ARGV[2]) + 1))
+            return version
             """
         );
         script.setResultType(Long.class);
         return script;
     }
-}
\ No newline at end of file
+
+    /**
+     * MQ 批次去重：KEYS 為目前分桶在前、其後依序為較舊分桶，
+     * ARGV[1] 為分桶 TTL，ARGV[2..] 為訊息指紋。
+     * 回傳與指紋同順序的 1 (新訊息) / 0 (重複)。
+     */
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public DefaultRedisScript<List> mqDedupScript() {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setScriptText(
+            """
+            local ttl = tonumber(ARGV[1])
+            local result = {}
+            for i = 2, #ARGV do
+                local seen = 0
+                for j = 1, #KEYS do
+                    if redis.call('SISMEMBER', KEYS[j], ARGV[i]) == 1 then
+                        seen = 1
+                        break
+                    end
+                end
+                if seen == 0 then
+                    redis.call('SADD', KEYS[1], ARGV[i])
+                end
+                result[i - 1] = 1 - seen
+            end
+            if redis.call('TTL', KEYS[1]) < 0 then
+                redis.call('EXPIRE', KEYS[1], ttl)
+            end
+            return result
+            """
+        );
+        script.setResultType(List.class);
+        return script;
+    }
+}
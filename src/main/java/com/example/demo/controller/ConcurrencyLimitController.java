@@ -0,0 +1,73 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.ConcurrencyLimit;
+import com.example.demo.model.dto.CreateConcurrencyLimitRequest;
+import com.example.demo.model.dto.LeaseResponse;
+import com.example.demo.service.ConcurrencyLimitService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/")
+@RequiredArgsConstructor
+public class ConcurrencyLimitController {
+    
+    private final ConcurrencyLimitService concurrencyLimitService;
+    
+    @PostMapping("/concurrency-limits")
+    public ResponseEntity<?> createLimit(@Valid @RequestBody CreateConcurrencyLimitRequest request) {
+        try {
+            ConcurrencyLimit limit = concurrencyLimitService.createLimit(request);
+            log.info("Created concurrency limit for apiKey: {}", request.getApiKey());
+            return ResponseEntity.status(HttpStatus.CREATED).body(limit);
+        } catch (Exception e) {
+            log.error("Error creating concurrency limit for apiKey: {}", request.getApiKey(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Failed to create concurrency limit: " + e.getMessage());
+        }
+    }
+    
+    @DeleteMapping("/concurrency-limits/{apiKey}")
+    public ResponseEntity<?> removeLimit(@PathVariable String apiKey) {
+        try {
+            concurrencyLimitService.removeLimit(apiKey);
+            log.info("Removed concurrency limit for apiKey: {}", apiKey);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            log.error("Error removing concurrency limit for apiKey: {}", apiKey, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Failed to remove concurrency limit: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 200 with a lease ID to pass to /concurrency/release, or 429 when all permits are held
+     */
+    @PostMapping("/concurrency/acquire")
+    public ResponseEntity<LeaseResponse> acquire(@RequestParam String apiKey) {
+        LeaseResponse response = concurrencyLimitService.acquire(apiKey);
+        if (!response.isAcquired()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 204 when the lease was held, 404 when it was already released or has expired
+     */
+    @PostMapping("/concurrency/release")
+    public ResponseEntity<Void> release(@RequestParam String apiKey, @RequestParam String leaseId) {
+        try {
+            boolean released = concurrencyLimitService.release(apiKey, leaseId);
+            return released ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error releasing lease {} for apiKey: {}", leaseId, apiKey, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -1,17 +1,36 @@
 package com.example.demo.controller;
 
+import com.example.demo.common.RateLimitHeaders;
 import com.example.demo.model.ApiLimit;
+import com.example.demo.model.UsageGranularity;
+import com.example.demo.model.dto.BulkImportResponse;
 import com.example.demo.model.dto.CheckResponse;
 import com.example.demo.model.dto.CreateLimitRequest;
+import com.example.demo.model.dto.LimitsCursorResponse;
 import com.example.demo.model.dto.LimitsResponse;
+import com.example.demo.model.dto.UsageHistoryResponse;
 import com.example.demo.model.dto.UsageResponse;
+import com.example.demo.service.BulkLimitImportService;
+import com.example.demo.service.LimitExportService;
 import com.example.demo.service.RateLimitService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -19,7 +38,12 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class RateLimitController {
     
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final int MAX_CHECK_BATCH_SIZE = 1000;
+    
     private final RateLimitService rateLimitService;
+    private final BulkLimitImportService bulkLimitImportService;
+    private final LimitExportService limitExportService;
 
     @PostMapping("/limits")
     public ResponseEntity<?> createLimit(@Valid @RequestBody CreateLimitRequest request) {
@@ -34,24 +58,91 @@ public class RateLimitController {
         }
     }
     
-    @GetMapping("/check")
-    public ResponseEntity<CheckResponse> checkApiAccess(@RequestParam String apiKey) {
+    /**
+     * NDJSON body, one CreateLimitRequest per line; invalid rows are reported without aborting the import
+     */
+    @PostMapping(value = "/limits/bulk", consumes = {NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> bulkImportLimits(InputStream body) {
         try {
-            CheckResponse response = rateLimitService.checkApiAccess(apiKey);
-            
-            if (!response.isAllowed()) {
-                log.info("Request blocked for apiKey: {} - {}", apiKey, response.getMessage());
-                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
-            }
-            
-            log.debug("Request allowed for apiKey: {}", apiKey);
+            BulkImportResponse response = bulkLimitImportService.importNdjson(body);
             return ResponseEntity.ok(response);
-            
         } catch (Exception e) {
-            log.error("Error checking API access for apiKey: {}", apiKey, e);
-            CheckResponse errorResponse = new CheckResponse(true, "Rate limiting service error - request allowed");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            log.error("Error importing limits", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Failed to import rate limits: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Budget is returned in RateLimit-* / Retry-After headers; with compact=true the JSON body is
+     * dropped and the decision is 204 or 429. cost charges several units at once, all or nothing
+     */
+    @GetMapping("/check")
+    public ResponseEntity<CheckResponse> checkApiAccess(@RequestParam String apiKey,
+                                                        @RequestParam(defaultValue = "1") int cost,
+                                                        @RequestParam(defaultValue = "false") boolean compact) {
+        requirePositiveCost(cost);
+        try {
+            CheckResponse response = rateLimitService.checkApiAccess(apiKey, cost);
+            return toCheckResponseEntity(response, compact);
+        } catch (Exception e) {
+            return checkErrorResponse(apiKey, e, compact);
+        }
+    }
+    
+    /**
+     * Same contract as /check, but the servlet thread is released while Redis is queried and the
+     * response is completed from the Redis I/O callback
+     */
+    @GetMapping("/check/async")
+    public CompletableFuture<ResponseEntity<CheckResponse>> checkApiAccessAsync(@RequestParam String apiKey,
+                                                                                @RequestParam(defaultValue = "1") int cost,
+                                                                                @RequestParam(defaultValue = "false") boolean compact) {
+        requirePositiveCost(cost);
+        try {
+            return rateLimitService.checkApiAccessAsync(apiKey, cost)
+                .thenApply(response -> toCheckResponseEntity(response, compact))
+                .exceptionally(e -> checkErrorResponse(apiKey, e, compact));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(checkErrorResponse(apiKey, e, compact));
+        }
+    }
+    
+    /**
+     * JSON array of API keys; the response lists one CheckResponse per key in the same order.
+     * Always 200 — each element carries its own decision
+     */
+    @PostMapping("/check/batch")
+    public CompletableFuture<List<CheckResponse>> checkApiAccessBatch(@RequestBody List<String> apiKeys) {
+        if (apiKeys.isEmpty() || apiKeys.size() > MAX_CHECK_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Batch must contain 1 to " + MAX_CHECK_BATCH_SIZE + " API keys");
         }
+        return rateLimitService.checkApiAccessBatch(apiKeys);
+    }
+    
+    private static void requirePositiveCost(int cost) {
+        if (cost < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cost must be at least 1");
+        }
+    }
+    
+    private ResponseEntity<CheckResponse> toCheckResponseEntity(CheckResponse response, boolean compact) {
+        // Decisions are logged asynchronously by DecisionLogger
+        HttpStatus status = response.isAllowed()
+            ? (compact ? HttpStatus.NO_CONTENT : HttpStatus.OK)
+            : HttpStatus.TOO_MANY_REQUESTS;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).headers(RateLimitHeaders.of(response));
+        return compact ? builder.build() : builder.body(response);
+    }
+    
+    private ResponseEntity<CheckResponse> checkErrorResponse(String apiKey, Throwable e, boolean compact) {
+        log.error("Error checking API access for apiKey: {}", apiKey, e);
+        if (compact) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        CheckResponse errorResponse = new CheckResponse(true, "Rate limiting service error - request allowed");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
     
     @GetMapping("/usage")
@@ -66,6 +157,27 @@ public class RateLimitController {
         }
     }
     
+    @GetMapping("/usage/history")
+    public ResponseEntity<?> getUsageHistory(
+            @RequestParam String apiKey,
+            @RequestParam(defaultValue = "minute") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        try {
+            UsageGranularity usageGranularity = UsageGranularity.valueOf(granularity.toUpperCase());
+            Instant end = to != null ? to : Instant.now();
+            Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+            UsageHistoryResponse response = rateLimitService.getUsageHistory(apiKey, usageGranularity, start, end);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid usage history request: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error getting usage history for apiKey: {}", apiKey, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Failed to get usage history: " + e.getMessage());
+        }
+    }
+    
     @DeleteMapping("/limits/{apiKey}")
     public ResponseEntity<?> removeLimit(@PathVariable String apiKey) {
         try {
@@ -79,17 +191,33 @@ public class RateLimitController {
         }
     }
     
+    /**
+     * OFFSET paging by default, as before; {@code mode=cursor} starts keyset pagination and a
+     * {@code cursor} from the previous keyset page continues it
+     */
     @GetMapping("/limits")
     public ResponseEntity<?> getAllLimits(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         try {
             if (size > 100) {
                 return ResponseEntity.badRequest().body("Page size cannot exceed 100");
             }
             
-            LimitsResponse response = rateLimitService.getAllLimits(page, size);
+            if (cursor == null && !"cursor".equalsIgnoreCase(mode)) {
+                LimitsResponse response = rateLimitService.getAllLimits(page, size);
+                return ResponseEntity.ok(response);
+            }
+            if (size < 1) {
+                return ResponseEntity.badRequest().body("Page size must be positive");
+            }
+            LimitsCursorResponse response = rateLimitService.getLimitsPage(cursor, size, includeTotal);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid pagination request: " + e.getMessage());
         } catch (Exception e) {
             log.error("Error getting all limits", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -97,6 +225,29 @@ public class RateLimitController {
         }
     }
     
+    /**
+     * Streams every limit as NDJSON (default) or CSV, unpaged
+     */
+    @GetMapping("/limits/export")
+    public ResponseEntity<StreamingResponseBody> exportLimits(@RequestParam(defaultValue = "ndjson") String format) {
+        LimitExportService.Format exportFormat;
+        try {
+            exportFormat = LimitExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            // 回傳型別須宣告為 StreamingResponseBody 才會以非同步串流處理，錯誤改以例外回應
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        StreamingResponseBody body = out -> limitExportService.export(exportFormat, out);
+        MediaType contentType = exportFormat == LimitExportService.Format.CSV
+            ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+            : MediaType.parseMediaType(NDJSON_VALUE);
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"limits." + exportFormat.name().toLowerCase() + "\"")
+            .body(body);
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Rate Limiter Service is running");
@@ -0,0 +1,50 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.dto.TopKeysResponse;
+import com.example.demo.mq.DedupStats;
+import com.example.demo.mq.MessageDeduplicator;
+import com.example.demo.mq.MessageProducer;
+import com.example.demo.mq.ProducerStats;
+import com.example.demo.service.HeavyHitterTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final MessageProducer messageProducer;
+    private final MessageDeduplicator messageDeduplicator;
+    private final HeavyHitterTracker heavyHitterTracker;
+
+    @GetMapping("/mq/producer")
+    public ResponseEntity<ProducerStats> getProducerStats() {
+        return ResponseEntity.ok(messageProducer.getStats());
+    }
+
+    @GetMapping("/mq/dedup")
+    public ResponseEntity<DedupStats> getDedupStats() {
+        return ResponseEntity.ok(messageDeduplicator.getStats());
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<?> getTopKeys(@RequestParam(defaultValue = "checks") String metric,
+                                        @RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > 100) {
+            return ResponseEntity.badRequest().body("k must be between 1 and 100");
+        }
+        HeavyHitterTracker.Metric topMetric;
+        try {
+            topMetric = HeavyHitterTracker.Metric.valueOf(metric.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("metric must be 'checks' or 'blocked'");
+        }
+        TopKeysResponse response = heavyHitterTracker.top(topMetric, k);
+        return ResponseEntity.ok(response);
+    }
+}
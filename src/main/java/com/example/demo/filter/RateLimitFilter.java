@@ -0,0 +1,31 @@
+package com.example.demo.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet-filter form of {@link RateLimitInterceptor}, for requests that never reach a Spring MVC
+ * handler. Not a {@code @Component}: Boot would register it for every URL, so it is added through
+ * a {@code FilterRegistrationBean} with explicit URL patterns instead.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitInterceptor interceptor;
+
+    public RateLimitFilter(RateLimitInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (interceptor.preHandle(request, response, this)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
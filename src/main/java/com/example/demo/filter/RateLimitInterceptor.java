@@ -0,0 +1,47 @@
+package com.example.demo.filter;
+
+import com.example.demo.common.RateLimitHeaders;
+import com.example.demo.model.dto.CheckResponse;
+import com.example.demo.service.RateLimitCheckService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Enforces limits in-process: the decision comes from {@link RateLimitCheckService#checkApiAccess}, so
+ * counters ({@code RedisKey}), {@code api_limits} configs, failure modes and decision logging are
+ * shared with the standalone service. Rejected requests get 429 with the RateLimit-* and
+ * Retry-After headers and no body; allowed ones carry the RateLimit-* headers.
+ * <p>
+ * Host applications add it to their {@code InterceptorRegistry}, or wrap it in
+ * {@link RateLimitFilter} for routes outside Spring MVC; {@code EmbeddedRateLimitAutoConfiguration} does
+ * either from {@code app.rate-limit.embedded.*}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitCheckService rateLimitCheckService;
+    private final RateLimitKeyExtractor keyExtractor;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String apiKey = keyExtractor.extract(request);
+        if (apiKey == null) {
+            return true;
+        }
+
+        CheckResponse decision = rateLimitCheckService.checkApiAccess(apiKey);
+        RateLimitHeaders.of(decision).forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        if (decision.isAllowed()) {
+            return true;
+        }
+
+        log.debug("Rejected {} {} for apiKey: {}", request.getMethod(), request.getRequestURI(), apiKey);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Maps an incoming request to the API key it is limited under; {@code null} lets the request
+ * through without a check.
+ */
+@FunctionalInterface
+public interface RateLimitKeyExtractor {
+
+    String extract(HttpServletRequest request);
+
+    static RateLimitKeyExtractor header(String name) {
+        return request -> blankToNull(request.getHeader(name));
+    }
+
+    static RateLimitKeyExtractor queryParameter(String name) {
+        return request -> blankToNull(request.getParameter(name));
+    }
+
+    static RateLimitKeyExtractor remoteAddress() {
+        return HttpServletRequest::getRemoteAddr;
+    }
+
+    /**
+     * Tries each extractor in turn and uses the first key found.
+     */
+    static RateLimitKeyExtractor firstOf(RateLimitKeyExtractor... extractors) {
+        return request -> {
+            for (RateLimitKeyExtractor extractor : extractors) {
+                String key = extractor.extract(request);
+                if (key != null) {
+                    return key;
+                }
+            }
+            return null;
+        };
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
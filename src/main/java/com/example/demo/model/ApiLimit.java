@@ -27,6 +27,10 @@ public class ApiLimit {
     @Positive(message = "Window seconds must be positive")
     private Integer windowSeconds;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "failure_mode", length = 16)
+    private FailureMode failureMode;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
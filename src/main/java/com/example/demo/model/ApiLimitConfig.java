@@ -0,0 +1,17 @@
+package com.example.demo.model;
+
+/**
+ * 檢查流程使用的唯讀設定投影，只含判斷所需欄位，以 JDBC 直接讀取，不經 Hibernate 持久化上下文
+ */
+public record ApiLimitConfig(String apiKey, int limitCount, int windowSeconds, FailureMode failureMode) {
+
+    // 本地快取、Redis 快取與快照皆以 ApiLimit 編碼，轉為未受管理的一般物件後放入
+    public ApiLimit toApiLimit() {
+        ApiLimit limit = new ApiLimit();
+        limit.setApiKey(apiKey);
+        limit.setLimitCount(limitCount);
+        limit.setWindowSeconds(windowSeconds);
+        limit.setFailureMode(failureMode);
+        return limit;
+    }
+}
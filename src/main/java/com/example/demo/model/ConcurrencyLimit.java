@@ -0,0 +1,58 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 同時進行中請求數上限：每次 acquire 取得一張 lease，release 或逾時後歸還
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "concurrency_limits")
+public class ConcurrencyLimit {
+    
+    @Id
+    @Column(name = "api_key", nullable = false)
+    @NotBlank(message = "API key cannot be blank")
+    private String apiKey;
+    
+    @Column(name = "max_concurrent", nullable = false)
+    @Positive(message = "Max concurrent must be positive")
+    private Integer maxConcurrent;
+    
+    // 未 release 的 lease 在此秒數後自動失效，避免客戶端崩潰時占用名額
+    @Column(name = "lease_seconds", nullable = false)
+    @Positive(message = "Lease seconds must be positive")
+    private Integer leaseSeconds;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public ConcurrencyLimit(String apiKey, Integer maxConcurrent, Integer leaseSeconds) {
+        this.apiKey = apiKey;
+        this.maxConcurrent = maxConcurrent;
+        this.leaseSeconds = leaseSeconds;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
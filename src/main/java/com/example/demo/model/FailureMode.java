@@ -0,0 +1,13 @@
+package com.example.demo.model;
+
+/**
+ * Behaviour of a rate limit while Redis is unavailable.
+ */
+public enum FailureMode {
+    /** Allow every request */
+    OPEN,
+    /** Enforce the limit with in-process counters, scaled by node count */
+    LOCAL,
+    /** Reject every request */
+    CLOSED
+}
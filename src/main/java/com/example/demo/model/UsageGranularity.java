@@ -0,0 +1,64 @@
+package com.example.demo.model;
+
+import java.time.Duration;
+
+/**
+ * 使用量歷史的時間粒度
+ * 每個粒度的桶以 Redis Hash 分組存放（一個 Hash 涵蓋 groupSeconds），整個 Hash 一起過期，
+ * 欄位數少時 Redis 以 listpack 緊湊編碼存放。
+ */
+public enum UsageGranularity {
+
+    MINUTE("m", 60, 3600, Duration.ofDays(2)),
+    HOUR("h", 3600, 86400, Duration.ofDays(35)),
+    DAY("d", 86400, 86400 * 32, Duration.ofDays(400));
+
+    private final String code;
+    private final long bucketSeconds;
+    private final long groupSeconds;
+    private final Duration retention;
+
+    UsageGranularity(String code, long bucketSeconds, long groupSeconds, Duration retention) {
+        this.code = code;
+        this.bucketSeconds = bucketSeconds;
+        this.groupSeconds = groupSeconds;
+        this.retention = retention;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public long getGroupSeconds() {
+        return groupSeconds;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    /**
+     * 桶所在的 Hash 編號
+     */
+    public long groupOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, groupSeconds);
+    }
+
+    /**
+     * 桶在 Hash 內的位置
+     */
+    public long offsetOf(long epochSecond) {
+        return Math.floorMod(epochSecond, groupSeconds) / bucketSeconds;
+    }
+
+    /**
+     * 對齊到桶起點
+     */
+    public long truncate(long epochSecond) {
+        return Math.floorDiv(epochSecond, bucketSeconds) * bucketSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkImportResponse {
+
+    // Non-blank lines read from the request body
+    private int received;
+    private int imported;
+    private int failed;
+    // Capped at app.bulk-import.max-reported-errors; failed still counts every rejected row
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    // Body ended early (client disconnect); rows before the reported line were already written
+    private boolean aborted;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // 1-based line number in the NDJSON body
+        private long line;
+        private String apiKey;
+        private String error;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateConcurrencyLimitRequest {
+    
+    @NotBlank(message = "API key cannot be blank")
+    private String apiKey;
+    
+    @Positive(message = "Max concurrent must be positive")
+    private Integer maxConcurrent;
+    
+    @Positive(message = "Lease seconds must be positive")
+    private Integer leaseSeconds;
+}
@@ -1,7 +1,9 @@
 package com.example.demo.model.dto;
 
+import com.example.demo.model.FailureMode;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +14,7 @@ import lombok.NoArgsConstructor;
 public class CreateLimitRequest {
     
     @NotBlank(message = "API key cannot be blank")
+    @Size(max = 255, message = "API key must be at most 255 characters")
     private String apiKey;
     
     @Positive(message = "Limit must be positive")
@@ -19,4 +22,13 @@ public class CreateLimitRequest {
     
     @Positive(message = "Window seconds must be positive")
     private Integer windowSeconds;
+    
+    // Optional, falls back to app.rate-limit.fallback.default-mode
+    private FailureMode failureMode;
+    
+    public CreateLimitRequest(String apiKey, Integer limit, Integer windowSeconds) {
+        this.apiKey = apiKey;
+        this.limit = limit;
+        this.windowSeconds = windowSeconds;
+    }
 }
\ No newline at end of file
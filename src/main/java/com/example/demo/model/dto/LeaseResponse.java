@@ -0,0 +1,24 @@
+package com.example.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaseResponse {
+    
+    private boolean acquired;
+    private String message;
+    // null 表示未設定上限或降級放行，不需 release
+    private String leaseId;
+    private Integer inFlight;
+    private Integer maxConcurrent;
+    private Long expiresAt;
+    
+    public LeaseResponse(boolean acquired, String message) {
+        this.acquired = acquired;
+        this.message = message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LimitsCursorResponse {
+
+    private List<LimitsResponse.LimitInfo> limits;
+    private int pageSize;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+    // Only present with includeTotal=true; may lag writes by a few seconds
+    private Long totalElements;
+}
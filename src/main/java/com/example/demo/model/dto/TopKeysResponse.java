@@ -0,0 +1,26 @@
+package com.example.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopKeysResponse {
+
+    private String metric;
+    // "cluster" when merged across nodes through Redis, "local" when only this node's sketch was used
+    private String scope;
+    private List<KeyCount> keys;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KeyCount {
+        private String apiKey;
+        private long count;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.UsageGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageHistoryResponse {
+
+    private String apiKey;
+    private UsageGranularity granularity;
+    private Instant from;
+    private Instant to;
+    private List<UsagePoint> points;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UsagePoint {
+        private Instant timestamp;
+        private long allowed;
+        private long blocked;
+    }
+}
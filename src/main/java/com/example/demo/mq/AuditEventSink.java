@@ -0,0 +1,188 @@
+package com.example.demo.mq;
+
+import com.example.demo.repository.RateLimitEventJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 稽核事件持久化：有界緩衝 + JDBC 批次寫入
+ * 累積到 batch-size 或定時觸發時整批寫入，關閉時寫完緩衝內容。
+ * 緩衝已滿時 append 拋出例外，讓 MQ 稍後重新投遞，而不是無限制堆積在記憶體。
+ * 同一批連續失敗 max-batch-retries 次後改為逐筆寫入，資料庫拒絕的資料列（違反約束等）記錄後丟棄，
+ * 避免單筆壞資料永久卡住後續寫入。
+ */
+@Slf4j
+@Service
+public class AuditEventSink {
+
+    private final RateLimitEventJdbcRepository eventRepository;
+    private final BlockingQueue<RateLimitEventMessage> buffer;
+    private final int batchSize;
+    private final long appendTimeoutMillis;
+    private final int maxBatchRetries;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // 寫入失敗的批次保留到下次 flush 優先重試
+    private volatile List<RateLimitEventMessage> failedBatch = List.of();
+    // 僅在持有 flushLock 時讀寫
+    private int failedAttempts;
+
+    private final LongAdder writtenEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+
+    public AuditEventSink(RateLimitEventJdbcRepository eventRepository,
+                          @Value("${app.audit.buffer-capacity:10000}") int bufferCapacity,
+                          @Value("${app.audit.batch-size:500}") int batchSize,
+                          @Value("${app.audit.append-timeout-ms:100}") long appendTimeoutMillis,
+                          @Value("${app.audit.max-batch-retries:3}") int maxBatchRetries) {
+        this.eventRepository = eventRepository;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.appendTimeoutMillis = appendTimeoutMillis;
+        this.maxBatchRetries = maxBatchRetries;
+    }
+
+    /**
+     * 加入緩衝，達到批次大小時由呼叫端執行緒直接寫入
+     * @throws IllegalStateException 緩衝已滿且在等待時間內未釋出空間
+     */
+    public void append(RateLimitEventMessage event) {
+        if (!buffer.offer(event)) {
+            flush();
+            try {
+                if (!buffer.offer(event, appendTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Audit buffer full");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for audit buffer", e);
+            }
+        }
+
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * 定時寫入未滿一批的事件
+     */
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval-ms:1000}")
+    public void flush() {
+        // 已有執行緒在寫入時不重複等待，資料會由該執行緒一併寫出
+        if (flushLock.tryLock()) {
+            drain();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        drain();
+        int remaining = failedBatch.size() + buffer.size();
+        if (remaining > 0) {
+            log.error("Audit events lost on shutdown: count={}", remaining);
+        }
+    }
+
+    int getBufferedCount() {
+        return buffer.size() + failedBatch.size();
+    }
+
+    long getWrittenCount() {
+        return writtenEvents.sum();
+    }
+
+    long getDroppedCount() {
+        return droppedEvents.sum();
+    }
+
+    /**
+     * 寫出緩衝內容，呼叫前須持有 flushLock，結束時釋放
+     */
+    private void drain() {
+        try {
+            if (!failedBatch.isEmpty() && !retryFailedBatch()) {
+                return;
+            }
+
+            List<RateLimitEventMessage> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                if (!write(batch)) {
+                    failedBatch = batch;
+                    failedAttempts = 1;
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return true when the failed batch is fully written or dropped, false if it must wait for the next flush
+     */
+    private boolean retryFailedBatch() {
+        if (write(failedBatch)) {
+            failedBatch = List.of();
+            failedAttempts = 0;
+            return true;
+        }
+        if (++failedAttempts < maxBatchRetries) {
+            return false;
+        }
+
+        // 整批持續失敗：逐筆寫入找出資料庫拒絕的資料列
+        List<RateLimitEventMessage> remaining = new ArrayList<>(failedBatch);
+        Iterator<RateLimitEventMessage> iterator = remaining.iterator();
+        while (iterator.hasNext()) {
+            RateLimitEventMessage event = iterator.next();
+            try {
+                eventRepository.batchInsert(List.of(event));
+                writtenEvents.increment();
+            } catch (NonTransientDataAccessException e) {
+                if (e instanceof DataAccessResourceFailureException) {
+                    // 連線問題不是資料本身的錯誤，保留其餘資料列待下次重試
+                    failedBatch = remaining;
+                    return false;
+                }
+                log.error("Dropping audit event rejected by database: apiKey={}, eventType={}, timestamp={}, error={}",
+                    event.getApiKey(), event.getEventType(), event.getTimestamp(), e.getMessage());
+                droppedEvents.increment();
+            } catch (Exception e) {
+                failedBatch = remaining;
+                return false;
+            }
+            iterator.remove();
+        }
+        failedBatch = List.of();
+        failedAttempts = 0;
+        return true;
+    }
+
+    private boolean write(List<RateLimitEventMessage> batch) {
+        try {
+            eventRepository.batchInsert(batch);
+            writtenEvents.add(batch.size());
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to write audit events: count={}, error={}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.demo.mq;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * BLOCKED 事件聚合器
+ * 同一 apiKey 在同一限流窗口內的拒絕只會產生一筆摘要事件，
+ * MQ 流量與 apiKey 數量成正比，而非與攻擊流量成正比。
+ * record 在請求路徑（含 Lettuce event loop）上呼叫，只更新記憶體，MQ 發送一律在排程執行緒進行。
+ */
+@Slf4j
+@Service
+public class BlockedEventAggregator {
+
+    private final MessageProducer messageProducer;
+    private final int maxPendingKeys;
+    private final long maxWindowMillis;
+
+    private final ConcurrentMap<String, BlockedSummary> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final LongAdder overflowDrops = new LongAdder();
+    private volatile boolean flushAllRequested;
+
+    public BlockedEventAggregator(MessageProducer messageProducer,
+                                  @Value("${app.rocketmq.blocked-aggregation.max-pending-keys:10000}") int maxPendingKeys,
+                                  @Value("${app.rocketmq.blocked-aggregation.max-window-ms:60000}") long maxWindowMillis) {
+        this.messageProducer = messageProducer;
+        this.maxPendingKeys = maxPendingKeys;
+        this.maxWindowMillis = maxWindowMillis;
+    }
+
+    /**
+     * 記錄一次拒絕，併入該 apiKey 目前窗口的摘要
+     */
+    public void record(String apiKey, int currentCount, int limitCount, long windowTtl) {
+        // 數量門檻：待發送的 apiKey 已達上限時，新 key 的拒絕只計數不聚合，並通知排程提前全部送出
+        if (pending.size() >= maxPendingKeys && !pending.containsKey(apiKey)) {
+            overflowDrops.increment();
+            flushAllRequested = true;
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        // compute 與 flush 的 computeIfPresent 互斥，摘要移除後的拒絕會進入新的摘要
+        pending.compute(apiKey, (key, summary) -> {
+            if (summary == null) {
+                summary = new BlockedSummary(apiKey, limitCount, now, now + windowMillis(windowTtl));
+            }
+            summary.add(now, currentCount, windowTtl);
+            return summary;
+        });
+    }
+
+    /**
+     * 定時送出窗口已結束的摘要；達到數量門檻後的下一輪送出全部摘要
+     */
+    @Scheduled(fixedDelayString = "${app.rocketmq.blocked-aggregation.flush-interval-ms:1000}")
+    public void flushExpired() {
+        // 上一輪仍在送出時略過本輪
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        boolean all = flushAllRequested;
+        flushAllRequested = false;
+        flush(all);
+        long dropped = overflowDrops.sumThenReset();
+        if (dropped > 0) {
+            log.warn("Blocked summary buffer full ({} keys), dropped {} rejections", maxPendingKeys, dropped);
+        }
+    }
+
+    /**
+     * 等待進行中的排程送出結束後再送出全部摘要，避免尚未到期的摘要在關閉時遺失
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        flush(true);
+    }
+
+    int getPendingKeyCount() {
+        return pending.size();
+    }
+
+    long getOverflowDropCount() {
+        return overflowDrops.sum();
+    }
+
+    /**
+     * 呼叫前須持有 flushLock，結束時釋放
+     */
+    private void flush(boolean all) {
+        try {
+            long now = System.currentTimeMillis();
+            List<BlockedSummary> ready = new ArrayList<>();
+            for (String apiKey : pending.keySet()) {
+                pending.computeIfPresent(apiKey, (key, summary) -> {
+                    if (all || summary.windowEnd <= now) {
+                        ready.add(summary);
+                        return null;
+                    }
+                    return summary;
+                });
+            }
+
+            for (BlockedSummary summary : ready) {
+                messageProducer.sendRateLimitEvent(summary.toEvent());
+            }
+            if (!ready.isEmpty()) {
+                log.debug("Flushed {} blocked summaries", ready.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private long windowMillis(long windowTtl) {
+        return windowTtl > 0 ? Math.min(windowTtl * 1000, maxWindowMillis) : maxWindowMillis;
+    }
+
+    /**
+     * 單一 apiKey 的窗口摘要，僅在 ConcurrentHashMap 的 compute 內修改
+     */
+    private static final class BlockedSummary {
+        private final String apiKey;
+        private final int limitCount;
+        private final long firstSeen;
+        private final long windowEnd;
+        private long lastSeen;
+        private int rejectedCount;
+        private int peakCount;
+        private long windowTtl;
+
+        private BlockedSummary(String apiKey, int limitCount, long firstSeen, long windowEnd) {
+            this.apiKey = apiKey;
+            this.limitCount = limitCount;
+            this.firstSeen = firstSeen;
+            this.windowEnd = windowEnd;
+        }
+
+        private void add(long now, int currentCount, long ttl) {
+            lastSeen = now;
+            rejectedCount++;
+            peakCount = Math.max(peakCount, currentCount);
+            windowTtl = ttl;
+        }
+
+        private RateLimitEventMessage toEvent() {
+            return RateLimitEventMessage.blockedSummary(apiKey, rejectedCount, peakCount, limitCount,
+                windowTtl, firstSeen, lastSeen);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.mq;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 去重各層攔截統計
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DedupStats {
+
+    private long localHits;       // 本地快取判定為重複
+    private long redisHits;       // Redis 判定為重複
+    private long newMessages;     // 新訊息
+    private long redisFailures;   // Redis 異常降級放行
+    private int localCacheSize;
+}
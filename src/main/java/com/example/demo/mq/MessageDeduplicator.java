@@ -0,0 +1,177 @@
+package com.example.demo.mq;
+
+import com.example.demo.common.RedisKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MQ 訊息兩層去重：本地近期 ID 快取 → Redis 時間分桶 SET
+ * 重複投遞多在數秒內回到同一消費實例，大部分判定可在本地完成。
+ *
+ * Redis 端不再為每則訊息建立一個帶 TTL 的 String Key，而是每個時間分桶一個 SET，
+ * 成員為訊息 ID 的 64-bit 指紋（整數字串，小分桶可用 intset 編碼），整桶一起過期。
+ * 一次腳本呼叫即檢查最近 N 個分桶並寫入目前分桶。
+ */
+@Slf4j
+@Service
+public class MessageDeduplicator {
+
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> mqDedupScript;
+    private final StringRedisTemplate redisTemplate;
+    private final RecentIdCache localCache;
+    private final long bucketSeconds;
+    private final int bucketCount;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder newMessages = new LongAdder();
+    private final LongAdder redisFailures = new LongAdder();
+
+    @SuppressWarnings("rawtypes")
+    public MessageDeduplicator(StringRedisTemplate redisTemplate,
+                               DefaultRedisScript<List> mqDedupScript,
+                               @Value("${app.rocketmq.consumer.dedup.local-cache-size:100000}") int localCacheSize,
+                               @Value("${app.rocketmq.consumer.dedup.local-ttl-seconds:300}") long localTtlSeconds,
+                               @Value("${app.rocketmq.consumer.dedup.bucket-seconds:300}") long bucketSeconds,
+                               @Value("${app.rocketmq.consumer.dedup.bucket-count:12}") int bucketCount) {
+        this.redisTemplate = redisTemplate;
+        this.mqDedupScript = mqDedupScript;
+        this.localCache = new RecentIdCache(localCacheSize, TimeUnit.SECONDS.toMillis(localTtlSeconds));
+        this.bucketSeconds = bucketSeconds;
+        this.bucketCount = bucketCount;
+    }
+
+    /**
+     * 嘗試獲取去重鎖
+     * @return true 表示是新訊息，false 表示重複訊息
+     */
+    public boolean tryAcquire(String msgId) {
+        return tryAcquireAll(List.of(msgId))[0];
+    }
+
+    /**
+     * 批次獲取去重鎖，本地未命中的訊息以一次腳本呼叫完成分桶檢查與寫入
+     * @return 與 msgIds 同順序，true 表示是新訊息
+     */
+    public boolean[] tryAcquireAll(List<String> msgIds) {
+        long now = System.currentTimeMillis();
+        boolean[] acquired = new boolean[msgIds.size()];
+        List<Integer> remoteIndexes = new ArrayList<>(msgIds.size());
+        for (int i = 0; i < msgIds.size(); i++) {
+            if (localCache.contains(msgIds.get(i), now)) {
+                localHits.increment();
+            } else {
+                remoteIndexes.add(i);
+            }
+        }
+        if (remoteIndexes.isEmpty()) {
+            return acquired;
+        }
+
+        Object[] args = new Object[remoteIndexes.size() + 1];
+        args[0] = String.valueOf(bucketTtlSeconds());
+        for (int i = 0; i < remoteIndexes.size(); i++) {
+            args[i + 1] = fingerprint(msgIds.get(remoteIndexes.get(i)));
+        }
+
+        try {
+            List<?> results = redisTemplate.execute(mqDedupScript, bucketKeys(now), args);
+            for (int i = 0; i < remoteIndexes.size(); i++) {
+                int index = remoteIndexes.get(i);
+                boolean isNew = results != null && Long.valueOf(1L).equals(results.get(i));
+                acquired[index] = recordRedisResult(msgIds.get(index), isNew, now);
+            }
+        } catch (Exception e) {
+            // Redis 異常時，允許處理（降級為 at-least-once）
+            log.warn("Redis dedup check failed, allowing {} messages, error={}",
+                remoteIndexes.size(), e.getMessage());
+            redisFailures.add(remoteIndexes.size());
+            for (int index : remoteIndexes) {
+                localCache.add(msgIds.get(index), now);
+                acquired[index] = true;
+            }
+        }
+        return acquired;
+    }
+
+    /**
+     * 釋放去重鎖（處理失敗時調用，允許重試）
+     * 寫入時的分桶可能已輪替，因此從所有檢查範圍內的分桶移除
+     */
+    public void release(String msgId) {
+        localCache.remove(msgId);
+        try {
+            String member = fingerprint(msgId);
+            List<String> keys = bucketKeys(System.currentTimeMillis());
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (String key : keys) {
+                    stringConnection.sRem(key, member);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to release dedup lock: msgId={}, error={}", msgId, e.getMessage());
+        }
+    }
+
+    public DedupStats getStats() {
+        return new DedupStats(localHits.sum(), redisHits.sum(), newMessages.sum(), redisFailures.sum(),
+            localCache.size());
+    }
+
+    /**
+     * 目前分桶在前，其後依序為較舊的分桶，共 bucketCount 個
+     */
+    List<String> bucketKeys(long nowMillis) {
+        long current = TimeUnit.MILLISECONDS.toSeconds(nowMillis) / bucketSeconds;
+        List<String> keys = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            keys.add(RedisKey.mqDedupBucket(current - i));
+        }
+        return keys;
+    }
+
+    /**
+     * 訊息 ID 的 64-bit 指紋（MD5 前 8 bytes），以十進位字串存放
+     */
+    static String fingerprint(String msgId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(msgId.getBytes(StandardCharsets.UTF_8));
+            return Long.toString(ByteBuffer.wrap(digest).getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    private long bucketTtlSeconds() {
+        // 多保留一個分桶，確保最舊的分桶在檢查範圍內不會提早過期
+        return bucketSeconds * (bucketCount + 1L);
+    }
+
+    private boolean recordRedisResult(String msgId, boolean isNew, long now) {
+        // 不論新舊都記入本地，之後的重複投遞不再查 Redis
+        localCache.add(msgId, now);
+        if (isNew) {
+            newMessages.increment();
+        } else {
+            redisHits.increment();
+        }
+        return isNew;
+    }
+}
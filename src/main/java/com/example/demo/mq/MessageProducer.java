@@ -1,14 +1,26 @@
 package com.example.demo.mq;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.client.producer.SendCallback;
 import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -21,18 +33,91 @@ public class MessageProducer {
     @Value("${app.rocketmq.topic}")
     private String topic;
 
+    // 批次模式配置
+    @Value("${app.rocketmq.producer.batch.enabled:false}")
+    private boolean batchEnabled;
+    @Value("${app.rocketmq.producer.batch.capacity:10000}")
+    private int bufferCapacity;
+    @Value("${app.rocketmq.producer.batch.max-size:100}")
+    private int maxBatchSize;
+    @Value("${app.rocketmq.producer.batch.linger-ms:50}")
+    private long lingerMillis;
+    @Value("${app.rocketmq.producer.batch.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+    @Value("${app.rocketmq.producer.batch.block-timeout-ms:10}")
+    private long blockTimeoutMillis;
+    @Value("${rocketmq.producer.send-message-timeout:3000}")
+    private long sendTimeoutMillis;
+
     private volatile boolean mqEnabled = true;
     private volatile long lastFailTime = 0;
 
+    private BlockingQueue<RateLimitEventMessage> buffer;
+    private Thread senderThread;
+    private volatile boolean running;
+
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder sentBatches = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+
+    /**
+     * 緩衝區滿時的處理策略
+     */
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEW,
+        BLOCK
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!batchEnabled) {
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        running = true;
+        senderThread = new Thread(this::sendLoop, "mq-batch-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+        log.info("MQ batch mode enabled: capacity={}, maxBatchSize={}, lingerMs={}, overflowPolicy={}",
+            bufferCapacity, maxBatchSize, lingerMillis, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!batchEnabled) {
+            return;
+        }
+        running = false;
+        senderThread.interrupt();
+        try {
+            senderThread.join(sendTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 送出剩餘事件
+        List<RateLimitEventMessage> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            sendBatch(remaining);
+        }
+    }
+
     public void sendRateLimitEvent(RateLimitEventMessage eventMessage) {
         // 熔斷器檢查
-        if (!mqEnabled && (System.currentTimeMillis() - lastFailTime < CIRCUIT_BREAKER_TIMEOUT)) {
+        if (isCircuitOpen()) {
             log.debug("MQ circuit breaker active, skipping message for apiKey: {}", eventMessage.getApiKey());
             return;
         }
 
+        if (batchEnabled) {
+            enqueue(eventMessage);
+            return;
+        }
+
         // 使用 RocketMQTemplate 異步發送，topic:tag 格式
-        String destination = topic + ":" + eventMessage.getEventType().name();
+        String destination = destination(eventMessage.getEventType());
 
         rocketMQTemplate.asyncSend(destination, MessageBuilder.withPayload(eventMessage).build(),
             new SendCallback() {
@@ -54,11 +139,135 @@ public class MessageProducer {
         );
     }
 
-    public void sendBlockedEvent(String apiKey, Integer currentCount, Integer limitCount, Long windowTtl) {
-        sendRateLimitEvent(RateLimitEventMessage.blocked(apiKey, currentCount, limitCount, windowTtl));
-    }
-
     public void sendConfigChangeEvent(String apiKey, RateLimitEventType.ConfigAction action) {
         sendRateLimitEvent(RateLimitEventMessage.configChange(apiKey, action));
     }
+
+    public void sendBulkConfigChangeEvent(int importedCount) {
+        sendRateLimitEvent(RateLimitEventMessage.bulkConfigChange(importedCount));
+    }
+
+    public ProducerStats getStats() {
+        return new ProducerStats(
+            batchEnabled,
+            buffer != null ? buffer.size() : 0,
+            batchEnabled ? bufferCapacity : 0,
+            droppedEvents.sum(),
+            sentEvents.sum(),
+            sentBatches.sum(),
+            failedEvents.sum(),
+            !isCircuitOpen()
+        );
+    }
+
+    /**
+     * 放入有界緩衝區，依 overflowPolicy 處理溢出
+     */
+    private void enqueue(RateLimitEventMessage eventMessage) {
+        switch (overflowPolicy) {
+            case DROP_NEW -> {
+                if (!buffer.offer(eventMessage)) {
+                    droppedEvents.increment();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!buffer.offer(eventMessage)) {
+                    if (buffer.poll() != null) {
+                        droppedEvents.increment();
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (!buffer.offer(eventMessage, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        droppedEvents.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedEvents.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * 批次發送迴圈：湊滿 maxBatchSize 或自第一筆起等待 lingerMillis 後送出。
+     * 同步發送保證同時最多一個批次在途。
+     */
+    private void sendLoop() {
+        List<RateLimitEventMessage> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                RateLimitEventMessage first = buffer.poll(lingerMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        break;
+                    }
+                    RateLimitEventMessage next = buffer.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    buffer.drainTo(batch, maxBatchSize - batch.size());
+                }
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // 關閉時送出已取出但未送出的事件
+                    if (!batch.isEmpty()) {
+                        sendBatch(batch);
+                    }
+                    break;
+                }
+            } catch (Exception e) {
+                log.warn("Unexpected error in MQ batch sender: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void sendBatch(List<RateLimitEventMessage> batch) {
+        if (isCircuitOpen()) {
+            droppedEvents.add(batch.size());
+            return;
+        }
+
+        // RocketMQ 批次訊息需相同 topic:tag，依事件類型分組
+        Map<RateLimitEventType.Event, List<Message<RateLimitEventMessage>>> byType =
+            new EnumMap<>(RateLimitEventType.Event.class);
+        for (RateLimitEventMessage event : batch) {
+            byType.computeIfAbsent(event.getEventType(), type -> new ArrayList<>())
+                .add(MessageBuilder.withPayload(event).build());
+        }
+
+        byType.forEach((eventType, messages) -> {
+            try {
+                SendResult result = rocketMQTemplate.syncSend(destination(eventType), messages, sendTimeoutMillis);
+                log.debug("Sent batch of {} {} events - {}", messages.size(), eventType, result.getSendStatus());
+                sentEvents.add(messages.size());
+                sentBatches.increment();
+                mqEnabled = true;
+            } catch (Exception e) {
+                log.warn("Failed to send batch of {} {} events - {}", messages.size(), eventType, e.getMessage());
+                failedEvents.add(messages.size());
+                mqEnabled = false;
+                lastFailTime = System.currentTimeMillis();
+            }
+        });
+    }
+
+    private boolean isCircuitOpen() {
+        return !mqEnabled && (System.currentTimeMillis() - lastFailTime < CIRCUIT_BREAKER_TIMEOUT);
+    }
+
+    private String destination(RateLimitEventType.Event eventType) {
+        return topic + ":" + eventType.name();
+    }
 }
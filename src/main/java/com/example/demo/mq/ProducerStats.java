@@ -0,0 +1,23 @@
+package com.example.demo.mq;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MessageProducer 指標快照
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProducerStats {
+
+    private boolean batchEnabled;
+    private int queueDepth;
+    private int queueCapacity;
+    private long droppedEvents;
+    private long sentEvents;
+    private long sentBatches;
+    private long failedEvents;
+    private boolean circuitClosed;
+}
@@ -1,19 +1,24 @@
 package com.example.demo.mq;
 
-import com.example.demo.common.RedisKey;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyContext;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyStatus;
+import org.apache.rocketmq.client.consumer.listener.MessageListenerConcurrently;
 import org.apache.rocketmq.common.message.MessageExt;
 import org.apache.rocketmq.spring.annotation.ConsumeMode;
 import org.apache.rocketmq.spring.annotation.MessageModel;
 import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
 import org.apache.rocketmq.spring.core.RocketMQListener;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.apache.rocketmq.spring.core.RocketMQPushConsumerLifecycleListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -25,28 +30,43 @@ import java.util.concurrent.TimeUnit;
     consumeMode = ConsumeMode.CONCURRENTLY,
     consumeThreadNumber = 4
 )
-public class RateLimitEventConsumer implements RocketMQListener<MessageExt> {
+public class RateLimitEventConsumer implements RocketMQListener<MessageExt>, RocketMQPushConsumerLifecycleListener {
 
-    private final StringRedisTemplate redisTemplate;
+    private final MessageDeduplicator messageDeduplicator;
     private final ObjectMapper objectMapper;
+    private final AuditEventSink auditEventSink;
 
-    // Redis 去重配置
-    private static final long DEDUP_EXPIRE_SECONDS = 3600; // 1 小時
+    // 批次消費大小，1 表示逐筆消費
+    @Value("${app.rocketmq.consumer.batch-size:1}")
+    private int batchSize;
+
+    private DefaultMQPushConsumer pushConsumer;
+
+    @Override
+    public void prepareStart(DefaultMQPushConsumer consumer) {
+        this.pushConsumer = consumer;
+        if (batchSize <= 1) {
+            return;
+        }
+        // 取代 starter 預設的逐筆 listener，改為整批消費
+        consumer.setConsumeMessageBatchMaxSize(batchSize);
+        consumer.setMessageListener((MessageListenerConcurrently) this::consumeBatch);
+        log.info("Batch consumption enabled: batchSize={}", batchSize);
+    }
 
     @Override
     public void onMessage(MessageExt messageExt) {
         String msgId = messageExt.getMsgId();
 
         // Redis 去重檢查，校驗重複消費
-        if (!tryAcquireDedupLock(msgId)) {
+        if (!messageDeduplicator.tryAcquire(msgId)) {
             log.debug("Duplicate message ignored: msgId={}", msgId);
             return;
         }
 
         try {
             // 解析訊息
-            String body = new String(messageExt.getBody(), StandardCharsets.UTF_8);
-            RateLimitEventMessage message = objectMapper.readValue(body, RateLimitEventMessage.class);
+            RateLimitEventMessage message = parse(messageExt);
 
             log.debug("Received message: msgId={}, eventType={}, apiKey={}",
                 msgId, message.getEventType(), message.getApiKey());
@@ -57,38 +77,84 @@ public class RateLimitEventConsumer implements RocketMQListener<MessageExt> {
         } catch (Exception e) {
             log.error("Failed to process message: msgId={}, error={}", msgId, e.getMessage(), e);
             // 處理失敗，刪除去重 key，允許重試
-            releaseDedupLock(msgId);
+            messageDeduplicator.release(msgId);
             throw new RuntimeException("Message processing failed", e);
         }
     }
 
     /**
-     * 嘗試獲取去重鎖
-     * @return true 表示是新訊息，false 表示重複訊息
+     * 批次消費：整批去重一次 Redis 往返，失敗的訊息個別釋放去重鎖並退回重試，
+     * 不影響同批已成功的訊息。
      */
-    private boolean tryAcquireDedupLock(String msgId) {
-        try {
-            String dedupKey = RedisKey.mqDedup(msgId);
-            Boolean isNew = redisTemplate.opsForValue()
-                .setIfAbsent(dedupKey, "1", DEDUP_EXPIRE_SECONDS, TimeUnit.SECONDS);
-            return Boolean.TRUE.equals(isNew);
-        } catch (Exception e) {
-            // Redis 異常時，允許處理（降級為 at-least-once）
-            log.warn("Redis dedup check failed, allowing message: msgId={}, error={}", msgId, e.getMessage());
-            return true;
+    ConsumeConcurrentlyStatus consumeBatch(List<MessageExt> messages, ConsumeConcurrentlyContext context) {
+        List<String> msgIds = new ArrayList<>(messages.size());
+        for (MessageExt messageExt : messages) {
+            msgIds.add(messageExt.getMsgId());
+        }
+        boolean[] acquired = messageDeduplicator.tryAcquireAll(msgIds);
+
+        List<MessageExt> accepted = new ArrayList<>(messages.size());
+        List<RateLimitEventMessage> events = new ArrayList<>(messages.size());
+        List<MessageExt> failed = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            MessageExt messageExt = messages.get(i);
+            if (!acquired[i]) {
+                log.debug("Duplicate message ignored: msgId={}", messageExt.getMsgId());
+                continue;
+            }
+            try {
+                events.add(parse(messageExt));
+                accepted.add(messageExt);
+            } catch (Exception e) {
+                log.error("Failed to parse message: msgId={}, error={}", messageExt.getMsgId(), e.getMessage());
+                failed.add(messageExt);
+            }
         }
+
+        boolean[] processed = processEvents(events);
+        for (int i = 0; i < processed.length; i++) {
+            if (!processed[i]) {
+                failed.add(accepted.get(i));
+            }
+        }
+
+        // 先釋放所有失敗訊息的去重鎖，退回中途失敗而整批重試時才不會被當成重複略過
+        for (MessageExt messageExt : failed) {
+            messageDeduplicator.release(messageExt.getMsgId());
+        }
+        for (MessageExt messageExt : failed) {
+            try {
+                pushConsumer.sendMessageBack(messageExt, context.getDelayLevelWhenNextConsume());
+            } catch (Exception e) {
+                // 無法個別退回時整批重試，已成功的訊息會被去重略過
+                log.warn("Failed to send message back, retrying whole batch: msgId={}, error={}",
+                    messageExt.getMsgId(), e.getMessage());
+                return ConsumeConcurrentlyStatus.RECONSUME_LATER;
+            }
+        }
+        return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
+    }
+
+    private RateLimitEventMessage parse(MessageExt messageExt) throws Exception {
+        String body = new String(messageExt.getBody(), StandardCharsets.UTF_8);
+        return objectMapper.readValue(body, RateLimitEventMessage.class);
     }
 
     /**
-     * 釋放去重鎖（處理失敗時調用，允許重試）
+     * 批次處理事件
+     * @return 與 events 同順序，true 表示處理成功
      */
-    private void releaseDedupLock(String msgId) {
-        try {
-            String dedupKey = RedisKey.mqDedup(msgId);
-            redisTemplate.delete(dedupKey);
-        } catch (Exception e) {
-            log.warn("Failed to release dedup lock: msgId={}, error={}", msgId, e.getMessage());
+    private boolean[] processEvents(List<RateLimitEventMessage> events) {
+        boolean[] processed = new boolean[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                processEvent(events.get(i));
+                processed[i] = true;
+            } catch (Exception e) {
+                log.error("Failed to process event: apiKey={}, error={}", events.get(i).getApiKey(), e.getMessage());
+            }
         }
+        return processed;
     }
 
     private void processEvent(RateLimitEventMessage message) {
@@ -104,12 +170,17 @@ public class RateLimitEventConsumer implements RocketMQListener<MessageExt> {
     }
 
     private void handleBlockedEvent(RateLimitEventMessage event) {
-        log.info("[AUDIT] BLOCKED - apiKey={}, currentCount={}, limitCount={}, windowTtl={}, message={}",
+        log.info("[AUDIT] BLOCKED - apiKey={}, rejectedCount={}, peakCount={}, limitCount={}, windowTtl={}, "
+                + "firstSeen={}, lastSeen={}, message={}",
             event.getApiKey(),
-            event.getCurrentCount(),
+            event.getRejectedCount(),
+            event.getPeakCount() != null ? event.getPeakCount() : event.getCurrentCount(),
             event.getLimitCount(),
             event.getWindowTtl(),
+            event.getFirstSeen(),
+            event.getLastSeen(),
             event.getMessage());
+        auditEventSink.append(event);
     }
 
     private void handleConfigChangeEvent(RateLimitEventMessage event) {
@@ -117,5 +188,6 @@ public class RateLimitEventConsumer implements RocketMQListener<MessageExt> {
             event.getApiKey(),
             event.getMessage(),
             event.getTimestamp());
+        auditEventSink.append(event);
     }
 }
@@ -3,12 +3,17 @@ package com.example.demo.mq;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Data
 @NoArgsConstructor
 public class RateLimitEventMessage {
 
+    // 批次匯入彙總事件不屬於單一 apiKey
+    public static final String BULK_API_KEY = "*";
+
     private String apiKey;
     private RateLimitEventType.Event eventType;
     private Integer currentCount;
@@ -17,6 +22,12 @@ public class RateLimitEventMessage {
     private LocalDateTime timestamp;
     private String message;
 
+    // BLOCKED 摘要欄位：同一窗口內的拒絕次數、最高計數、首次與最後拒絕時間
+    private Integer rejectedCount;
+    private Integer peakCount;
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
+
     public RateLimitEventMessage(String apiKey, RateLimitEventType.Event eventType, Integer currentCount,
                                 Integer limitCount, Long windowTtl, String message) {
         this.apiKey = apiKey;
@@ -43,6 +54,20 @@ public class RateLimitEventMessage {
         );
     }
 
+    /**
+     * 建立 BLOCKED 摘要事件（一個 apiKey 一個窗口一筆）
+     */
+    public static RateLimitEventMessage blockedSummary(String apiKey, int rejectedCount, int peakCount,
+                                                       int limitCount, long windowTtl,
+                                                       long firstSeenMillis, long lastSeenMillis) {
+        RateLimitEventMessage event = blocked(apiKey, peakCount, limitCount, windowTtl);
+        event.setRejectedCount(rejectedCount);
+        event.setPeakCount(peakCount);
+        event.setFirstSeen(toLocalDateTime(firstSeenMillis));
+        event.setLastSeen(toLocalDateTime(lastSeenMillis));
+        return event;
+    }
+
     /**
      * 建立 CONFIG_CHANGE 事件
      */
@@ -56,4 +81,18 @@ public class RateLimitEventMessage {
             action.toMessage()
         );
     }
+
+    /**
+     * 建立批次匯入的彙總 CONFIG_CHANGE 事件，currentCount 為寫入筆數
+     */
+    public static RateLimitEventMessage bulkConfigChange(int importedCount) {
+        RateLimitEventMessage event = configChange(BULK_API_KEY, RateLimitEventType.ConfigAction.BULK_IMPORTED);
+        event.setCurrentCount(importedCount);
+        event.setMessage(event.getMessage() + ": " + importedCount + " keys");
+        return event;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
 }
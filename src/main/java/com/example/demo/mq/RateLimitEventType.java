@@ -19,7 +19,8 @@ public class RateLimitEventType {
     public enum ConfigAction {
         CREATED("created"),
         UPDATED("updated"),
-        DELETED("deleted");
+        DELETED("deleted"),
+        BULK_IMPORTED("bulk imported");
 
         private final String action;
 
@@ -0,0 +1,53 @@
+package com.example.demo.mq;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 近期訊息 ID 本地快取：有容量上限，依插入時間過期。
+ * 所有項目 TTL 相同，插入順序即過期順序，只需從頭部淘汰。
+ */
+class RecentIdCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Long> expiryById = new LinkedHashMap<>();
+
+    RecentIdCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    synchronized boolean contains(String id, long now) {
+        Long expiry = expiryById.get(id);
+        return expiry != null && expiry > now;
+    }
+
+    synchronized void add(String id, long now) {
+        // 重新插入以移到尾部
+        expiryById.remove(id);
+        expiryById.put(id, now + ttlMillis);
+        evict(now);
+    }
+
+    synchronized void remove(String id) {
+        expiryById.remove(id);
+    }
+
+    synchronized int size() {
+        return expiryById.size();
+    }
+
+    private void evict(long now) {
+        Iterator<Map.Entry<String, Long>> iterator = expiryById.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (expiryById.size() > maxSize || eldest.getValue() <= now) {
+                iterator.remove();
+            } else {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.ApiLimitConfig;
+import com.example.demo.model.FailureMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * api_limits 的 JDBC 存取，用於不適合經過 JPA 的整表讀取、批次寫入與檢查流程的單筆設定查詢
+ */
+@Repository
+@RequiredArgsConstructor
+public class ApiLimitJdbcRepository {
+
+    private static final String SELECT_ALL_SQL = """
+        SELECT api_key, limit_count, window_seconds, failure_mode, created_at, updated_at
+        FROM api_limits
+        """;
+
+    private static final String SELECT_CONFIG_SQL = """
+        SELECT limit_count, window_seconds, failure_mode
+        FROM api_limits
+        WHERE api_key = ?
+        """;
+
+    // 已存在的 key 只更新設定與 updated_at，保留原 created_at
+    private static final String UPSERT_SQL = """
+        INSERT INTO api_limits (api_key, limit_count, window_seconds, failure_mode, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            limit_count = VALUES(limit_count),
+            window_seconds = VALUES(window_seconds),
+            failure_mode = VALUES(failure_mode),
+            updated_at = VALUES(updated_at)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 串流讀取所有設定，逐筆交給 consumer，不在記憶體中保留整個 ResultSet
+     * MySQL Connector/J 需 forward-only + read-only + fetchSize=Integer.MIN_VALUE 才會逐列串流
+     */
+    public void streamAll(Consumer<ApiLimit> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                SELECT_ALL_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            return ps;
+        }, (ResultSet rs) -> consumer.accept(mapRow(rs)));
+    }
+
+    /**
+     * 以 prepared statement 依主鍵讀取單筆設定，只取判斷所需欄位，不建立受管理實體
+     */
+    public Optional<ApiLimitConfig> findConfigByApiKey(String apiKey) {
+        List<ApiLimitConfig> rows = jdbcTemplate.query(SELECT_CONFIG_SQL, (rs, rowNum) -> new ApiLimitConfig(
+            apiKey,
+            rs.getInt("limit_count"),
+            rs.getInt("window_seconds"),
+            toFailureMode(rs.getString("failure_mode"))
+        ), apiKey);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * 批次 upsert，一次 round trip 送出（搭配 rewriteBatchedStatements 合併為多值 INSERT）
+     * 不像 JPA save 需先 SELECT 判斷新增或更新
+     */
+    public void batchUpsert(List<ApiLimit> limits) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, limits, limits.size(), ApiLimitJdbcRepository::bind);
+    }
+
+    private static void bind(PreparedStatement ps, ApiLimit limit) throws SQLException {
+        ps.setString(1, limit.getApiKey());
+        ps.setInt(2, limit.getLimitCount());
+        ps.setInt(3, limit.getWindowSeconds());
+        ps.setString(4, limit.getFailureMode() != null ? limit.getFailureMode().name() : null);
+        ps.setTimestamp(5, toTimestamp(limit.getCreatedAt()));
+        ps.setTimestamp(6, toTimestamp(limit.getUpdatedAt()));
+    }
+
+    private static ApiLimit mapRow(ResultSet rs) throws SQLException {
+        ApiLimit limit = new ApiLimit();
+        limit.setApiKey(rs.getString("api_key"));
+        limit.setLimitCount(rs.getInt("limit_count"));
+        limit.setWindowSeconds(rs.getInt("window_seconds"));
+        limit.setFailureMode(toFailureMode(rs.getString("failure_mode")));
+        limit.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        limit.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return limit;
+    }
+
+    private static FailureMode toFailureMode(String failureMode) {
+        return failureMode != null ? FailureMode.valueOf(failureMode) : null;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.ApiLimit;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,6 +20,19 @@ public interface ApiLimitRepository extends JpaRepository<ApiLimit, String> {
     
     Page<ApiLimit> findAllByOrderByCreatedAtDesc(Pageable pageable);
     
+    // Keyset 分頁：依 (created_at, api_key) 索引由新到舊，不使用 OFFSET 也不做 COUNT
+    List<ApiLimit> findAllByOrderByCreatedAtDescApiKeyDesc(Limit limit);
+    
+    // created_at <= ? 作為索引範圍條件，同一時間點再以 api_key 接續
+    @Query("""
+        SELECT a FROM ApiLimit a
+        WHERE a.createdAt <= :createdAt AND (a.createdAt < :createdAt OR a.apiKey < :apiKey)
+        ORDER BY a.createdAt DESC, a.apiKey DESC
+        """)
+    List<ApiLimit> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                 @Param("apiKey") String apiKey,
+                                 Limit limit);
+    
     void deleteByApiKey(String apiKey);
     
     boolean existsByApiKey(String apiKey);
@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ConcurrencyLimit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ConcurrencyLimitRepository extends JpaRepository<ConcurrencyLimit, String> {
+    
+    Optional<ConcurrencyLimit> findByApiKey(String apiKey);
+}
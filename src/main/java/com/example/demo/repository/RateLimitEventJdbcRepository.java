@@ -0,0 +1,61 @@
+package com.example.demo.repository;
+
+import com.example.demo.mq.RateLimitEventMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 稽核事件寫入 rate_limit_events
+ * 以 JDBC batch 多筆一次送出（搭配 rewriteBatchedStatements 合併為多值 INSERT），不經過 JPA
+ */
+@Repository
+@RequiredArgsConstructor
+public class RateLimitEventJdbcRepository {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO rate_limit_events
+            (event_time, api_key, event_type, current_count, limit_count, rejected_count,
+             window_ttl, first_seen, last_seen, message)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void batchInsert(List<RateLimitEventMessage> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), this::bind);
+    }
+
+    private void bind(PreparedStatement ps, RateLimitEventMessage event) throws SQLException {
+        LocalDateTime eventTime = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        ps.setTimestamp(1, Timestamp.valueOf(eventTime));
+        ps.setString(2, event.getApiKey());
+        ps.setString(3, event.getEventType().name());
+        setInteger(ps, 4, event.getPeakCount() != null ? event.getPeakCount() : event.getCurrentCount());
+        setInteger(ps, 5, event.getLimitCount());
+        setInteger(ps, 6, event.getRejectedCount());
+        if (event.getWindowTtl() != null) {
+            ps.setLong(7, event.getWindowTtl());
+        } else {
+            ps.setNull(7, Types.BIGINT);
+        }
+        ps.setTimestamp(8, event.getFirstSeen() != null ? Timestamp.valueOf(event.getFirstSeen()) : null);
+        ps.setTimestamp(9, event.getLastSeen() != null ? Timestamp.valueOf(event.getLastSeen()) : null);
+        ps.setString(10, event.getMessage());
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
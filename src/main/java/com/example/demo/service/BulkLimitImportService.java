@@ -0,0 +1,198 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.dto.BulkImportResponse;
+import com.example.demo.model.dto.CreateLimitRequest;
+import com.example.demo.mq.MessageProducer;
+import com.example.demo.repository.ApiLimitJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports limits from an NDJSON stream (one {@link CreateLimitRequest} per line).
+ * Lines are parsed one at a time and written in batches, so memory stays bounded by the batch size
+ * regardless of body size. A bad row is reported and skipped; it never aborts the rest of the stream.
+ * When the database rejects a batch, its rows are retried one at a time so only the failing rows are reported.
+ */
+@Slf4j
+@Service
+public class BulkLimitImportService {
+
+    private final ApiLimitJdbcRepository apiLimitJdbcRepository;
+    private final RedisService redisService;
+    private final ConfigSnapshotService configSnapshotService;
+    private final MessageProducer messageProducer;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public BulkLimitImportService(ApiLimitJdbcRepository apiLimitJdbcRepository,
+                                  RedisService redisService,
+                                  ConfigSnapshotService configSnapshotService,
+                                  MessageProducer messageProducer,
+                                  Validator validator,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.bulk-import.batch-size:500}") int batchSize,
+                                  @Value("${app.bulk-import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.apiLimitJdbcRepository = apiLimitJdbcRepository;
+        this.redisService = redisService;
+        this.configSnapshotService = configSnapshotService;
+        this.messageProducer = messageProducer;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(CreateLimitRequest.class);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public BulkImportResponse importNdjson(InputStream body) {
+        BulkImportResponse response = new BulkImportResponse();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                response.setReceived(response.getReceived() + 1);
+                PendingRow row = parse(lineNumber, line, response);
+                if (row == null) {
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush(batch, response);
+                }
+            }
+        } catch (IOException e) {
+            // 連線中斷：已寫入的批次保留，回報中斷位置讓呼叫端從該行續傳
+            log.warn("Bulk import stream aborted after line {}: {}", lineNumber, e.getMessage());
+            response.setAborted(true);
+            response.getErrors().add(new BulkImportResponse.RowError(lineNumber + 1, null, "Stream aborted: " + e.getMessage()));
+        }
+        flush(batch, response);
+
+        if (response.getImported() > 0) {
+            messageProducer.sendBulkConfigChangeEvent(response.getImported());
+        }
+        log.info("Bulk import finished: received={}, imported={}, failed={}",
+            response.getReceived(), response.getImported(), response.getFailed());
+        return response;
+    }
+
+    private PendingRow parse(long lineNumber, String line, BulkImportResponse response) {
+        CreateLimitRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            reportError(response, lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (request == null) {
+            reportError(response, lineNumber, null, "Row must be a JSON object");
+            return null;
+        }
+        String error = validate(request);
+        if (error != null) {
+            reportError(response, lineNumber, request.getApiKey(), error);
+            return null;
+        }
+        ApiLimit limit = new ApiLimit(request.getApiKey(), request.getLimit(), request.getWindowSeconds());
+        limit.setFailureMode(request.getFailureMode());
+        return new PendingRow(lineNumber, limit);
+    }
+
+    private String validate(CreateLimitRequest request) {
+        Set<ConstraintViolation<CreateLimitRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        // @Positive 允許 null，但資料表欄位為 NOT NULL
+        if (request.getLimit() == null || request.getWindowSeconds() == null) {
+            return "Limit and window seconds are required";
+        }
+        return null;
+    }
+
+    private void flush(List<PendingRow> batch, BulkImportResponse response) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ApiLimit> limits = batch.stream().map(PendingRow::limit).toList();
+        List<ApiLimit> written;
+        try {
+            apiLimitJdbcRepository.batchUpsert(limits);
+            written = limits;
+        } catch (DataAccessResourceFailureException e) {
+            // 連線層錯誤逐筆重試也不會成功，整批回報
+            log.error("Bulk import batch failed: lines {}-{}", batch.get(0).line(), batch.get(batch.size() - 1).line(), e);
+            for (PendingRow row : batch) {
+                reportError(response, row.line(), row.limit().getApiKey(), "Database write failed: " + e.getMessage());
+            }
+            batch.clear();
+            return;
+        } catch (Exception e) {
+            // 單筆壞資料會讓整批失敗，逐筆重寫以找出實際失敗的列
+            log.warn("Bulk import batch failed, retrying row by row: lines {}-{}: {}",
+                batch.get(0).line(), batch.get(batch.size() - 1).line(), e.getMessage());
+            written = writeRowByRow(batch, response);
+        }
+        batch.clear();
+        if (written.isEmpty()) {
+            return;
+        }
+        response.setImported(response.getImported() + written.size());
+
+        // 快取刷新失敗不影響匯入結果，讀取時由 cache-aside 補回
+        redisService.cacheApiLimitConfigs(written);
+        configSnapshotService.publishUpserts(written);
+    }
+
+    private List<ApiLimit> writeRowByRow(List<PendingRow> batch, BulkImportResponse response) {
+        List<ApiLimit> written = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            try {
+                apiLimitJdbcRepository.batchUpsert(List.of(row.limit()));
+                written.add(row.limit());
+            } catch (Exception e) {
+                log.error("Bulk import row failed: line {}, apiKey={}", row.line(), row.limit().getApiKey(), e);
+                reportError(response, row.line(), row.limit().getApiKey(), "Database write failed: " + e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private void reportError(BulkImportResponse response, long line, String apiKey, String error) {
+        response.setFailed(response.getFailed() + 1);
+        if (response.getErrors().size() < maxReportedErrors) {
+            response.getErrors().add(new BulkImportResponse.RowError(line, apiKey, error));
+        } else {
+            response.setErrorsTruncated(true);
+        }
+    }
+
+    private record PendingRow(long line, ApiLimit limit) {
+    }
+}
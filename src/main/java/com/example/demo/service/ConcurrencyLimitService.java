@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import com.example.demo.common.RedisKey;
+import com.example.demo.model.ConcurrencyLimit;
+import com.example.demo.model.dto.CreateConcurrencyLimitRequest;
+import com.example.demo.model.dto.LeaseResponse;
+import com.example.demo.repository.ConcurrencyLimitRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caps in-flight requests per API key with expiring leases.
+ * <p>
+ * Leases live in one Redis sorted set per key, scored by expiry, so a client that never releases
+ * only holds its permit until the lease runs out. Leases granted by this node are also remembered
+ * locally: releasing one of those removes it with a fire-and-forget ZREM instead of waiting on
+ * Redis. Configs are read from MySQL and kept in memory for {@code app.concurrency.config-cache-ms}.
+ */
+@Slf4j
+@Service
+public class ConcurrencyLimitService {
+
+    private static final int MAX_CACHED_CONFIGS = 10_000;
+
+    private final ConcurrencyLimitRepository concurrencyLimitRepository;
+    private final RedisTemplate<String, String> counterRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final DefaultRedisScript<Long> concurrencyAcquireScript;
+    private final long configCacheMillis;
+
+    private final ConcurrentMap<String, CachedConfig> configs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LocalLease> localLeases = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitService(ConcurrencyLimitRepository concurrencyLimitRepository,
+                                   @Qualifier("counterRedisTemplate") RedisTemplate<String, String> counterRedisTemplate,
+                                   ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                   DefaultRedisScript<Long> concurrencyAcquireScript,
+                                   @Value("${app.concurrency.config-cache-ms:5000}") long configCacheMillis) {
+        this.concurrencyLimitRepository = concurrencyLimitRepository;
+        this.counterRedisTemplate = counterRedisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.concurrencyAcquireScript = concurrencyAcquireScript;
+        this.configCacheMillis = configCacheMillis;
+    }
+
+    @Transactional
+    public ConcurrencyLimit createLimit(CreateConcurrencyLimitRequest request) {
+        ConcurrencyLimit saved = concurrencyLimitRepository.save(
+            new ConcurrencyLimit(request.getApiKey(), request.getMaxConcurrent(), request.getLeaseSeconds()));
+        configs.remove(request.getApiKey());
+        return saved;
+    }
+
+    @Transactional
+    public void removeLimit(String apiKey) {
+        if (!concurrencyLimitRepository.existsById(apiKey)) {
+            throw new RuntimeException("Concurrency limit not found for API key: " + apiKey);
+        }
+        concurrencyLimitRepository.deleteById(apiKey);
+        configs.remove(apiKey);
+        localLeases.values().removeIf(lease -> lease.apiKey().equals(apiKey));
+        counterRedisTemplate.delete(RedisKey.concurrencyLeases(apiKey));
+    }
+
+    /**
+     * Keys without a configured limit, and Redis failures, are let through without a lease.
+     */
+    public LeaseResponse acquire(String apiKey) {
+        ConcurrencyLimit config = getConfig(apiKey);
+        if (config == null) {
+            return new LeaseResponse(true, "No concurrency limit configured for this API key");
+        }
+
+        String leaseId = UUID.randomUUID().toString();
+        long leaseMillis = config.getLeaseSeconds() * 1000L;
+        Long inFlight;
+        try {
+            inFlight = counterRedisTemplate.execute(
+                concurrencyAcquireScript,
+                Collections.singletonList(RedisKey.concurrencyLeases(apiKey)),
+                String.valueOf(config.getMaxConcurrent()),
+                leaseId,
+                String.valueOf(leaseMillis)
+            );
+        } catch (Exception e) {
+            log.error("Failed to acquire concurrency lease for apiKey: {}", apiKey, e);
+            inFlight = null;
+        }
+        if (inFlight == null) {
+            return new LeaseResponse(true, "Concurrency limiting unavailable - request allowed");
+        }
+
+        if (inFlight > config.getMaxConcurrent()) {
+            return new LeaseResponse(false, "Concurrency limit exceeded", null,
+                inFlight.intValue() - 1, config.getMaxConcurrent(), null);
+        }
+        long expiresAt = System.currentTimeMillis() + leaseMillis;
+        localLeases.put(leaseId, new LocalLease(apiKey, expiresAt));
+        return new LeaseResponse(true, "Lease acquired", leaseId, inFlight.intValue(),
+            config.getMaxConcurrent(), expiresAt);
+    }
+
+    /**
+     * @return false when the lease is unknown — already released, expired, or never granted
+     */
+    public boolean release(String apiKey, String leaseId) {
+        String key = RedisKey.concurrencyLeases(apiKey);
+        LocalLease local = localLeases.remove(leaseId);
+        if (local != null && local.apiKey().equals(apiKey)) {
+            if (local.expiresAt() <= System.currentTimeMillis()) {
+                // 已過期的 lease 會在下次 acquire 時由 Redis 清除
+                return false;
+            }
+            reactiveRedisTemplate.opsForZSet().remove(key, leaseId)
+                .subscribe(removed -> { }, e -> log.warn("Failed to release lease {} for apiKey: {}", leaseId, apiKey, e));
+            return true;
+        }
+
+        // 由其他節點發出的 lease，同步確認是否存在
+        Long removed = counterRedisTemplate.opsForZSet().remove(key, leaseId);
+        return removed != null && removed > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.concurrency.purge-interval-ms:10000}")
+    public void purgeExpiredLocalLeases() {
+        long now = System.currentTimeMillis();
+        localLeases.values().removeIf(lease -> lease.expiresAt() <= now);
+    }
+
+    int getLocalLeaseCount() {
+        return localLeases.size();
+    }
+
+    private ConcurrencyLimit getConfig(String apiKey) {
+        long now = System.currentTimeMillis();
+        CachedConfig cached = configs.get(apiKey);
+        if (cached != null && now - cached.loadedAt() < configCacheMillis) {
+            return cached.limit();
+        }
+        Optional<ConcurrencyLimit> limit = concurrencyLimitRepository.findByApiKey(apiKey);
+        if (configs.size() >= MAX_CACHED_CONFIGS) {
+            // 未設定的 apiKey 也會快取，超過上限時整批重來以免無限成長
+            configs.clear();
+        }
+        configs.put(apiKey, new CachedConfig(limit.orElse(null), now));
+        return limit.orElse(null);
+    }
+
+    private record CachedConfig(ConcurrencyLimit limit, long loadedAt) {
+    }
+
+    private record LocalLease(String apiKey, long expiresAt) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.demo.service;
+
+import com.example.demo.common.RedisKey;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.stereotype.Service;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-assisted invalidation for the local config cache. A dedicated RESP3 connection enables
+ * {@code CLIENT TRACKING ... BCAST} on the config version key; every delta bumps that key, so Redis
+ * pushes an invalidation to all nodes and each node pulls the new deltas within milliseconds instead
+ * of waiting for the next scheduled poll. The scheduled poll stays as the fallback when Redis does
+ * not speak RESP3 or the push connection is down.
+ */
+@Slf4j
+@Service
+public class ConfigPushListener {
+
+    private static final String INVALIDATE = "invalidate";
+
+    private final ConfigSnapshotService configSnapshotService;
+    private final RedisProperties redisProperties;
+    private final boolean enabled;
+    private final Executor pollExecutor;
+    private final AtomicBoolean pollPending = new AtomicBoolean();
+    private final AtomicBoolean connectedOnce = new AtomicBoolean();
+    private final LongAdder invalidations = new LongAdder();
+
+    private RedisClient client;
+    private StatefulRedisConnection<String, String> connection;
+
+    @Autowired
+    public ConfigPushListener(ConfigSnapshotService configSnapshotService,
+                              RedisProperties redisProperties,
+                              @Value("${app.config-sync.push-enabled:true}") boolean enabled) {
+        // 推播在 Lettuce event loop 上收到，拉取與重建需移到獨立執行緒
+        this(configSnapshotService, redisProperties, enabled, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "config-push-poll");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    ConfigPushListener(ConfigSnapshotService configSnapshotService, RedisProperties redisProperties,
+                       boolean enabled, Executor pollExecutor) {
+        this.configSnapshotService = configSnapshotService;
+        this.redisProperties = redisProperties;
+        this.enabled = enabled;
+        this.pollExecutor = pollExecutor;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            client = RedisClient.create(redisUri());
+            client.setOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP3).build());
+            client.addListener(new RedisConnectionStateListener() {
+                @Override
+                public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+                    onConnected();
+                }
+            });
+            connection = client.connect();
+            connection.addListener(this::onPush);
+            connection.sync().clientTracking(trackingArgs());
+            log.info("Config push invalidation enabled on {}", RedisKey.configVersion());
+        } catch (Exception e) {
+            // Redis 6 以下不支援 RESP3 / CLIENT TRACKING，僅依排程拉取
+            log.warn("Config push invalidation unavailable, relying on scheduled polling: {}", e.getMessage());
+            stop();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        if (client != null) {
+            client.shutdown();
+            client = null;
+        }
+        if (pollExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    void onPush(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        // keys 為 null 代表 FLUSHALL / FLUSHDB，同樣需要重新拉取
+        if (keys == null || (keys instanceof List<?> list && list.contains(RedisKey.configVersion()))) {
+            invalidations.increment();
+            requestPoll();
+        }
+    }
+
+    /**
+     * Coalesces bursts of invalidations into one poll at a time; an invalidation that arrives
+     * while a poll runs schedules exactly one more.
+     */
+    void requestPoll() {
+        if (pollPending.compareAndSet(false, true)) {
+            pollExecutor.execute(() -> {
+                pollPending.set(false);
+                try {
+                    configSnapshotService.pollDeltas();
+                } catch (Exception e) {
+                    log.warn("Push-triggered config poll failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void onConnected() {
+        if (!connectedOnce.compareAndSet(false, true)) {
+            // 重連後追蹤狀態已遺失：重新啟用，並補拉斷線期間可能漏掉的異動
+            StatefulRedisConnection<String, String> current = connection;
+            if (current != null) {
+                current.async().clientTracking(trackingArgs());
+            }
+            requestPoll();
+        }
+    }
+
+    private static TrackingArgs trackingArgs() {
+        return TrackingArgs.Builder.enabled().bcast().prefixes(RedisKey.configVersion());
+    }
+
+    private RedisURI redisUri() {
+        RedisURI.Builder builder = RedisURI.builder()
+            .withHost(redisProperties.getHost())
+            .withPort(redisProperties.getPort())
+            .withDatabase(redisProperties.getDatabase());
+        if (redisProperties.getTimeout() != null) {
+            builder.withTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.getPassword() != null) {
+            if (redisProperties.getUsername() != null) {
+                builder.withAuthentication(redisProperties.getUsername(), redisProperties.getPassword());
+            } else {
+                builder.withPassword(redisProperties.getPassword().toCharArray());
+            }
+        }
+        return builder.build();
+    }
+}
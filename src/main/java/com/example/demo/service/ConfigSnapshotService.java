@@ -0,0 +1,363 @@
+package com.example.demo.service;
+
+import com.example.demo.common.ApiLimitCodec;
+import com.example.demo.model.ApiLimit;
+import com.example.demo.repository.ApiLimitJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Distributes the api_limits table to every node as a versioned snapshot plus deltas.
+ * <p>
+ * On its first poll a node loads the whole table from one Redis read (or one streaming MySQL query
+ * if no snapshot exists yet), then polls only the deltas newer than its version. Config writes
+ * append a delta after their transaction commits. One node at a time periodically rebuilds the
+ * snapshot from MySQL so the delta log can stay short.
+ * <p>
+ * A delta that cannot be appended while Redis is down is queued and retried in order on the next
+ * poll. If the queue outgrows the delta log, the node drops it and, once Redis is back, publishes a
+ * fresh snapshot under a new version instead; every node reloads a snapshot that is ahead of it.
+ */
+@Slf4j
+@Service
+public class ConfigSnapshotService {
+
+    private static final int SNAPSHOT_FORMAT = 2;
+
+    private final ApiLimitJdbcRepository apiLimitJdbcRepository;
+    private final ConfigSnapshotStore snapshotStore;
+    private final LocalConfigCache localConfigCache;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final int maxDeltas;
+    private final long rebuildLockMillis;
+
+    // 提交後未能寫入 delta 日誌的異動，依提交順序重送
+    private final Deque<ConfigDelta> pendingDeltas = new ArrayDeque<>();
+    private volatile boolean resyncRequired;
+
+    public ConfigSnapshotService(ApiLimitJdbcRepository apiLimitJdbcRepository,
+                                 ConfigSnapshotStore snapshotStore,
+                                 LocalConfigCache localConfigCache,
+                                 ObjectMapper objectMapper,
+                                 RedisHealthMonitor redisHealthMonitor,
+                                 @Value("${app.config-sync.max-deltas:10000}") int maxDeltas,
+                                 @Value("${app.config-sync.rebuild-lock-ms:60000}") long rebuildLockMillis) {
+        this.apiLimitJdbcRepository = apiLimitJdbcRepository;
+        this.snapshotStore = snapshotStore;
+        this.localConfigCache = localConfigCache;
+        this.objectMapper = objectMapper;
+        this.nodeId = redisHealthMonitor.getNodeId();
+        this.maxDeltas = maxDeltas;
+        this.rebuildLockMillis = rebuildLockMillis;
+    }
+
+    /**
+     * Loads the whole table; runs on the first delta poll after startup.
+     */
+    public void warmUp() {
+        byte[] snapshot = snapshotStore.loadSnapshot();
+        if (snapshot != null) {
+            Snapshot decoded = decode(snapshot);
+            localConfigCache.replaceAll(decoded.version(), decoded.limits());
+            log.info("Loaded config snapshot: version={}, keys={}", decoded.version(), decoded.limits().size());
+            pollDeltas();
+        } else {
+            // 尚無快照：由取得鎖的節點從 MySQL 重建並發布，其他節點自行串流載入
+            rebuild(snapshotStore.tryLock(nodeId, rebuildLockMillis));
+        }
+    }
+
+    /**
+     * Runs on schedule and, with push invalidation, whenever the version key changes;
+     * synchronized so the two triggers never apply or rebuild concurrently.
+     */
+    @Scheduled(fixedDelayString = "${app.config-sync.poll-interval-ms:1000}")
+    public synchronized void pollDeltas() {
+        flushPendingDeltas();
+        if (resyncRequired) {
+            resync();
+        }
+        if (!localConfigCache.isLoaded()) {
+            warmUp();
+            return;
+        }
+        long version = localConfigCache.getVersion();
+        List<String> deltas = snapshotStore.deltasAfter(version);
+        if (deltas == null) {
+            return;
+        }
+        if (!deltas.isEmpty() && versionOf(deltas.get(0)) > version + 1) {
+            Long snapshotVersion = snapshotStore.snapshotVersion();
+            if (snapshotVersion != null && snapshotVersion >= versionOf(deltas.get(0)) - 1) {
+                // 共用快照已涵蓋缺口，載入後由下次輪詢接續套用日誌
+                reloadSnapshot(snapshotVersion);
+                return;
+            }
+            // 需要的異動已被裁剪（快照過舊），從 MySQL 重建，取得鎖時一併更新共用快照
+            log.warn("Config delta log no longer covers version {}, rebuilding from MySQL", version);
+            rebuild(snapshotStore.tryLock(nodeId, rebuildLockMillis));
+            return;
+        }
+        for (String delta : deltas) {
+            applyDelta(delta);
+        }
+        // 重新同步發布的快照只消耗版本號、不寫 delta，套用完日誌後版本仍落後即需重新載入快照
+        Long snapshotVersion = snapshotStore.snapshotVersion();
+        if (snapshotVersion != null && snapshotVersion > localConfigCache.getVersion()) {
+            reloadSnapshot(snapshotVersion);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.config-sync.rebuild-interval-ms:600000}",
+               initialDelayString = "${app.config-sync.rebuild-interval-ms:600000}")
+    public void rebuildSnapshot() {
+        if (snapshotStore.tryLock(nodeId, rebuildLockMillis)) {
+            rebuild(true);
+        }
+    }
+
+    /**
+     * Makes a created or updated limit visible on this node and, through the delta log, on the
+     * others once the surrounding transaction commits; nothing changes if it rolls back.
+     */
+    public void publishUpsert(ApiLimit limit) {
+        afterCommit(() -> {
+            localConfigCache.put(limit);
+            publish(new ConfigDelta(limit.getApiKey(), limit));
+        });
+    }
+
+    /**
+     * Publishes a batch of created or updated limits as a single delta, so a bulk import costs
+     * one log entry per batch instead of one per row.
+     */
+    public void publishUpserts(List<ApiLimit> limits) {
+        if (limits.isEmpty()) {
+            return;
+        }
+        List<ApiLimit> batch = List.copyOf(limits);
+        afterCommit(() -> {
+            batch.forEach(localConfigCache::put);
+            publish(ConfigDelta.batch(batch));
+        });
+    }
+
+    public void publishDelete(String apiKey) {
+        afterCommit(() -> {
+            localConfigCache.remove(apiKey);
+            publish(new ConfigDelta(apiKey, null));
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        // 快照重建先讀版本號再讀 MySQL，異動須在提交後才取得版本號，才不會漏掉
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void publish(ConfigDelta delta) {
+        synchronized (pendingDeltas) {
+            if (pendingDeltas.size() >= maxDeltas) {
+                // 積壓已超過 delta 日誌長度，逐筆補送也會被裁剪，改為恢復後發布新快照
+                log.warn("Config delta backlog exceeded {} entries, switching to snapshot resync", maxDeltas);
+                pendingDeltas.clear();
+                resyncRequired = true;
+            }
+            if (!resyncRequired) {
+                pendingDeltas.addLast(delta);
+            }
+        }
+        flushPendingDeltas();
+    }
+
+    private void flushPendingDeltas() {
+        synchronized (pendingDeltas) {
+            while (!pendingDeltas.isEmpty()) {
+                ConfigDelta delta = pendingDeltas.peekFirst();
+                String payload;
+                try {
+                    payload = objectMapper.writeValueAsString(delta);
+                } catch (Exception e) {
+                    log.error("Failed to serialize config delta, switching to snapshot resync: keys={}",
+                        delta.describeKeys(), e);
+                    pendingDeltas.removeFirst();
+                    resyncRequired = true;
+                    continue;
+                }
+                if (snapshotStore.appendDelta(payload, maxDeltas) == null) {
+                    log.warn("Config delta not published, retrying on next poll: keys={}, pending={}",
+                        delta.describeKeys(), pendingDeltas.size());
+                    return;
+                }
+                pendingDeltas.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Publishes a snapshot under a newly consumed version so other nodes drop changes they missed.
+     */
+    private void resync() {
+        Long version = snapshotStore.nextVersion();
+        if (version == null) {
+            return;
+        }
+        // 之後提交的異動照常寫入 delta；之前未送出的已包含在接下來讀取的 MySQL 全表中
+        resyncRequired = false;
+        synchronized (pendingDeltas) {
+            pendingDeltas.clear();
+        }
+        List<ApiLimit> limits = new ArrayList<>();
+        try {
+            apiLimitJdbcRepository.streamAll(limits::add);
+        } catch (Exception e) {
+            log.error("Failed to stream api_limits for config resync", e);
+            resyncRequired = true;
+            return;
+        }
+        localConfigCache.replaceAll(version, limits);
+        if (snapshotStore.saveSnapshot(version, encode(version, limits))) {
+            log.info("Published config resync snapshot: version={}, keys={}", version, limits.size());
+        } else {
+            resyncRequired = true;
+        }
+    }
+
+    private void reloadSnapshot(long snapshotVersion) {
+        byte[] snapshot = snapshotStore.loadSnapshot();
+        Snapshot decoded = snapshot != null ? decode(snapshot) : null;
+        if (decoded == null || decoded.version() < snapshotVersion) {
+            // 快照內容與版本號不一致（寫入中或已遺失），改從 MySQL 重建
+            rebuild(false);
+            return;
+        }
+        localConfigCache.replaceAll(decoded.version(), decoded.limits());
+        log.info("Reloaded config snapshot ahead of local version: version={}, keys={}",
+            decoded.version(), decoded.limits().size());
+    }
+
+    private void rebuild(boolean publish) {
+        Long version = snapshotStore.currentVersion();
+        List<ApiLimit> limits = new ArrayList<>();
+        try {
+            apiLimitJdbcRepository.streamAll(limits::add);
+        } catch (Exception e) {
+            log.error("Failed to stream api_limits for config snapshot", e);
+            return;
+        }
+        // Redis 不可用時以版本 0 載入，恢復後由 pollDeltas 偵測落差重新載入
+        long snapshotVersion = version != null ? version : 0L;
+        localConfigCache.replaceAll(snapshotVersion, limits);
+        if (publish && version != null && snapshotStore.saveSnapshot(snapshotVersion, encode(snapshotVersion, limits))) {
+            log.info("Published config snapshot: version={}, keys={}", snapshotVersion, limits.size());
+        }
+    }
+
+    private void applyDelta(String entry) {
+        int separator = entry.indexOf('|');
+        try {
+            ConfigDelta delta = objectMapper.readValue(entry.substring(separator + 1), ConfigDelta.class);
+            long version = Long.parseLong(entry.substring(0, separator));
+            if (delta.limits() != null) {
+                localConfigCache.applyAll(version, delta.limits());
+            } else {
+                localConfigCache.apply(version, delta.apiKey(), delta.limit());
+            }
+        } catch (Exception e) {
+            log.error("Skipping unreadable config delta: {}", entry, e);
+        }
+    }
+
+    private static long versionOf(String entry) {
+        return Long.parseLong(entry.substring(0, entry.indexOf('|')));
+    }
+
+    /**
+     * gzip(format, version, count, rows)，每列為長度 + {@link ApiLimitCodec} 編碼
+     */
+    static byte[] encode(long version, Collection<ApiLimit> limits) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(SNAPSHOT_FORMAT);
+            out.writeLong(version);
+            out.writeInt(limits.size());
+            for (ApiLimit limit : limits) {
+                byte[] encoded = ApiLimitCodec.encode(limit);
+                out.writeShort(encoded.length);
+                out.write(encoded);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Snapshot decode(byte[] snapshot) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(snapshot)))) {
+            int format = in.readInt();
+            if (format != SNAPSHOT_FORMAT) {
+                throw new IllegalStateException("Unsupported config snapshot format: " + format);
+            }
+            long version = in.readLong();
+            int count = in.readInt();
+            List<ApiLimit> limits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] encoded = new byte[in.readUnsignedShort()];
+                in.readFully(encoded);
+                limits.add(ApiLimitCodec.decode(encoded));
+            }
+            return new Snapshot(version, limits);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    record Snapshot(long version, List<ApiLimit> limits) {
+    }
+
+    /**
+     * 單筆異動：limit 為 null 表示刪除；批次異動：limits 為整批新增或更新的設定，共用一個版本號
+     */
+    record ConfigDelta(String apiKey, ApiLimit limit, List<ApiLimit> limits) {
+
+        ConfigDelta(String apiKey, ApiLimit limit) {
+            this(apiKey, limit, null);
+        }
+
+        static ConfigDelta batch(List<ApiLimit> limits) {
+            return new ConfigDelta(null, null, limits);
+        }
+
+        String describeKeys() {
+            return limits != null ? limits.size() + " keys" : apiKey;
+        }
+    }
+}
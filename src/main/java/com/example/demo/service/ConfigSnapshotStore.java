@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.common.RedisKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis storage for the config snapshot and its delta log.
+ * Every method returns null (or false) when Redis is unreachable so callers can fall back.
+ */
+@Slf4j
+@Service
+public class ConfigSnapshotStore {
+
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final RedisTemplate<String, String> counterRedisTemplate;
+    private final DefaultRedisScript<Long> configDeltaScript;
+
+    public ConfigSnapshotStore(@Qualifier("binaryRedisTemplate") RedisTemplate<String, byte[]> binaryRedisTemplate,
+                               @Qualifier("counterRedisTemplate") RedisTemplate<String, String> counterRedisTemplate,
+                               @Qualifier("configDeltaScript") DefaultRedisScript<Long> configDeltaScript) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.counterRedisTemplate = counterRedisTemplate;
+        this.configDeltaScript = configDeltaScript;
+    }
+
+    public byte[] loadSnapshot() {
+        try {
+            return binaryRedisTemplate.opsForValue().get(RedisKey.configSnapshot());
+        } catch (Exception e) {
+            log.warn("Failed to load config snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the snapshot, then the version it was taken at, so a reader never sees a version
+     * newer than the stored snapshot.
+     */
+    public boolean saveSnapshot(long version, byte[] snapshot) {
+        try {
+            binaryRedisTemplate.opsForValue().set(RedisKey.configSnapshot(), snapshot);
+            counterRedisTemplate.opsForValue().set(RedisKey.configSnapshotBuilt(), String.valueOf(version));
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to save config snapshot: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return the version of the stored snapshot, 0 if none was ever published, or null if Redis is unreachable
+     */
+    public Long snapshotVersion() {
+        try {
+            String value = counterRedisTemplate.opsForValue().get(RedisKey.configSnapshotBuilt());
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.warn("Failed to read config snapshot version: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the latest delta version, 0 if nothing was ever published, or null if Redis is unreachable
+     */
+    public Long currentVersion() {
+        try {
+            String value = counterRedisTemplate.opsForValue().get(RedisKey.configVersion());
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.warn("Failed to read config version: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Appends a delta under the next version, keeping at most maxDeltas entries.
+     * @return the version assigned to the delta, or null if Redis is unreachable
+     */
+    public Long appendDelta(String payload, int maxDeltas) {
+        try {
+            return counterRedisTemplate.execute(configDeltaScript,
+                List.of(RedisKey.configVersion(), RedisKey.configDeltas()), payload, String.valueOf(maxDeltas));
+        } catch (Exception e) {
+            log.warn("Failed to append config delta: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Consumes a version without a delta, for a snapshot that replaces changes missing from the log.
+     * @return the new version, or null if Redis is unreachable
+     */
+    public Long nextVersion() {
+        try {
+            return counterRedisTemplate.opsForValue().increment(RedisKey.configVersion());
+        } catch (Exception e) {
+            log.warn("Failed to increment config version: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return deltas newer than the given version in version order, as "{version}|{payload}" entries
+     */
+    public List<String> deltasAfter(long version) {
+        try {
+            Set<String> members = counterRedisTemplate.opsForZSet()
+                .rangeByScore(RedisKey.configDeltas(), version + 1, Double.POSITIVE_INFINITY);
+            return members != null ? new ArrayList<>(members) : List.of();
+        } catch (Exception e) {
+            log.warn("Failed to read config deltas: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean tryLock(String owner, long ttlMillis) {
+        try {
+            return Boolean.TRUE.equals(counterRedisTemplate.opsForValue()
+                .setIfAbsent(RedisKey.configSnapshotLock(), owner, ttlMillis, TimeUnit.MILLISECONDS));
+        } catch (Exception e) {
+            log.warn("Failed to acquire config snapshot lock: {}", e.getMessage());
+            return false;
+        }
+    }
+}
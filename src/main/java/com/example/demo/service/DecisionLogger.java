@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Structured decision log pipeline.
+ * <p>
+ * The request thread only samples and enqueues an immutable {@link Decision};
+ * formatting and appending happen on the scheduler thread that drains the queue.
+ */
+@Slf4j
+@Service
+public class DecisionLogger {
+
+    private static final Logger decisionLog = LoggerFactory.getLogger("rate-limit.decision");
+
+    private static final int SAMPLE_SLOTS = 1024; // per-key sampling counters, indexed by key hash
+    private static final int MAX_DRAIN_PER_RUN = 10_000;
+
+    private final int capacity;
+    private final int allowedSampleRate;
+    private final int blockedSampleRate;
+    private final int maxErrorsPerSecond;
+
+    private final ConcurrentLinkedQueue<Decision> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicLongArray sampleCounters = new AtomicLongArray(SAMPLE_SLOTS);
+    private final LongAdder droppedDecisions = new LongAdder();
+    private final AtomicLong reportedDrops = new AtomicLong();
+
+    private final AtomicLong errorSecond = new AtomicLong();
+    private final AtomicInteger errorsInSecond = new AtomicInteger();
+    private final LongAdder suppressedErrors = new LongAdder();
+
+    public DecisionLogger(@Value("${app.decision-log.capacity:65536}") int capacity,
+                          @Value("${app.decision-log.allowed-sample-rate:100}") int allowedSampleRate,
+                          @Value("${app.decision-log.blocked-sample-rate:1}") int blockedSampleRate,
+                          @Value("${app.decision-log.max-errors-per-second:5}") int maxErrorsPerSecond) {
+        this.capacity = capacity;
+        this.allowedSampleRate = Math.max(1, allowedSampleRate);
+        this.blockedSampleRate = Math.max(1, blockedSampleRate);
+        this.maxErrorsPerSecond = maxErrorsPerSecond;
+    }
+
+    /**
+     * Records a rate limit decision. Never formats strings and never blocks.
+     */
+    public void record(String apiKey, boolean allowed, int currentCount, int limitCount, long ttl) {
+        if (!sampled(apiKey, allowed ? allowedSampleRate : blockedSampleRate)) {
+            return;
+        }
+        if (queueSize.incrementAndGet() > capacity) {
+            queueSize.decrementAndGet();
+            droppedDecisions.increment();
+            return;
+        }
+        queue.offer(new Decision(System.currentTimeMillis(), apiKey, allowed, currentCount, limitCount, ttl));
+    }
+
+    /**
+     * Logs an error from the check path, capped at a fixed number of stack traces per second.
+     */
+    public void error(String apiKey, Throwable e) {
+        long second = System.currentTimeMillis() / 1000;
+        long previous = errorSecond.get();
+        if (previous != second && errorSecond.compareAndSet(previous, second)) {
+            errorsInSecond.set(0);
+            long suppressed = suppressedErrors.sumThenReset();
+            if (suppressed > 0) {
+                log.warn("Suppressed {} rate limit check errors in the previous second", suppressed);
+            }
+        }
+        if (errorsInSecond.incrementAndGet() <= maxErrorsPerSecond) {
+            log.error("Error checking API access for apiKey: {}", apiKey, e);
+        } else {
+            suppressedErrors.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.decision-log.flush-interval-ms:200}")
+    public void drain() {
+        Decision decision;
+        int drained = 0;
+        while (drained < MAX_DRAIN_PER_RUN && (decision = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            drained++;
+            decisionLog.info("ts={} apiKey={} allowed={} count={} limit={} ttl={}",
+                decision.timestamp(), decision.apiKey(), decision.allowed(),
+                decision.currentCount(), decision.limitCount(), decision.ttl());
+        }
+
+        long dropped = droppedDecisions.sum();
+        long previouslyReported = reportedDrops.getAndSet(dropped);
+        if (dropped > previouslyReported) {
+            log.warn("Decision log queue full, dropped {} decisions", dropped - previouslyReported);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drain();
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedDecisions.sum();
+    }
+
+    private boolean sampled(String apiKey, int sampleRate) {
+        if (sampleRate == 1) {
+            return true;
+        }
+        int slot = (apiKey.hashCode() & Integer.MAX_VALUE) % SAMPLE_SLOTS;
+        return sampleCounters.getAndIncrement(slot) % sampleRate == 0;
+    }
+
+    record Decision(long timestamp, String apiKey, boolean allowed, int currentCount, int limitCount, long ttl) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.TopKeysResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Approximate top-K API keys by checks and by rejections.
+ * <p>
+ * Each metric keeps two {@link TopKSketch} generations (current and previous window), so counts
+ * cover the last one to two windows in constant memory. Each node periodically publishes its
+ * top keys to Redis; the cluster view is the union of all live nodes' published counts.
+ */
+@Slf4j
+@Service
+public class HeavyHitterTracker {
+
+    public enum Metric {
+        CHECKS, BLOCKED;
+
+        String code() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final RedisService redisService;
+    private final String nodeId;
+    private final int publishSize;
+    private final long nodeTtlMillis;
+    private final Window checks;
+    private final Window blocked;
+
+    public HeavyHitterTracker(RedisService redisService,
+                              RedisHealthMonitor redisHealthMonitor,
+                              @Value("${app.heavy-hitters.sketch-width:2048}") int sketchWidth,
+                              @Value("${app.heavy-hitters.candidates:256}") int candidates,
+                              @Value("${app.heavy-hitters.publish-size:100}") int publishSize,
+                              @Value("${app.heavy-hitters.node-ttl-ms:15000}") long nodeTtlMillis) {
+        this.redisService = redisService;
+        this.nodeId = redisHealthMonitor.getNodeId();
+        this.publishSize = publishSize;
+        this.nodeTtlMillis = nodeTtlMillis;
+        this.checks = new Window(sketchWidth, candidates);
+        this.blocked = new Window(sketchWidth, candidates);
+    }
+
+    public void record(String apiKey, boolean allowed) {
+        checks.current.add(apiKey);
+        if (!allowed) {
+            blocked.current.add(apiKey);
+        }
+    }
+
+    /**
+     * Starts a new window; the previous window keeps counting toward the results until the next rotation.
+     */
+    @Scheduled(fixedDelayString = "${app.heavy-hitters.window-ms:60000}")
+    public void rotate() {
+        checks.rotate();
+        blocked.rotate();
+    }
+
+    @Scheduled(fixedDelayString = "${app.heavy-hitters.publish-interval-ms:5000}")
+    public void publish() {
+        for (Metric metric : Metric.values()) {
+            redisService.publishTopKeys(metric.code(), nodeId, window(metric).top(publishSize), nodeTtlMillis);
+        }
+    }
+
+    /**
+     * Top k keys merged across live nodes, or this node's own view when Redis is unreachable.
+     */
+    public TopKeysResponse top(Metric metric, int k) {
+        Map<String, Long> merged = redisService.mergeTopKeys(metric.code(), nodeTtlMillis);
+        if (merged != null && !merged.isEmpty()) {
+            return toResponse(metric, "cluster", merged, k);
+        }
+        return toResponse(metric, "local", window(metric).top(k), k);
+    }
+
+    private Window window(Metric metric) {
+        return metric == Metric.CHECKS ? checks : blocked;
+    }
+
+    private static TopKeysResponse toResponse(Metric metric, String scope, Map<String, Long> counts, int k) {
+        List<TopKeysResponse.KeyCount> keys = counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(k)
+            .map(entry -> new TopKeysResponse.KeyCount(entry.getKey(), entry.getValue()))
+            .toList();
+        return new TopKeysResponse(metric.code(), scope, keys);
+    }
+
+    private static final class Window {
+        private volatile TopKSketch current;
+        private volatile TopKSketch previous;
+
+        Window(int width, int candidates) {
+            this.current = new TopKSketch(width, candidates);
+            this.previous = new TopKSketch(width, candidates);
+        }
+
+        void rotate() {
+            TopKSketch stale = previous;
+            stale.clear();
+            previous = current;
+            current = stale;
+        }
+
+        Map<String, Long> top(int k) {
+            TopKSketch now = current;
+            TopKSketch before = previous;
+            Set<String> keys = new HashSet<>(now.candidates());
+            keys.addAll(before.candidates());
+            List<Map.Entry<String, Long>> entries = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                entries.add(Map.entry(key, now.estimate(key) + before.estimate(key)));
+            }
+            entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+            Map<String, Long> top = new LinkedHashMap<>();
+            for (int i = 0; i < Math.min(k, entries.size()); i++) {
+                top.put(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+            return top;
+        }
+    }
+}
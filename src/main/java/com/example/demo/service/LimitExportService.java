@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.repository.ApiLimitJdbcRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes every limit straight from a forward-only JDBC cursor to the response stream.
+ * Rows are never collected, so memory stays constant regardless of table size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LimitExportService {
+
+    static final String CSV_HEADER = "api_key,limit_count,window_seconds,failure_mode,created_at,updated_at";
+
+    private final ApiLimitJdbcRepository apiLimitJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * @return number of rows written
+     */
+    public long export(Format format, OutputStream out) throws IOException {
+        long rows = switch (format) {
+            case NDJSON -> writeNdjson(out);
+            case CSV -> writeCsv(out);
+        };
+        log.info("Exported {} limits as {}", rows, format);
+        return rows;
+    }
+
+    private long writeNdjson(OutputStream out) throws IOException {
+        long[] rows = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 每列自行換行，不使用預設的空白分隔
+            generator.setRootValueSeparator(null);
+            streamRows(limit -> {
+                generator.writeStartObject();
+                generator.writeStringField("apiKey", limit.getApiKey());
+                generator.writeNumberField("limitCount", limit.getLimitCount());
+                generator.writeNumberField("windowSeconds", limit.getWindowSeconds());
+                generator.writeStringField("failureMode",
+                    limit.getFailureMode() != null ? limit.getFailureMode().name() : null);
+                generator.writeStringField("createdAt", format(limit.getCreatedAt()));
+                generator.writeStringField("updatedAt", format(limit.getUpdatedAt()));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows[0]++;
+            });
+        }
+        return rows[0];
+    }
+
+    private long writeCsv(OutputStream out) throws IOException {
+        long[] rows = {0};
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        streamRows(limit -> {
+            writer.write(csvField(limit.getApiKey()));
+            writer.write(',');
+            writer.write(String.valueOf(limit.getLimitCount()));
+            writer.write(',');
+            writer.write(String.valueOf(limit.getWindowSeconds()));
+            writer.write(',');
+            writer.write(limit.getFailureMode() != null ? limit.getFailureMode().name() : "");
+            writer.write(',');
+            writer.write(nullToEmpty(format(limit.getCreatedAt())));
+            writer.write(',');
+            writer.write(nullToEmpty(format(limit.getUpdatedAt())));
+            writer.write('\n');
+            rows[0]++;
+        });
+        writer.flush();
+        return rows[0];
+    }
+
+    private void streamRows(RowWriter rowWriter) throws IOException {
+        try {
+            apiLimitJdbcRepository.streamAll(limit -> {
+                try {
+                    rowWriter.write(limit);
+                } catch (IOException e) {
+                    // 用戶端中斷時停止讀取游標，釋放連線
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * RFC 4180: quote fields containing a separator, quote or line break and double embedded quotes.
+     */
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String format(LocalDateTime time) {
+        return time != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time) : null;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ApiLimit limit) throws IOException;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ApiLimit;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process copy of every api_limits row, loaded from a versioned snapshot and kept
+ * current by applying versioned deltas. Until the first load completes, callers fall back
+ * to the Redis cache / MySQL lookup.
+ */
+@Service
+public class LocalConfigCache {
+
+    private static final long NOT_LOADED = -1;
+
+    private volatile Map<String, ApiLimit> limits = new ConcurrentHashMap<>();
+    private volatile long version = NOT_LOADED;
+
+    public boolean isLoaded() {
+        return version != NOT_LOADED;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the configuration, or null if the key has no limit configured
+     */
+    public ApiLimit get(String apiKey) {
+        return limits.get(apiKey);
+    }
+
+    public int size() {
+        return limits.size();
+    }
+
+    /**
+     * Replaces the whole table with a snapshot taken at the given version.
+     */
+    public synchronized void replaceAll(long snapshotVersion, Collection<ApiLimit> snapshot) {
+        Map<String, ApiLimit> loaded = new ConcurrentHashMap<>(Math.max(16, snapshot.size() * 4 / 3 + 1));
+        for (ApiLimit limit : snapshot) {
+            loaded.put(limit.getApiKey(), limit);
+        }
+        limits = loaded;
+        version = snapshotVersion;
+    }
+
+    /**
+     * Applies one delta; a null limit means the key was removed. Deltas at or below the
+     * current version are already reflected and are ignored.
+     */
+    public synchronized void apply(long deltaVersion, String apiKey, ApiLimit limit) {
+        if (deltaVersion <= version) {
+            return;
+        }
+        if (limit != null) {
+            limits.put(apiKey, limit);
+        } else {
+            limits.remove(apiKey);
+        }
+        version = deltaVersion;
+    }
+
+    /**
+     * Applies a batch delta whose rows all share one version.
+     */
+    public synchronized void applyAll(long deltaVersion, Collection<ApiLimit> batch) {
+        if (deltaVersion <= version) {
+            return;
+        }
+        for (ApiLimit limit : batch) {
+            limits.put(limit.getApiKey(), limit);
+        }
+        version = deltaVersion;
+    }
+
+    /**
+     * Local write made by this node, visible immediately; the matching delta will advance the version.
+     */
+    public void put(ApiLimit limit) {
+        limits.put(limit.getApiKey(), limit);
+    }
+
+    public void remove(String apiKey) {
+        limits.remove(apiKey);
+    }
+}
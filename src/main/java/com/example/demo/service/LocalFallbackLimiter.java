@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.FailureMode;
+import com.example.demo.model.dto.CheckResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Degraded-mode limiter used while Redis is unhealthy.
+ * <p>
+ * In {@link FailureMode#LOCAL} each node enforces its share of the limit
+ * ({@code ceil(limit / nodeCount)}) with in-process fixed-window counters.
+ */
+@Slf4j
+@Service
+public class LocalFallbackLimiter {
+
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final FailureMode defaultMode;
+
+    private final ConcurrentMap<String, LocalWindow> windows = new ConcurrentHashMap<>();
+
+    public LocalFallbackLimiter(RedisHealthMonitor redisHealthMonitor,
+                                @Value("${app.rate-limit.fallback.default-mode:LOCAL}") FailureMode defaultMode) {
+        this.redisHealthMonitor = redisHealthMonitor;
+        this.defaultMode = defaultMode;
+    }
+
+    public CheckResponse check(ApiLimit config) {
+        return check(config, 1);
+    }
+
+    /**
+     * Same charging rule as the Redis script: a cost that does not fit the remaining local share is
+     * rejected without being counted.
+     */
+    public CheckResponse check(ApiLimit config, int cost) {
+        FailureMode mode = config.getFailureMode() != null ? config.getFailureMode() : defaultMode;
+        return switch (mode) {
+            case OPEN -> new CheckResponse(true, "Rate limiting unavailable - request allowed");
+            case CLOSED -> new CheckResponse(false, "Rate limiting unavailable - request rejected");
+            case LOCAL -> checkLocal(config, cost);
+        };
+    }
+
+    private CheckResponse checkLocal(ApiLimit config, int cost) {
+        long now = System.currentTimeMillis();
+        long windowMillis = config.getWindowSeconds() * 1000L;
+        long windowStart = now - (now % windowMillis);
+        int localLimit = (config.getLimitCount() + redisHealthMonitor.getNodeCount() - 1)
+            / redisHealthMonitor.getNodeCount();
+
+        LocalWindow window = windows.compute(config.getApiKey(), (key, current) ->
+            current == null || current.start != windowStart ? new LocalWindow(windowStart, windowMillis) : current);
+        int count = window.charge(cost, localLimit);
+        long ttl = Math.max(0, (windowStart + windowMillis - now) / 1000);
+
+        if (count > localLimit) {
+            return new CheckResponse(false, "Rate limit exceeded (local fallback)", count - cost, localLimit, ttl);
+        }
+        return new CheckResponse(true, "Request allowed (local fallback)", count, localLimit, ttl);
+    }
+
+    /**
+     * Drops expired windows, and all local state once Redis is healthy again.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.fallback.purge-interval-ms:10000}")
+    public void purge() {
+        if (redisHealthMonitor.isHealthy()) {
+            windows.clear();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        windows.values().removeIf(window -> window.start + window.length <= now);
+    }
+
+    int getWindowCount() {
+        return windows.size();
+    }
+
+    private static final class LocalWindow {
+        private final long start;
+        private final long length;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private LocalWindow(long start, long length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        /**
+         * Returns the count reached with {@code cost} charged; above {@code limit} nothing is charged.
+         */
+        private int charge(int cost, int limit) {
+            while (true) {
+                int current = count.get();
+                int next = current + cost;
+                if (next > limit || count.compareAndSet(current, next)) {
+                    return next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.ApiLimitConfig;
+import com.example.demo.model.dto.CheckResponse;
+import com.example.demo.mq.BlockedEventAggregator;
+import com.example.demo.repository.ApiLimitJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The rate limit decision path: config lookup, Redis counting, failure-mode fallback and decision
+ * bookkeeping. It needs neither JPA nor RocketMQ, so the standalone service and the embedded
+ * filter share it; admin operations live in {@link RateLimitService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitCheckService {
+
+    private final ApiLimitJdbcRepository apiLimitJdbcRepository;
+    private final RedisService redisService;
+    private final BlockedEventAggregator blockedEventAggregator;
+    private final DecisionLogger decisionLogger;
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final LocalFallbackLimiter localFallbackLimiter;
+    private final UsageHistoryService usageHistoryService;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final LocalConfigCache localConfigCache;
+    @Qualifier("applicationTaskExecutor")
+    private final Executor applicationTaskExecutor;
+    
+    public CheckResponse checkApiAccess(String apiKey) {
+        return checkApiAccess(apiKey, 1);
+    }
+    
+    /**
+     * Charges {@code cost} units in one atomic step; a check whose cost exceeds the remaining budget
+     * is rejected without consuming any of it.
+     */
+    public CheckResponse checkApiAccess(String apiKey, int cost) {
+        try {
+            // Get configuration with Cache-aside Pattern
+            ApiLimit config = getApiLimitConfig(apiKey);
+            if (config == null) {
+                return new CheckResponse(true, "No rate limit configured for this API key");
+            }
+            
+            // Execute rate limiting with atomic Lua script, degrade per key's failure mode
+            if (!redisHealthMonitor.isHealthy()) {
+                return checkDegraded(config, cost);
+            }
+            
+            Long currentCount = redisService.executeRateLimit(apiKey, config.getWindowSeconds(), config.getLimitCount(), cost);
+            if (currentCount == null) {
+                redisHealthMonitor.recordFailure();
+                return checkDegraded(config, cost);
+            }
+            
+            Long ttl = redisService.getTtl(apiKey);
+            return decide(apiKey, config, cost, currentCount, ttl);
+            
+        } catch (Exception e) {
+            decisionLogger.error(apiKey, e);
+            return new CheckResponse(true, "Rate limiting error - request allowed");
+        }
+    }
+    
+    /**
+     * Non-blocking variant of {@link #checkApiAccess}: the Redis round trips run on the Lettuce event
+     * loop and the decision is finished on the application task executor, so no caller thread waits
+     * on Redis and no I/O thread runs decision bookkeeping. Config resolution is shared with the
+     * blocking path and stays in memory once the local snapshot is loaded.
+     */
+    public CompletableFuture<CheckResponse> checkApiAccessAsync(String apiKey) {
+        return checkApiAccessAsync(apiKey, 1);
+    }
+    
+    public CompletableFuture<CheckResponse> checkApiAccessAsync(String apiKey, int cost) {
+        ApiLimit config;
+        try {
+            config = getApiLimitConfig(apiKey);
+        } catch (Exception e) {
+            decisionLogger.error(apiKey, e);
+            return CompletableFuture.completedFuture(new CheckResponse(true, "Rate limiting error - request allowed"));
+        }
+        if (config == null) {
+            return CompletableFuture.completedFuture(new CheckResponse(true, "No rate limit configured for this API key"));
+        }
+        if (!redisHealthMonitor.isHealthy()) {
+            return CompletableFuture.completedFuture(checkDegraded(config, cost));
+        }
+        
+        return redisService.executeRateLimitAsync(apiKey, config.getWindowSeconds(), config.getLimitCount(), cost)
+            .thenCompose(currentCount -> {
+                // Replies complete on the Lettuce event loop; the decision and its bookkeeping run on
+                // the application executor so nothing synchronized or blocking lands on I/O threads
+                if (currentCount == null) {
+                    return CompletableFuture.supplyAsync(() -> {
+                        redisHealthMonitor.recordFailure();
+                        return checkDegraded(config, cost);
+                    }, applicationTaskExecutor);
+                }
+                return redisService.getTtlAsync(apiKey)
+                    .thenApplyAsync(ttl -> decide(apiKey, config, cost, currentCount, ttl), applicationTaskExecutor);
+            })
+            .exceptionally(e -> {
+                decisionLogger.error(apiKey, e);
+                return new CheckResponse(true, "Rate limiting error - request allowed");
+            });
+    }
+    
+    /**
+     * Checks several keys at once; every Redis script is issued before any reply is awaited, so the
+     * whole batch shares the connection's pipeline. Results keep the order of {@code apiKeys}.
+     */
+    public CompletableFuture<List<CheckResponse>> checkApiAccessBatch(List<String> apiKeys) {
+        List<CompletableFuture<CheckResponse>> checks = apiKeys.stream()
+            .map(apiKey -> checkApiAccessAsync(apiKey, 1))
+            .toList();
+        return CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new))
+            .thenApply(done -> checks.stream().map(CompletableFuture::join).toList());
+    }
+    
+    /**
+     * {@code reachedCount} is what the window would hold with this request charged; a rejected
+     * request was not charged, so its reported count is the one before it.
+     */
+    private CheckResponse decide(String apiKey, ApiLimit config, int cost, Long reachedCount, Long ttl) {
+        boolean allowed = reachedCount <= config.getLimitCount();
+        int currentCount = allowed ? reachedCount.intValue() : reachedCount.intValue() - cost;
+        decisionLogger.record(apiKey, allowed, currentCount, config.getLimitCount(),
+            ttl != null ? ttl : -1L);
+        usageHistoryService.record(apiKey, allowed);
+        heavyHitterTracker.record(apiKey, allowed);
+        
+        if (!allowed) {
+            // Folded into one BLOCKED summary event per key per window; absent when embedded without MQ
+            if (blockedEventAggregator != null) {
+                blockedEventAggregator.record(apiKey, currentCount, config.getLimitCount(),
+                    ttl != null ? ttl : -1L);
+            }
+            return new CheckResponse(false, "Rate limit exceeded", 
+                currentCount, config.getLimitCount(), resetSeconds(config, ttl));
+        }
+        return new CheckResponse(true, "Request allowed", 
+            currentCount, config.getLimitCount(), resetSeconds(config, ttl));
+    }
+    
+    /**
+     * A missing or negative TTL (counter key without expiry, or already expired) says nothing about
+     * when the window resets, so the full window length is reported instead.
+     */
+    private static Long resetSeconds(ApiLimit config, Long ttl) {
+        return ttl != null && ttl >= 0 ? ttl : Long.valueOf(config.getWindowSeconds());
+    }
+    
+    private CheckResponse checkDegraded(ApiLimit config, int cost) {
+        CheckResponse response = localFallbackLimiter.check(config, cost);
+        usageHistoryService.record(config.getApiKey(), response.isAllowed());
+        heavyHitterTracker.record(config.getApiKey(), response.isAllowed());
+        if (response.getCurrentCount() != null) {
+            decisionLogger.record(config.getApiKey(), response.isAllowed(), response.getCurrentCount(),
+                response.getLimitCount(), response.getRemainingTtl());
+        }
+        return response;
+    }
+    
+    /**
+     * @return the key's configuration, or null if no limit is configured
+     */
+    public ApiLimit getApiLimitConfig(String apiKey) {
+        // Whole table is held locally once the snapshot is loaded; a miss means no limit is configured
+        if (localConfigCache.isLoaded()) {
+            return localConfigCache.get(apiKey);
+        }
+        
+        // Cache-aside Pattern implementation
+        try {
+            // Try to get from cache first
+            ApiLimit cachedConfig = redisService.getCachedApiLimitConfig(apiKey);
+            if (cachedConfig != null) {
+                return cachedConfig;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to get cached config for apiKey: {}", apiKey, e);
+        }
+        
+        // If cache miss, read the projection over JDBC; JPA is only used for admin writes
+        Optional<ApiLimitConfig> configOpt = apiLimitJdbcRepository.findConfigByApiKey(apiKey);
+        if (configOpt.isPresent()) {
+            ApiLimit limit = configOpt.get().toApiLimit();
+            // Cache the result
+            redisService.cacheApiLimitConfig(limit);
+            return limit;
+        }
+        
+        return null;
+    }
+}
@@ -1,49 +1,63 @@
 package com.example.demo.service;
 
+import com.example.demo.common.LimitCursor;
 import com.example.demo.model.ApiLimit;
+import com.example.demo.model.UsageGranularity;
 import com.example.demo.model.dto.CheckResponse;
 import com.example.demo.model.dto.CreateLimitRequest;
+import com.example.demo.model.dto.LimitsCursorResponse;
 import com.example.demo.model.dto.LimitsResponse;
+import com.example.demo.model.dto.UsageHistoryResponse;
 import com.example.demo.model.dto.UsageResponse;
 import com.example.demo.mq.MessageProducer;
 import com.example.demo.mq.RateLimitEventType;
 import com.example.demo.repository.ApiLimitRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+/**
+ * Admin operations on limits plus usage queries; rate limit decisions are delegated to
+ * {@link RateLimitCheckService}.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RateLimitService {
 
+    private static final long TOTAL_COUNT_CACHE_MILLIS = 30_000;
+
     private final ApiLimitRepository apiLimitRepository;
     private final RedisService redisService;
-    private final ObjectMapper objectMapper;
     private final MessageProducer messageProducer;
+    private final UsageHistoryService usageHistoryService;
+    private final LocalConfigCache localConfigCache;
+    private final ConfigSnapshotService configSnapshotService;
+    private final RateLimitCheckService rateLimitCheckService;
+    
+    private volatile long cachedTotal;
+    private volatile long cachedTotalAt;
     
     @Transactional
     public ApiLimit createLimit(CreateLimitRequest request) {
         ApiLimit apiLimit = new ApiLimit(request.getApiKey(), request.getLimit(), request.getWindowSeconds());
+        apiLimit.setFailureMode(request.getFailureMode());
         ApiLimit savedLimit = apiLimitRepository.save(apiLimit);
         
         // Cache the configuration
-        try {
-            String configJson = objectMapper.writeValueAsString(savedLimit);
-            redisService.cacheApiLimitConfig(request.getApiKey(), configJson);
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to cache configuration for apiKey: {}", request.getApiKey(), e);
-        }
+        redisService.cacheApiLimitConfig(savedLimit);
+        
+        configSnapshotService.publishUpsert(savedLimit);
         
         // Send async event
         messageProducer.sendConfigChangeEvent(request.getApiKey(), RateLimitEventType.ConfigAction.CREATED);
@@ -52,55 +66,34 @@ public class RateLimitService {
     }
     
     public CheckResponse checkApiAccess(String apiKey) {
-        try {
-            // Get configuration with Cache-aside Pattern
-            ApiLimit config = getApiLimitConfig(apiKey);
-            if (config == null) {
-                return new CheckResponse(true, "No rate limit configured for this API key");
-            }
-            
-            // Execute rate limiting with atomic Lua script (Fail-open strategy)
-            if (!redisService.isRedisAvailable()) {
-                log.warn("Redis unavailable, allowing request for apiKey: {}", apiKey);
-                return new CheckResponse(true, "Rate limiting unavailable - request allowed");
-            }
-            
-            Long currentCount = redisService.executeRateLimit(apiKey, config.getWindowSeconds(), config.getLimitCount());
-            log.info("Rate limit check for apiKey: {}, currentCount: {}, limit: {}", 
-                apiKey, currentCount, config.getLimitCount());
-                
-            if (currentCount == null) {
-                log.warn("Failed to execute rate limit, allowing request for apiKey: {}", apiKey);
-                return new CheckResponse(true, "Rate limiting failed - request allowed");
-            }
-            
-            Long ttl = redisService.getTtl(apiKey);
-            
-            if (currentCount > config.getLimitCount()) {
-                // Send blocked event async
-                messageProducer.sendBlockedEvent(apiKey, currentCount.intValue(), config.getLimitCount(), ttl);
-                return new CheckResponse(false, "Rate limit exceeded", 
-                    currentCount.intValue(), config.getLimitCount(), ttl);
-            } else {
-                return new CheckResponse(true, "Request allowed", 
-                    currentCount.intValue(), config.getLimitCount(), ttl);
-            }
-            
-        } catch (Exception e) {
-            log.error("Error checking API access for apiKey: {}", apiKey, e);
-            return new CheckResponse(true, "Rate limiting error - request allowed");
-        }
+        return rateLimitCheckService.checkApiAccess(apiKey);
+    }
+    
+    public CheckResponse checkApiAccess(String apiKey, int cost) {
+        return rateLimitCheckService.checkApiAccess(apiKey, cost);
+    }
+    
+    public CompletableFuture<CheckResponse> checkApiAccessAsync(String apiKey) {
+        return rateLimitCheckService.checkApiAccessAsync(apiKey);
+    }
+    
+    public CompletableFuture<CheckResponse> checkApiAccessAsync(String apiKey, int cost) {
+        return rateLimitCheckService.checkApiAccessAsync(apiKey, cost);
+    }
+    
+    public CompletableFuture<List<CheckResponse>> checkApiAccessBatch(List<String> apiKeys) {
+        return rateLimitCheckService.checkApiAccessBatch(apiKeys);
     }
     
     public UsageResponse getUsage(String apiKey) {
         try {
-            ApiLimit config = getApiLimitConfig(apiKey);
+            ApiLimit config = rateLimitCheckService.getApiLimitConfig(apiKey);
             if (config == null) {
                 throw new RuntimeException("API key not found");
             }
             
             Long currentCount = redisService.getCurrentCount(apiKey);
-            Long ttl = redisService.getTtl(apiKey);
+            Long ttl = redisService.getUsageTtl(apiKey);
             
             if (currentCount == null) {
                 currentCount = 0L;
@@ -120,6 +113,10 @@ public class RateLimitService {
         }
     }
     
+    public UsageHistoryResponse getUsageHistory(String apiKey, UsageGranularity granularity, Instant from, Instant to) {
+        return usageHistoryService.getHistory(apiKey, granularity, from, to);
+    }
+    
     @Transactional
     public void removeLimit(String apiKey) {
         if (!apiLimitRepository.existsByApiKey(apiKey)) {
@@ -128,6 +125,7 @@ public class RateLimitService {
         
         apiLimitRepository.deleteByApiKey(apiKey);
         redisService.evictCache(apiKey);
+        configSnapshotService.publishDelete(apiKey);
         
         // Send async event
         messageProducer.sendConfigChangeEvent(apiKey, RateLimitEventType.ConfigAction.DELETED);
@@ -137,15 +135,7 @@ public class RateLimitService {
         Pageable pageable = PageRequest.of(page, size);
         Page<ApiLimit> limitPage = apiLimitRepository.findAllByOrderByCreatedAtDesc(pageable);
         
-        List<LimitsResponse.LimitInfo> limitInfos = limitPage.getContent().stream()
-            .map(limit -> new LimitsResponse.LimitInfo(
-                limit.getApiKey(),
-                limit.getLimitCount(),
-                limit.getWindowSeconds(),
-                limit.getCreatedAt(),
-                limit.getUpdatedAt()
-            ))
-            .collect(Collectors.toList());
+        List<LimitsResponse.LimitInfo> limitInfos = toLimitInfos(limitPage.getContent());
         
         return new LimitsResponse(
             limitInfos,
@@ -156,32 +146,56 @@ public class RateLimitService {
         );
     }
     
-    private ApiLimit getApiLimitConfig(String apiKey) {
-        // Cache-aside Pattern implementation
-        try {
-            // Try to get from cache first
-            String cachedConfig = redisService.getCachedApiLimitConfig(apiKey);
-            if (cachedConfig != null) {
-                return objectMapper.readValue(cachedConfig, ApiLimit.class);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to get cached config for apiKey: {}", apiKey, e);
+    /**
+     * Keyset page ordered by (createdAt, apiKey) descending; cost is O(size) however deep the page.
+     * @param cursor token from the previous page's nextCursor, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public LimitsCursorResponse getLimitsPage(String cursor, int size, boolean includeTotal) {
+        // 多取一筆判斷是否還有下一頁，避免最後一頁再多一次空查詢
+        Limit fetchLimit = Limit.of(size + 1);
+        List<ApiLimit> rows;
+        if (cursor == null) {
+            rows = apiLimitRepository.findAllByOrderByCreatedAtDescApiKeyDesc(fetchLimit);
+        } else {
+            LimitCursor position = LimitCursor.decode(cursor);
+            rows = apiLimitRepository.findPageAfter(position.createdAt(), position.apiKey(), fetchLimit);
         }
         
-        // If cache miss, get from database
-        Optional<ApiLimit> limitOpt = apiLimitRepository.findByApiKey(apiKey);
-        if (limitOpt.isPresent()) {
-            ApiLimit limit = limitOpt.get();
-            // Cache the result
-            try {
-                String configJson = objectMapper.writeValueAsString(limit);
-                redisService.cacheApiLimitConfig(apiKey, configJson);
-            } catch (JsonProcessingException e) {
-                log.warn("Failed to cache configuration for apiKey: {}", apiKey, e);
-            }
-            return limit;
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            ApiLimit last = rows.get(size - 1);
+            nextCursor = new LimitCursor(last.getCreatedAt(), last.getApiKey()).encode();
         }
-        
-        return null;
+        return new LimitsCursorResponse(toLimitInfos(rows), size, nextCursor, includeTotal ? countLimits() : null);
+    }
+    
+    /**
+     * Total row count without a COUNT(*) per request: the local snapshot size when loaded,
+     * otherwise a count refreshed at most every {@link #TOTAL_COUNT_CACHE_MILLIS}.
+     */
+    private long countLimits() {
+        if (localConfigCache.isLoaded()) {
+            return localConfigCache.size();
+        }
+        long now = System.currentTimeMillis();
+        if (now - cachedTotalAt > TOTAL_COUNT_CACHE_MILLIS) {
+            cachedTotal = apiLimitRepository.count();
+            cachedTotalAt = now;
+        }
+        return cachedTotal;
+    }
+    
+    private static List<LimitsResponse.LimitInfo> toLimitInfos(List<ApiLimit> limits) {
+        return limits.stream()
+            .map(limit -> new LimitsResponse.LimitInfo(
+                limit.getApiKey(),
+                limit.getLimitCount(),
+                limit.getWindowSeconds(),
+                limit.getCreatedAt(),
+                limit.getUpdatedAt()
+            ))
+            .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
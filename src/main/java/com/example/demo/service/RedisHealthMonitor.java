@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks Redis health in the background so the check path never pings Redis itself.
+ * <p>
+ * A failed probe or a failed rate limit call marks Redis unhealthy immediately;
+ * it is marked healthy again after {@code recovery-threshold} consecutive successful probes.
+ * The probe doubles as a node heartbeat, which is how the cluster size is discovered.
+ */
+@Slf4j
+@Service
+public class RedisHealthMonitor {
+
+    private final RedisService redisService;
+    private final int configuredNodeCount;
+    private final int recoveryThreshold;
+    private final long nodeTtlMillis;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    private volatile boolean healthy = true;
+    private volatile int discoveredNodeCount = 1;
+    private final AtomicInteger consecutiveSuccesses = new AtomicInteger();
+
+    public RedisHealthMonitor(RedisService redisService,
+                              @Value("${app.rate-limit.fallback.node-count:0}") int configuredNodeCount,
+                              @Value("${app.rate-limit.fallback.recovery-threshold:3}") int recoveryThreshold,
+                              @Value("${app.rate-limit.fallback.node-ttl-ms:5000}") long nodeTtlMillis) {
+        this.redisService = redisService;
+        this.configuredNodeCount = configuredNodeCount;
+        this.recoveryThreshold = recoveryThreshold;
+        this.nodeTtlMillis = nodeTtlMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.fallback.health-check-interval-ms:1000}")
+    public void probe() {
+        boolean success;
+        if (configuredNodeCount > 0) {
+            success = redisService.isRedisAvailable();
+        } else {
+            Long liveNodes = redisService.registerNodeHeartbeat(nodeId, nodeTtlMillis);
+            success = liveNodes != null;
+            if (success) {
+                discoveredNodeCount = (int) Math.max(1, liveNodes);
+            }
+        }
+
+        if (success) {
+            recordSuccess();
+        } else {
+            recordFailure();
+        }
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Called by the check path when a Redis call fails, so traffic switches to
+     * the fallback without waiting for the next probe.
+     */
+    public void recordFailure() {
+        consecutiveSuccesses.set(0);
+        if (healthy) {
+            healthy = false;
+            log.warn("Redis marked unhealthy, switching to degraded rate limiting");
+        }
+    }
+
+    private void recordSuccess() {
+        if (!healthy && consecutiveSuccesses.incrementAndGet() >= recoveryThreshold) {
+            healthy = true;
+            consecutiveSuccesses.set(0);
+            log.info("Redis recovered, switching back to distributed rate limiting");
+        }
+    }
+
+    /**
+     * Number of service instances sharing each limit: the configured value, or the
+     * last node count seen in the heartbeat registry while Redis was reachable.
+     */
+    public int getNodeCount() {
+        return configuredNodeCount > 0 ? configuredNodeCount : discoveredNodeCount;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
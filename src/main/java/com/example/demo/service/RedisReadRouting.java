@@ -0,0 +1,158 @@
+package com.example.demo.service;
+
+import io.lettuce.core.ReadFrom;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.RedisStaticMasterReplicaConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Templates for read-only Redis traffic. With {@code app.redis.replica.enabled} they run on a
+ * separate static primary/replica connection whose {@code read-from} policy decides how stale a
+ * read may be; otherwise they are the primary templates. Writes, Lua scripts and reads that must
+ * observe the caller's own increment never go through here.
+ * <p>
+ * The replica connection factory is deliberately not a bean, so Spring Boot's primary
+ * {@code RedisConnectionFactory} auto-configuration stays in place.
+ */
+@Slf4j
+@Service
+public class RedisReadRouting {
+
+    private final RedisTemplate<String, String> counterRedisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final LettuceConnectionFactory replicaConnectionFactory;
+    private final RedisTemplate<String, String> counterReadTemplate;
+    private final RedisTemplate<String, byte[]> binaryReadTemplate;
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    @Autowired
+    public RedisReadRouting(@Qualifier("counterRedisTemplate") RedisTemplate<String, String> counterRedisTemplate,
+                            @Qualifier("binaryRedisTemplate") RedisTemplate<String, byte[]> binaryRedisTemplate,
+                            RedisProperties redisProperties,
+                            @Value("${app.redis.replica.enabled:false}") boolean enabled,
+                            @Value("${app.redis.replica.nodes:}") List<String> replicaNodes,
+                            @Value("${app.redis.replica.read-from:replicaPreferred}") String readFrom) {
+        this(counterRedisTemplate, binaryRedisTemplate, enabled && !replicaNodes.isEmpty()
+            ? replicaConnectionFactory(redisProperties, replicaNodes, ReadFrom.valueOf(readFrom))
+            : null);
+        if (replicaConnectionFactory != null) {
+            log.info("Redis replica reads enabled: replicas={}, readFrom={}", replicaNodes, readFrom);
+        }
+    }
+
+    private RedisReadRouting(RedisTemplate<String, String> counterRedisTemplate,
+                             RedisTemplate<String, byte[]> binaryRedisTemplate,
+                             LettuceConnectionFactory replicaConnectionFactory) {
+        this.counterRedisTemplate = counterRedisTemplate;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.replicaConnectionFactory = replicaConnectionFactory;
+        this.counterReadTemplate = replicaConnectionFactory != null
+            ? template(replicaConnectionFactory, new StringRedisSerializer())
+            : counterRedisTemplate;
+        this.binaryReadTemplate = replicaConnectionFactory != null
+            ? template(replicaConnectionFactory, RedisSerializer.byteArray())
+            : binaryRedisTemplate;
+    }
+
+    RedisReadRouting(RedisTemplate<String, String> counterRedisTemplate,
+                     RedisTemplate<String, byte[]> binaryRedisTemplate,
+                     RedisTemplate<String, String> counterReadTemplate,
+                     RedisTemplate<String, byte[]> binaryReadTemplate) {
+        this.counterRedisTemplate = counterRedisTemplate;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.replicaConnectionFactory = null;
+        this.counterReadTemplate = counterReadTemplate;
+        this.binaryReadTemplate = binaryReadTemplate;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (replicaConnectionFactory != null) {
+            replicaConnectionFactory.destroy();
+        }
+    }
+
+    public boolean isReplicaEnabled() {
+        return counterReadTemplate != counterRedisTemplate;
+    }
+
+    public long getPrimaryFallbackCount() {
+        return primaryFallbacks.sum();
+    }
+
+    /**
+     * Runs a read on the replica-routed template, retrying once on the primary if it fails;
+     * primary failures propagate to the caller.
+     */
+    public <T> T readCounter(Function<RedisTemplate<String, String>, T> read) {
+        return read(counterReadTemplate, counterRedisTemplate, read);
+    }
+
+    public <T> T readBinary(Function<RedisTemplate<String, byte[]>, T> read) {
+        return read(binaryReadTemplate, binaryRedisTemplate, read);
+    }
+
+    private <V, T> T read(RedisTemplate<String, V> replica, RedisTemplate<String, V> primary,
+                          Function<RedisTemplate<String, V>, T> read) {
+        if (replica != primary) {
+            try {
+                return read.apply(replica);
+            } catch (Exception e) {
+                // 副本連線中斷或全部不可用時改讀主節點
+                primaryFallbacks.increment();
+                log.debug("Replica read failed, falling back to primary: {}", e.getMessage());
+            }
+        }
+        return read.apply(primary);
+    }
+
+    private static LettuceConnectionFactory replicaConnectionFactory(RedisProperties properties,
+                                                                     List<String> replicaNodes,
+                                                                     ReadFrom readFrom) {
+        // 第一個節點為主節點，Lettuce 連線時以 ROLE 確認各節點角色
+        RedisStaticMasterReplicaConfiguration configuration =
+            new RedisStaticMasterReplicaConfiguration(properties.getHost(), properties.getPort());
+        for (String node : replicaNodes) {
+            int separator = node.lastIndexOf(':');
+            configuration.addNode(node.substring(0, separator).trim(), Integer.parseInt(node.substring(separator + 1).trim()));
+        }
+        configuration.setDatabase(properties.getDatabase());
+        configuration.setUsername(properties.getUsername());
+        if (properties.getPassword() != null) {
+            configuration.setPassword(properties.getPassword());
+        }
+
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder client = LettuceClientConfiguration.builder()
+            .readFrom(readFrom);
+        if (properties.getTimeout() != null) {
+            client.commandTimeout(properties.getTimeout());
+        }
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(configuration, client.build());
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    private static <V> RedisTemplate<String, V> template(LettuceConnectionFactory factory, RedisSerializer<V> valueSerializer) {
+        RedisTemplate<String, V> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(valueSerializer);
+        template.afterPropertiesSet();
+        return template;
+    }
+}
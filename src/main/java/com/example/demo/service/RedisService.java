@@ -1,14 +1,29 @@
 package com.example.demo.service;
 
+import com.example.demo.common.ApiLimitCodec;
 import com.example.demo.common.RedisKey;
+import com.example.demo.model.ApiLimit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -18,20 +33,27 @@ public class RedisService {
 
     private static final int CONFIG_CACHE_TTL = 300; // 5 minutes
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    @Qualifier("binaryRedisTemplate")
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
     @Qualifier("counterRedisTemplate")
     private final RedisTemplate<String, String> counterRedisTemplate;
     private final DefaultRedisScript<Long> rateLimitScript;
-    private final DefaultRedisScript<Long> getCurrentCountScript;
+    private final RedisReadRouting readRouting;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
 
-    public Long executeRateLimit(String apiKey, int windowSeconds, int limit) {
+    /**
+     * Charges {@code cost} against the window atomically. Returns the count the request reached, or
+     * would have reached when it exceeds {@code limit} — in that case nothing is charged.
+     */
+    public Long executeRateLimit(String apiKey, int windowSeconds, int limit, int cost) {
         try {
             String key = RedisKey.rateLimitCounter(apiKey);
             return counterRedisTemplate.execute(
                 rateLimitScript,
                 Collections.singletonList(key),
                 String.valueOf(windowSeconds),
-                String.valueOf(limit)
+                String.valueOf(limit),
+                String.valueOf(cost)
             );
         } catch (Exception e) {
             log.error("Failed to execute rate limit for apiKey: {}", apiKey, e);
@@ -39,19 +61,65 @@ public class RedisService {
         }
     }
 
+    /**
+     * Non-blocking {@link #executeRateLimit}: completes on the Lettuce I/O thread, with null on failure.
+     */
+    public CompletableFuture<Long> executeRateLimitAsync(String apiKey, int windowSeconds, int limit, int cost) {
+        try {
+            String key = RedisKey.rateLimitCounter(apiKey);
+            return reactiveRedisTemplate.execute(
+                    rateLimitScript,
+                    Collections.singletonList(key),
+                    List.of(String.valueOf(windowSeconds), String.valueOf(limit), String.valueOf(cost)))
+                .next()
+                .toFuture()
+                .exceptionally(e -> {
+                    log.error("Failed to execute async rate limit for apiKey: {}", apiKey, e);
+                    return null;
+                });
+        } catch (Exception e) {
+            log.error("Failed to execute async rate limit for apiKey: {}", apiKey, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Non-blocking {@link #getTtl}; -2 when the counter is gone, 0 when it has no expiry, null on failure.
+     */
+    public CompletableFuture<Long> getTtlAsync(String apiKey) {
+        try {
+            String key = RedisKey.rateLimitCounter(apiKey);
+            return reactiveRedisTemplate.getExpire(key)
+                .map(Duration::getSeconds)
+                .defaultIfEmpty(-2L)
+                .toFuture()
+                .exceptionally(e -> {
+                    log.error("Failed to get async TTL for apiKey: {}", apiKey, e);
+                    return null;
+                });
+        } catch (Exception e) {
+            log.error("Failed to get async TTL for apiKey: {}", apiKey, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Read-only; may be served by a replica, so it can trail the latest increment by the replication lag.
+     */
     public Long getCurrentCount(String apiKey) {
         try {
             String key = RedisKey.rateLimitCounter(apiKey);
-            return counterRedisTemplate.execute(
-                getCurrentCountScript,
-                Collections.singletonList(key)
-            );
+            String value = readRouting.readCounter(template -> template.opsForValue().get(key));
+            return value != null ? Long.parseLong(value) : 0L;
         } catch (Exception e) {
             log.error("Failed to get current count for apiKey: {}", apiKey, e);
             return null;
         }
     }
 
+    /**
+     * Always reads the primary: the check path calls it right after its own increment.
+     */
     public Long getTtl(String apiKey) {
         try {
             String key = RedisKey.rateLimitCounter(apiKey);
@@ -62,20 +130,53 @@ public class RedisService {
         }
     }
 
-    public void cacheApiLimitConfig(String apiKey, String configJson) {
+    /**
+     * Window TTL for usage reporting; may be served by a replica.
+     */
+    public Long getUsageTtl(String apiKey) {
         try {
-            String key = RedisKey.configCache(apiKey);
-            redisTemplate.opsForValue().set(key, configJson, CONFIG_CACHE_TTL, TimeUnit.SECONDS);
+            String key = RedisKey.rateLimitCounter(apiKey);
+            return readRouting.readCounter(template -> template.getExpire(key, TimeUnit.SECONDS));
+        } catch (Exception e) {
+            log.error("Failed to get usage TTL for apiKey: {}", apiKey, e);
+            return null;
+        }
+    }
+
+    public void cacheApiLimitConfig(ApiLimit limit) {
+        try {
+            String key = RedisKey.configCache(limit.getApiKey());
+            binaryRedisTemplate.opsForValue().set(key, ApiLimitCodec.encode(limit), CONFIG_CACHE_TTL, TimeUnit.SECONDS);
         } catch (Exception e) {
-            log.error("Failed to cache config for apiKey: {}", apiKey, e);
+            log.error("Failed to cache config for apiKey: {}", limit.getApiKey(), e);
         }
     }
 
-    public String getCachedApiLimitConfig(String apiKey) {
+    /**
+     * Refreshes many cached configs in one pipelined round trip.
+     * @return false if the pipeline failed; entries then fall back to cache-aside on the next read
+     */
+    public boolean cacheApiLimitConfigs(List<ApiLimit> limits) {
+        try {
+            binaryRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (ApiLimit limit : limits) {
+                    byte[] rawKey = RedisKey.configCache(limit.getApiKey()).getBytes(StandardCharsets.UTF_8);
+                    connection.stringCommands().setEx(rawKey, CONFIG_CACHE_TTL, ApiLimitCodec.encode(limit));
+                }
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to cache configs: keys={}, error={}", limits.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    public ApiLimit getCachedApiLimitConfig(String apiKey) {
         try {
             String key = RedisKey.configCache(apiKey);
-            Object value = redisTemplate.opsForValue().get(key);
-            return value != null ? value.toString() : null;
+            byte[] value = readRouting.readBinary(template -> template.opsForValue().get(key));
+            return value != null ? ApiLimitCodec.decode(value) : null;
         } catch (Exception e) {
             log.error("Failed to get cached config for apiKey: {}", apiKey, e);
             return null;
@@ -86,13 +187,127 @@ public class RedisService {
         try {
             String configKey = RedisKey.configCache(apiKey);
             String countKey = RedisKey.rateLimitCounter(apiKey);
-            redisTemplate.delete(configKey);
+            binaryRedisTemplate.delete(configKey);
             counterRedisTemplate.delete(countKey);
         } catch (Exception e) {
             log.error("Failed to evict cache for apiKey: {}", apiKey, e);
         }
     }
 
+    /**
+     * Registers this node in the node registry and prunes nodes whose heartbeat expired.
+     * @return number of live nodes, or null if Redis is unreachable
+     */
+    public Long registerNodeHeartbeat(String nodeId, long nodeTtlMillis) {
+        try {
+            String key = RedisKey.nodeRegistry();
+            long now = System.currentTimeMillis();
+            ZSetOperations<String, String> zSetOps = counterRedisTemplate.opsForZSet();
+            zSetOps.add(key, nodeId, now);
+            zSetOps.removeRangeByScore(key, 0, now - nodeTtlMillis);
+            return zSetOps.zCard(key);
+        } catch (Exception e) {
+            log.warn("Failed to register node heartbeat: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Applies HINCRBY deltas to several hashes in one pipeline and refreshes their TTLs.
+     * @return false if Redis is unreachable and nothing can be assumed written
+     */
+    public boolean incrementHashes(Map<String, Map<String, Long>> deltasByKey, Map<String, Long> ttlSecondsByKey) {
+        try {
+            counterRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                deltasByKey.forEach((key, deltas) -> {
+                    byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+                    deltas.forEach((field, delta) ->
+                        connection.hashCommands().hIncrBy(rawKey, field.getBytes(StandardCharsets.UTF_8), delta));
+                    connection.keyCommands().expire(rawKey, ttlSecondsByKey.get(key));
+                });
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to increment hashes: keys={}, error={}", deltasByKey.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads several hashes with one pipelined HGETALL each.
+     * @return entries in the same order as keys, or null if Redis is unreachable
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, String>> getHashes(List<String> keys) {
+        try {
+            List<Object> results = counterRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                keys.forEach(key -> connection.hashCommands().hGetAll(key.getBytes(StandardCharsets.UTF_8)));
+                return null;
+            });
+            return results.stream().map(result -> (Map<String, String>) result).toList();
+        } catch (Exception e) {
+            log.error("Failed to read hashes: keys={}", keys.size(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces this node's published top keys for a metric and marks the node as live.
+     */
+    public void publishTopKeys(String metric, String nodeId, Map<String, Long> counts, long nodeTtlMillis) {
+        try {
+            String key = RedisKey.topKeys(metric, nodeId);
+            String nodesKey = RedisKey.topKeysNodes();
+            long now = System.currentTimeMillis();
+            Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+            counts.forEach((apiKey, count) -> tuples.add(ZSetOperations.TypedTuple.of(apiKey, count.doubleValue())));
+            counterRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.delete(key);
+                    if (!tuples.isEmpty()) {
+                        ops.opsForZSet().add(key, tuples);
+                        ops.expire(key, nodeTtlMillis, TimeUnit.MILLISECONDS);
+                    }
+                    ops.opsForZSet().add(nodesKey, nodeId, now);
+                    ops.opsForZSet().removeRangeByScore(nodesKey, 0, now - nodeTtlMillis);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to publish top keys: metric={}, error={}", metric, e.getMessage());
+        }
+    }
+
+    /**
+     * Sums the top keys published by all live nodes for a metric (ZUNION).
+     * @return counts by apiKey, or null if Redis is unreachable
+     */
+    public Map<String, Long> mergeTopKeys(String metric, long nodeTtlMillis) {
+        try {
+            long now = System.currentTimeMillis();
+            Set<String> nodes = counterRedisTemplate.opsForZSet()
+                .rangeByScore(RedisKey.topKeysNodes(), now - nodeTtlMillis, Double.POSITIVE_INFINITY);
+            if (nodes == null || nodes.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            List<String> keys = nodes.stream().map(nodeId -> RedisKey.topKeys(metric, nodeId)).toList();
+            Set<ZSetOperations.TypedTuple<String>> union = counterRedisTemplate.opsForZSet()
+                .unionWithScores(keys.get(0), keys.subList(1, keys.size()));
+            Map<String, Long> merged = new HashMap<>();
+            if (union != null) {
+                union.forEach(tuple -> merged.put(tuple.getValue(), tuple.getScore().longValue()));
+            }
+            return merged;
+        } catch (Exception e) {
+            log.warn("Failed to merge top keys: metric={}, error={}", metric, e.getMessage());
+            return null;
+        }
+    }
+
     public boolean isRedisAvailable() {
         try {
             counterRedisTemplate.opsForValue().get("health-check");
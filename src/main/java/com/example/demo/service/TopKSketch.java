@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Count-Min sketch with a fixed table of heavy-hitter candidates.
+ * <p>
+ * Memory is constant regardless of the number of distinct keys, and updates are lock-free:
+ * counters are atomic increments and a candidate slot is only replaced by CAS when the new key's
+ * estimate beats the weakest candidate it probed. Estimates never undercount.
+ */
+class TopKSketch {
+
+    private static final int DEPTH = 4;
+    private static final int PROBES = 4;
+
+    private final int widthMask;
+    private final int candidateMask;
+    private final AtomicLongArray counts;
+    private final AtomicReferenceArray<String> candidates;
+
+    /**
+     * @param width          counters per row, rounded up to a power of two
+     * @param candidateSlots candidate table size, rounded up to a power of two
+     */
+    TopKSketch(int width, int candidateSlots) {
+        int roundedWidth = powerOfTwo(width);
+        int roundedSlots = powerOfTwo(candidateSlots);
+        this.widthMask = roundedWidth - 1;
+        this.candidateMask = roundedSlots - 1;
+        this.counts = new AtomicLongArray(DEPTH * roundedWidth);
+        this.candidates = new AtomicReferenceArray<>(roundedSlots);
+    }
+
+    void add(String key) {
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts.incrementAndGet(index(row, h1, h2)));
+        }
+        offerCandidate(key, h2, estimate);
+    }
+
+    long estimate(String key) {
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    Set<String> candidates() {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < candidates.length(); i++) {
+            String key = candidates.get(i);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    void clear() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        for (int i = 0; i < candidates.length(); i++) {
+            candidates.set(i, null);
+        }
+    }
+
+    private void offerCandidate(String key, int hash, long estimate) {
+        int weakestSlot = -1;
+        String weakestKey = null;
+        long weakestEstimate = Long.MAX_VALUE;
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (hash + probe) & candidateMask;
+            String current = candidates.get(slot);
+            if (key.equals(current)) {
+                return;
+            }
+            if (current == null) {
+                if (candidates.compareAndSet(slot, null, key)) {
+                    return;
+                }
+                continue;
+            }
+            long currentEstimate = estimate(current);
+            if (currentEstimate < weakestEstimate) {
+                weakestSlot = slot;
+                weakestKey = current;
+                weakestEstimate = currentEstimate;
+            }
+        }
+        if (weakestSlot >= 0 && estimate > weakestEstimate) {
+            // Losing the race just means another key took the slot
+            candidates.compareAndSet(weakestSlot, weakestKey, key);
+        }
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+
+    private static int powerOfTwo(int value) {
+        return Integer.highestOneBit(Math.max(2, value - 1)) << 1;
+    }
+}
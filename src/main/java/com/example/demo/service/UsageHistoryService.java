@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.common.RedisKey;
+import com.example.demo.model.UsageGranularity;
+import com.example.demo.model.dto.UsageHistoryResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key allowed/blocked history.
+ * Decisions are counted in memory per key and minute, then flushed periodically as pipelined
+ * HINCRBY into minute, hour and day hashes, so every granularity is a pre-aggregated rollup
+ * and history reads never touch raw events.
+ */
+@Slf4j
+@Service
+public class UsageHistoryService {
+
+    private static final String ALLOWED_FIELD = "a";
+    private static final String BLOCKED_FIELD = "b";
+
+    private final RedisService redisService;
+    private final int maxPoints;
+
+    private final ConcurrentMap<MinuteKey, MinuteCounter> counters = new ConcurrentHashMap<>();
+
+    public UsageHistoryService(RedisService redisService,
+                               @Value("${app.usage-history.max-points:1440}") int maxPoints) {
+        this.redisService = redisService;
+        this.maxPoints = maxPoints;
+    }
+
+    public void record(String apiKey, boolean allowed) {
+        long minuteStart = UsageGranularity.MINUTE.truncate(System.currentTimeMillis() / 1000);
+        MinuteCounter counter = counters.computeIfAbsent(new MinuteKey(apiKey, minuteStart), k -> new MinuteCounter());
+        (allowed ? counter.allowed : counter.blocked).incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${app.usage-history.flush-interval-ms:5000}")
+    public void flush() {
+        long currentMinute = UsageGranularity.MINUTE.truncate(System.currentTimeMillis() / 1000);
+        Map<MinuteKey, long[]> drained = new HashMap<>();
+        counters.forEach((key, counter) -> {
+            if (key.minuteStart < currentMinute) {
+                // Past minutes get no new records; removing before draining leaves at most a racing increment behind
+                counters.remove(key, counter);
+            }
+            long allowed = counter.allowed.getAndSet(0);
+            long blocked = counter.blocked.getAndSet(0);
+            if (allowed > 0 || blocked > 0) {
+                drained.merge(key, new long[]{allowed, blocked}, UsageHistoryService::sum);
+            }
+        });
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, Long>> deltasByKey = new HashMap<>();
+        Map<String, Long> ttlByKey = new HashMap<>();
+        drained.forEach((key, counts) -> {
+            for (UsageGranularity granularity : UsageGranularity.values()) {
+                String redisKey = RedisKey.usageHistory(granularity.getCode(), key.apiKey, granularity.groupOf(key.minuteStart));
+                long offset = granularity.offsetOf(key.minuteStart);
+                Map<String, Long> deltas = deltasByKey.computeIfAbsent(redisKey, k -> new HashMap<>());
+                if (counts[0] > 0) {
+                    deltas.merge(ALLOWED_FIELD + offset, counts[0], Long::sum);
+                }
+                if (counts[1] > 0) {
+                    deltas.merge(BLOCKED_FIELD + offset, counts[1], Long::sum);
+                }
+                ttlByKey.put(redisKey, granularity.getRetention().toSeconds());
+            }
+        });
+
+        if (!redisService.incrementHashes(deltasByKey, ttlByKey)) {
+            // Put the counts back so the next flush retries them
+            drained.forEach((key, counts) -> {
+                MinuteCounter counter = counters.computeIfAbsent(key, k -> new MinuteCounter());
+                counter.allowed.addAndGet(counts[0]);
+                counter.blocked.addAndGet(counts[1]);
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Returns one point per bucket in [from, to), zero-filled, read from the rollup of the given granularity.
+     */
+    public UsageHistoryResponse getHistory(String apiKey, UsageGranularity granularity, Instant from, Instant to) {
+        long start = granularity.truncate(from.getEpochSecond());
+        long end = to.getEpochSecond();
+        if (end <= start) {
+            throw new IllegalArgumentException("'to' must be after 'from'");
+        }
+        long pointCount = (end - start + granularity.getBucketSeconds() - 1) / granularity.getBucketSeconds();
+        if (pointCount > maxPoints) {
+            throw new IllegalArgumentException("Requested range has " + pointCount + " points, maximum is " + maxPoints
+                + "; use a coarser granularity");
+        }
+
+        Map<Long, String> keyByGroup = new LinkedHashMap<>();
+        for (long bucket = start; bucket < end; bucket += granularity.getBucketSeconds()) {
+            long group = granularity.groupOf(bucket);
+            keyByGroup.computeIfAbsent(group, g -> RedisKey.usageHistory(granularity.getCode(), apiKey, g));
+        }
+        List<String> keys = new ArrayList<>(keyByGroup.values());
+        List<Map<String, String>> hashes = redisService.getHashes(keys);
+        if (hashes == null) {
+            throw new IllegalStateException("Usage history is unavailable");
+        }
+        Map<Long, Map<String, String>> hashByGroup = new HashMap<>();
+        int index = 0;
+        for (Long group : keyByGroup.keySet()) {
+            hashByGroup.put(group, hashes.get(index++));
+        }
+
+        List<UsageHistoryResponse.UsagePoint> points = new ArrayList<>((int) pointCount);
+        for (long bucket = start; bucket < end; bucket += granularity.getBucketSeconds()) {
+            Map<String, String> hash = hashByGroup.get(granularity.groupOf(bucket));
+            long offset = granularity.offsetOf(bucket);
+            points.add(new UsageHistoryResponse.UsagePoint(Instant.ofEpochSecond(bucket),
+                parseCount(hash, ALLOWED_FIELD + offset), parseCount(hash, BLOCKED_FIELD + offset)));
+        }
+        return new UsageHistoryResponse(apiKey, granularity, Instant.ofEpochSecond(start), to, points);
+    }
+
+    int getPendingCount() {
+        return counters.size();
+    }
+
+    private static long parseCount(Map<String, String> hash, String field) {
+        String value = hash != null ? hash.get(field) : null;
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        return new long[]{a[0] + b[0], a[1] + b[1]};
+    }
+
+    private record MinuteKey(String apiKey, long minuteStart) {
+    }
+
+    private static final class MinuteCounter {
+        private final AtomicLong allowed = new AtomicLong();
+        private final AtomicLong blocked = new AtomicLong();
+    }
+}
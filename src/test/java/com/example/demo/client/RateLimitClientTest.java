@@ -0,0 +1,214 @@
+package com.example.demo.client;
+
+import com.example.demo.model.dto.CheckResponse;
+import com.example.demo.model.dto.UsageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RateLimitClient Tests")
+class RateLimitClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+
+    private HttpServer server;
+    private RateLimitClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should parse allowed and blocked single checks")
+    void shouldParseSingleChecks() {
+        // Given
+        server.createContext("/check", exchange -> {
+            singleCalls.incrementAndGet();
+            boolean blocked = exchange.getRequestURI().getRawQuery().contains("apiKey=busy%2Fkey");
+            respond(exchange, blocked ? 429 : 200, blocked
+                ? new CheckResponse(false, "Rate limit exceeded", 11, 10, 30L)
+                : new CheckResponse(true, "Request allowed", 1, 10, 59L));
+        });
+        client = new RateLimitClient(config(false));
+
+        // When
+        CheckResponse allowed = client.check("calm-key");
+        CheckResponse blocked = client.check("busy/key");
+
+        // Then
+        assertThat(allowed.isAllowed()).isTrue();
+        assertThat(blocked.isAllowed()).isFalse();
+        assertThat(blocked.getRemainingTtl()).isEqualTo(30L);
+        assertThat(client.getMetrics().checks()).isEqualTo(2);
+        assertThat(client.getMetrics().failures()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent checks onto the batch endpoint in order")
+    void shouldCoalesceConcurrentChecks() {
+        // Given
+        server.createContext("/check/batch", exchange -> {
+            batchCalls.incrementAndGet();
+            List<?> keys = objectMapper.readValue(exchange.getRequestBody(), List.class);
+            respond(exchange, 200, keys.stream()
+                .map(key -> new CheckResponse(true, String.valueOf(key), 1, 10, 60L))
+                .toList());
+        });
+        RateLimitClientConfig config = config(true);
+        config.setBatchWindow(Duration.ofMillis(50));
+        config.setMaxBatchSize(3);
+        client = new RateLimitClient(config);
+
+        // When
+        List<CompletableFuture<CheckResponse>> futures = List.of(
+            client.checkAsync("a"), client.checkAsync("b"), client.checkAsync("c"));
+
+        // Then
+        assertThat(futures.stream().map(f -> f.join().getMessage()).toList()).containsExactly("a", "b", "c");
+        assertThat(batchCalls.get()).isEqualTo(1);
+        assertThat(client.getMetrics().batchedChecks()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should fall back to single checks when server has no batch endpoint")
+    void shouldFallBackWhenBatchEndpointMissing() {
+        // Given
+        server.createContext("/check", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/check/batch")) {
+                batchCalls.incrementAndGet();
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            singleCalls.incrementAndGet();
+            respond(exchange, 200, new CheckResponse(true, "Request allowed", 1, 10, 59L));
+        });
+        RateLimitClientConfig config = config(true);
+        config.setMaxBatchSize(2);
+        client = new RateLimitClient(config);
+
+        // When
+        CompletableFuture<CheckResponse> first = client.checkAsync("a");
+        CompletableFuture<CheckResponse> second = client.checkAsync("b");
+        CheckResponse later = client.check("c");
+
+        // Then
+        assertThat(first.join().isAllowed()).isTrue();
+        assertThat(second.join().isAllowed()).isTrue();
+        assertThat(later.isAllowed()).isTrue();
+        assertThat(batchCalls.get()).isEqualTo(1);
+        assertThat(singleCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should apply fail-closed policy when the deadline is missed")
+    void shouldApplyFailClosedPolicyOnTimeout() {
+        // Given
+        server.createContext("/check", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, new CheckResponse(true, "Request allowed", 1, 10, 59L));
+        });
+        RateLimitClientConfig config = config(false);
+        config.setRequestTimeout(Duration.ofMillis(100));
+        config.setFailOpen(false);
+        client = new RateLimitClient(config);
+
+        // When
+        CheckResponse result = client.check("slow-key");
+
+        // Then
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getMessage()).isEqualTo(RateLimitClient.FAIL_CLOSED_MESSAGE);
+        assertThat(client.getMetrics().timeouts()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should apply fail-open policy on service error")
+    void shouldApplyFailOpenPolicyOnServiceError() {
+        // Given
+        server.createContext("/check", exchange -> respond(exchange, 500,
+            new CheckResponse(true, "Rate limiting service error - request allowed")));
+        client = new RateLimitClient(config(false));
+
+        // When
+        CheckResponse result = client.check("key");
+
+        // Then
+        assertThat(result.isAllowed()).isTrue();
+        assertThat(result.getMessage()).isEqualTo(RateLimitClient.FAIL_OPEN_MESSAGE);
+        assertThat(client.getMetrics().failures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should read usage and raise client exception for unknown keys")
+    void shouldReadUsage() {
+        // Given
+        server.createContext("/usage", exchange -> {
+            if (exchange.getRequestURI().getQuery().contains("unknown")) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, 200, new UsageResponse("key", 3, 10, 7, 40L, 60));
+        });
+        client = new RateLimitClient(config(false));
+
+        // When
+        UsageResponse usage = client.usage("key");
+
+        // Then
+        assertThat(usage.getRemaining()).isEqualTo(7);
+        assertThatThrownBy(() -> client.usage("unknown"))
+            .isInstanceOf(RateLimitClientException.class)
+            .hasMessageContaining("404");
+    }
+
+    private RateLimitClientConfig config(boolean batching) {
+        RateLimitClientConfig config = new RateLimitClientConfig();
+        config.setBaseUri("http://127.0.0.1:" + server.getAddress().getPort());
+        config.setRequestTimeout(Duration.ofSeconds(5));
+        config.setBatchingEnabled(batching);
+        return config;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.common;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.FailureMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 配置快取編碼 JMH 基準：舊路徑 (ObjectMapper JSON 字串再經 GenericJackson2JsonRedisSerializer) vs ApiLimitCodec
+ * 預設不執行，使用 mvn -P benchmark test 執行
+ */
+@Tag("benchmark")
+@DisplayName("ApiLimitCodec JMH Benchmark")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiLimitCodecBenchmarkTest {
+
+    @Test
+    @DisplayName("Run JMH comparison of JSON and binary config encoding")
+    void runBenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+            .include(ApiLimitCodecBenchmarkTest.class.getName() + "\\.(json|binary).*")
+            .build();
+
+        assertThat(new Runner(options).run()).isNotEmpty();
+    }
+
+    @State(Scope.Benchmark)
+    public static class CodecState {
+
+        ObjectMapper objectMapper;
+        GenericJackson2JsonRedisSerializer redisSerializer;
+        ApiLimit limit;
+        byte[] jsonBytes;
+        byte[] binaryBytes;
+
+        @Setup
+        public void setUp() throws Exception {
+            objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+            redisSerializer = new GenericJackson2JsonRedisSerializer();
+            limit = new ApiLimit();
+            limit.setApiKey("customer-7f3a9c2e-prod");
+            limit.setLimitCount(1000);
+            limit.setWindowSeconds(60);
+            limit.setFailureMode(FailureMode.LOCAL);
+            limit.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+            limit.setUpdatedAt(LocalDateTime.of(2024, 6, 7, 8, 9, 10));
+            jsonBytes = redisSerializer.serialize(objectMapper.writeValueAsString(limit));
+            binaryBytes = ApiLimitCodec.encode(limit);
+            System.out.printf("payload bytes: json=%d binary=%d%n", jsonBytes.length, binaryBytes.length);
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonEncode(CodecState state) throws Exception {
+        return state.redisSerializer.serialize(state.objectMapper.writeValueAsString(state.limit));
+    }
+
+    @Benchmark
+    public ApiLimit jsonDecode(CodecState state) throws Exception {
+        Object cached = state.redisSerializer.deserialize(state.jsonBytes);
+        return state.objectMapper.readValue(cached.toString(), ApiLimit.class);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(CodecState state) {
+        return ApiLimitCodec.encode(state.limit);
+    }
+
+    @Benchmark
+    public ApiLimit binaryDecode(CodecState state) {
+        return ApiLimitCodec.decode(state.binaryBytes);
+    }
+}
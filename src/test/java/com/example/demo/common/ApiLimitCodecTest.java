@@ -0,0 +1,86 @@
+package com.example.demo.common;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.FailureMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ApiLimitCodec Unit Tests")
+class ApiLimitCodecTest {
+
+    @Test
+    @DisplayName("Should round-trip all fields")
+    void shouldRoundTripAllFields() {
+        // Given
+        ApiLimit limit = new ApiLimit();
+        limit.setApiKey("客戶-api-key");
+        limit.setLimitCount(1000);
+        limit.setWindowSeconds(3600);
+        limit.setFailureMode(FailureMode.LOCAL);
+        limit.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 678_000_000));
+        limit.setUpdatedAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1_000_000));
+
+        // When
+        byte[] bytes = ApiLimitCodec.encode(limit);
+        ApiLimit decoded = ApiLimitCodec.decode(bytes);
+
+        // Then
+        assertThat(bytes).hasSize(ApiLimitCodec.encodedSize(limit));
+        assertThat(decoded).isEqualTo(limit);
+    }
+
+    @Test
+    @DisplayName("Should keep null optional fields as null")
+    void shouldKeepNullOptionalFieldsAsNull() {
+        // Given
+        ApiLimit limit = new ApiLimit();
+        limit.setApiKey("k");
+        limit.setLimitCount(10);
+        limit.setWindowSeconds(60);
+
+        // When
+        ApiLimit decoded = ApiLimitCodec.decode(ApiLimitCodec.encode(limit));
+
+        // Then
+        assertThat(decoded.getFailureMode()).isNull();
+        assertThat(decoded.getCreatedAt()).isNull();
+        assertThat(decoded.getUpdatedAt()).isNull();
+        assertThat(decoded).isEqualTo(limit);
+    }
+
+    @Test
+    @DisplayName("Should read consecutive records from one buffer")
+    void shouldReadConsecutiveRecordsFromOneBuffer() {
+        // Given
+        ApiLimit first = new ApiLimit();
+        first.setApiKey("first");
+        first.setLimitCount(1);
+        first.setWindowSeconds(2);
+        ApiLimit second = new ApiLimit();
+        second.setApiKey("second");
+        second.setLimitCount(3);
+        second.setWindowSeconds(4);
+        ByteBuffer buffer = ByteBuffer.allocate(ApiLimitCodec.encodedSize(first) + ApiLimitCodec.encodedSize(second));
+        ApiLimitCodec.write(buffer, first);
+        ApiLimitCodec.write(buffer, second);
+        buffer.flip();
+
+        // When & Then
+        assertThat(ApiLimitCodec.read(buffer)).isEqualTo(first);
+        assertThat(ApiLimitCodec.read(buffer)).isEqualTo(second);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject unknown format byte")
+    void shouldRejectUnknownFormatByte() {
+        assertThatThrownBy(() -> ApiLimitCodec.decode(new byte[] {9, 0, 0}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LimitCursor Unit Tests")
+class LimitCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip position including separator in api key")
+    void shouldRoundTripPosition() {
+        // Given
+        LimitCursor cursor = new LimitCursor(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000), "team|key/1");
+
+        // When
+        String token = cursor.encode();
+
+        // Then
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(LimitCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Should reject tokens it did not produce")
+    void shouldRejectForeignTokens() {
+        assertThatThrownBy(() -> LimitCursor.decode("%%%"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> LimitCursor.decode("bm90LWEtY3Vyc29y"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
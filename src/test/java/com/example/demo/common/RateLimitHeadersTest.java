@@ -0,0 +1,70 @@
+package com.example.demo.common;
+
+import com.example.demo.model.dto.CheckResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitHeaders Unit Tests")
+class RateLimitHeadersTest {
+
+    @Test
+    @DisplayName("Should clamp remaining and report reset for over-limit decision")
+    void shouldClampRemainingAndReportReset() {
+        // Given
+        CheckResponse blocked = new CheckResponse(false, "Rate limit exceeded", 12, 10, 42L);
+
+        // When
+        HttpHeaders headers = RateLimitHeaders.of(blocked);
+
+        // Then
+        assertThat(headers.getFirst(RateLimitHeaders.LIMIT)).isEqualTo("10");
+        assertThat(headers.getFirst(RateLimitHeaders.REMAINING)).isEqualTo("0");
+        assertThat(headers.getFirst(RateLimitHeaders.RESET)).isEqualTo("42");
+        assertThat(headers.getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("42");
+    }
+
+    @Test
+    @DisplayName("Should never tell a rejected client to retry after 0 seconds")
+    void shouldRetryAfterAtLeastOneSecond() {
+        // Given
+        CheckResponse blocked = new CheckResponse(false, "Rate limit exceeded (local fallback)", 10, 10, 0L);
+
+        // When
+        HttpHeaders headers = RateLimitHeaders.of(blocked);
+
+        // Then
+        assertThat(headers.getFirst(RateLimitHeaders.RESET)).isEqualTo("0");
+        assertThat(headers.getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("Should omit reset and Retry-After when the reset time is unknown")
+    void shouldOmitResetWhenTtlUnknown() {
+        // Given
+        CheckResponse blocked = new CheckResponse(false, "Rate limit exceeded", 12, 10, -1L);
+
+        // When
+        HttpHeaders headers = RateLimitHeaders.of(blocked);
+
+        // Then
+        assertThat(headers.getFirst(RateLimitHeaders.REMAINING)).isEqualTo("0");
+        assertThat(headers.containsKey(RateLimitHeaders.RESET)).isFalse();
+        assertThat(headers.containsKey(HttpHeaders.RETRY_AFTER)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should omit headers when no limit applies")
+    void shouldOmitHeadersWithoutLimit() {
+        // Given
+        CheckResponse unconfigured = new CheckResponse(true, "No rate limit configured for this API key");
+
+        // When
+        HttpHeaders headers = RateLimitHeaders.of(unconfigured);
+
+        // Then
+        assertThat(headers.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.config;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.dto.BulkImportResponse;
+import com.example.demo.model.dto.CheckResponse;
+import com.example.demo.mq.RateLimitEventMessage;
+import com.example.demo.mq.RateLimitEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AppRuntimeHints Tests")
+class AppRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new AppRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Should register JSON binding hints for entities, DTOs and MQ messages")
+    void shouldRegisterBindingHints() {
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection().onType(ApiLimit.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(CheckResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BulkImportResponse.RowError.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(RateLimitEventMessage.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(RateLimitEventType.Event.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(AppRuntimeHints.CONFIG_DELTA_TYPE)))
+            .accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Should register reflection hints for Lua script beans")
+    void shouldRegisterScriptHints() {
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection().onType(DefaultRedisScript.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Long.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.config;
+
+import com.example.demo.filter.RateLimitFilter;
+import com.example.demo.filter.RateLimitInterceptor;
+import com.example.demo.filter.RateLimitKeyExtractor;
+import com.example.demo.mq.MessageProducer;
+import com.example.demo.repository.ApiLimitRepository;
+import com.example.demo.service.ConfigSnapshotService;
+import com.example.demo.service.RateLimitCheckService;
+import com.example.demo.service.RateLimitService;
+import com.example.demo.service.RedisHealthMonitor;
+import com.example.demo.service.RedisService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.context.annotation.ImportCandidates;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("EmbeddedRateLimitAutoConfiguration Tests")
+class EmbeddedRateLimitAutoConfigurationTest {
+
+    // 宿主應用只有 Redis、DataSource (JdbcTemplate) 與 Boot 預設執行緒池，不掃描 com.example.demo、沒有 JPA 與 RocketMQ
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(RedisAutoConfiguration.class, RedisReactiveAutoConfiguration.class,
+            TaskExecutionAutoConfiguration.class, EmbeddedRateLimitAutoConfiguration.class))
+        .withUserConfiguration(HostApplication.class);
+
+    @Test
+    @DisplayName("Should be registered as an auto-configuration")
+    void shouldBeRegisteredAsAutoConfiguration() {
+        // When
+        ImportCandidates candidates = ImportCandidates.load(AutoConfiguration.class, getClass().getClassLoader());
+
+        // Then
+        assertThat(candidates.getCandidates()).contains(EmbeddedRateLimitAutoConfiguration.class.getName());
+    }
+
+    @Test
+    @DisplayName("Should wire only the check path in a minimal host application")
+    void shouldWireCheckPathInMinimalHost() {
+        contextRunner
+            .withPropertyValues("app.rate-limit.embedded.enabled=true", "app.rate-limit.embedded.url-patterns=/api/*")
+            .run(context -> {
+                assertThat(context).hasNotFailed();
+                assertThat(context).hasSingleBean(RateLimitCheckService.class);
+                assertThat(context).doesNotHaveBean(RateLimitService.class);
+                assertThat(context).hasSingleBean(RateLimitInterceptor.class);
+                assertThat(context).hasSingleBean(FilterRegistrationBean.class);
+                assertThat(context.getBean(FilterRegistrationBean.class).getFilter()).isInstanceOf(RateLimitFilter.class);
+                assertThat(context.getBean(FilterRegistrationBean.class).getUrlPatterns()).containsExactly("/api/*");
+                assertThat(context).doesNotHaveBean(MessageProducer.class);
+                assertThat(context).doesNotHaveBean(ApiLimitRepository.class);
+                assertThat(context).doesNotHaveBean(ConfigSnapshotService.class);
+            });
+    }
+
+    @Test
+    @DisplayName("Should enable scheduling so the Redis health probe recovers without host @EnableScheduling")
+    void shouldRecoverRedisHealthWithoutHostScheduling() {
+        contextRunner
+            .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+            .withUserConfiguration(ReachableRedis.class)
+            .withPropertyValues("app.rate-limit.embedded.enabled=true",
+                "app.rate-limit.fallback.node-count=1",
+                "app.rate-limit.fallback.recovery-threshold=1",
+                "app.rate-limit.fallback.health-check-interval-ms=10")
+            .run(context -> {
+                assertThat(context).hasNotFailed();
+                assertThat(context).hasBean(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME);
+                assertThat(context).hasSingleBean(ThreadPoolTaskScheduler.class);
+                RedisHealthMonitor monitor = context.getBean(RedisHealthMonitor.class);
+
+                // When
+                monitor.recordFailure();
+
+                // Then
+                long deadline = System.currentTimeMillis() + 5000;
+                while (!monitor.isHealthy() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertThat(monitor.isHealthy()).isTrue();
+            });
+    }
+
+    @Test
+    @DisplayName("Should register interceptor instead of filter in INTERCEPTOR mode")
+    void shouldRegisterInterceptorInInterceptorMode() {
+        contextRunner
+            .withPropertyValues("app.rate-limit.embedded.enabled=true", "app.rate-limit.embedded.mode=INTERCEPTOR")
+            .run(context -> {
+                assertThat(context).hasNotFailed();
+                assertThat(context).doesNotHaveBean(FilterRegistrationBean.class);
+                assertThat(context).hasSingleBean(WebMvcConfigurer.class);
+            });
+    }
+
+    @Test
+    @DisplayName("Should prefer the host's key extractor and rate limit check service")
+    void shouldPreferHostBeans() {
+        contextRunner
+            .withPropertyValues("app.rate-limit.embedded.enabled=true")
+            .withUserConfiguration(HostOverrides.class)
+            .run(context -> {
+                assertThat(context).hasNotFailed();
+                assertThat(context.getBean(RateLimitKeyExtractor.class)).isSameAs(HostOverrides.EXTRACTOR);
+                assertThat(context).hasSingleBean(RateLimitCheckService.class);
+                assertThat(context).doesNotHaveBean(RedisService.class);
+            });
+    }
+
+    @Test
+    @DisplayName("Should not contribute any bean when disabled")
+    void shouldBackOffWhenDisabled() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(RateLimitCheckService.class);
+            assertThat(context).doesNotHaveBean(RateLimitInterceptor.class);
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class HostApplication {
+
+        @Bean
+        JdbcTemplate jdbcTemplate() {
+            return mock(JdbcTemplate.class);
+        }
+    }
+
+    // 探測以 GET 判斷 Redis 可用，連線以 deep stub 模擬成功回應
+    @Configuration(proxyBeanMethods = false)
+    static class ReachableRedis {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory() {
+            LettuceConnectionFactory connectionFactory = mock(LettuceConnectionFactory.class);
+            given(connectionFactory.getConnection()).willReturn(mock(RedisConnection.class, RETURNS_DEEP_STUBS));
+            return connectionFactory;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class HostOverrides {
+
+        static final RateLimitKeyExtractor EXTRACTOR = RateLimitKeyExtractor.remoteAddress();
+
+        @Bean
+        RateLimitKeyExtractor hostKeyExtractor() {
+            return EXTRACTOR;
+        }
+
+        @Bean
+        RateLimitCheckService hostRateLimitCheckService() {
+            return mock(RateLimitCheckService.class);
+        }
+    }
+}
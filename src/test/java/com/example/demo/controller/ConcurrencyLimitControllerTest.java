@@ -0,0 +1,106 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.ConcurrencyLimit;
+import com.example.demo.model.dto.CreateConcurrencyLimitRequest;
+import com.example.demo.model.dto.LeaseResponse;
+import com.example.demo.service.ConcurrencyLimitService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ConcurrencyLimitController.class)
+@DisplayName("ConcurrencyLimitController Unit Tests")
+class ConcurrencyLimitControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ConcurrencyLimitService concurrencyLimitService;
+
+    @Test
+    @DisplayName("Should create concurrency limit")
+    void shouldCreateConcurrencyLimit() throws Exception {
+        // Given
+        CreateConcurrencyLimitRequest request = new CreateConcurrencyLimitRequest("slow-backend", 5, 30);
+        given(concurrencyLimitService.createLimit(any())).willReturn(new ConcurrencyLimit("slow-backend", 5, 30));
+
+        // When & Then
+        mockMvc.perform(post("/concurrency-limits")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.maxConcurrent").value(5))
+                .andExpect(jsonPath("$.leaseSeconds").value(30));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid concurrency limit")
+    void shouldRejectInvalidConcurrencyLimit() throws Exception {
+        // Given
+        CreateConcurrencyLimitRequest request = new CreateConcurrencyLimitRequest("", 0, 30);
+
+        // When & Then
+        mockMvc.perform(post("/concurrency-limits")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        then(concurrencyLimitService).should(never()).createLimit(any());
+    }
+
+    @Test
+    @DisplayName("Should return lease when acquired")
+    void shouldReturnLeaseWhenAcquired() throws Exception {
+        // Given
+        given(concurrencyLimitService.acquire("slow-backend"))
+            .willReturn(new LeaseResponse(true, "Lease acquired", "lease-1", 1, 5, 1_700_000_030_000L));
+
+        // When & Then
+        mockMvc.perform(post("/concurrency/acquire").param("apiKey", "slow-backend"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leaseId").value("lease-1"))
+                .andExpect(jsonPath("$.inFlight").value(1));
+    }
+
+    @Test
+    @DisplayName("Should answer 429 when no permit is free")
+    void shouldAnswerTooManyRequestsWhenNoPermitFree() throws Exception {
+        // Given
+        given(concurrencyLimitService.acquire("slow-backend"))
+            .willReturn(new LeaseResponse(false, "Concurrency limit exceeded", null, 5, 5, null));
+
+        // When & Then
+        mockMvc.perform(post("/concurrency/acquire").param("apiKey", "slow-backend"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.acquired").value(false));
+    }
+
+    @Test
+    @DisplayName("Should map release result to 204 or 404")
+    void shouldMapReleaseResult() throws Exception {
+        // Given
+        given(concurrencyLimitService.release("slow-backend", "lease-1")).willReturn(true);
+        given(concurrencyLimitService.release("slow-backend", "gone")).willReturn(false);
+
+        // When & Then
+        mockMvc.perform(post("/concurrency/release").param("apiKey", "slow-backend").param("leaseId", "lease-1"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/concurrency/release").param("apiKey", "slow-backend").param("leaseId", "gone"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.ApiLimit;
+import com.example.demo.model.UsageGranularity;
+import com.example.demo.model.dto.BulkImportResponse;
 import com.example.demo.model.dto.CheckResponse;
 import com.example.demo.model.dto.CreateLimitRequest;
+import com.example.demo.model.dto.LimitsCursorResponse;
 import com.example.demo.model.dto.LimitsResponse;
+import com.example.demo.model.dto.UsageHistoryResponse;
 import com.example.demo.model.dto.UsageResponse;
+import com.example.demo.service.BulkLimitImportService;
+import com.example.demo.service.LimitExportService;
 import com.example.demo.service.RateLimitService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,14 +23,25 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,6 +56,12 @@ class RateLimitControllerTest {
     @MockBean
     private RateLimitService rateLimitService;
 
+    @MockBean
+    private BulkLimitImportService bulkLimitImportService;
+
+    @MockBean
+    private LimitExportService limitExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -88,6 +111,57 @@ class RateLimitControllerTest {
                 .andExpect(jsonPath("$.windowSeconds").value(60));
     }
 
+    @Test
+    @DisplayName("Should import NDJSON limits and return per-row report")
+    void shouldImportNdjsonLimits() throws Exception {
+        // Given
+        BulkImportResponse report = new BulkImportResponse();
+        report.setReceived(2);
+        report.setImported(1);
+        report.setFailed(1);
+        report.getErrors().add(new BulkImportResponse.RowError(2, null, "Malformed JSON"));
+        given(bulkLimitImportService.importNdjson(any(InputStream.class))).willReturn(report);
+
+        // When & Then
+        mockMvc.perform(post("/limits/bulk")
+                .contentType("application/x-ndjson")
+                .content("{\"apiKey\":\"k\",\"limit\":1,\"windowSeconds\":1}\n{bad\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    @DisplayName("Should stream limits as CSV")
+    void shouldStreamLimitsAsCsv() throws Exception {
+        // Given
+        willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("api_key\nk\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).given(limitExportService).export(eq(LimitExportService.Format.CSV), any(OutputStream.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/limits/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"limits.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("api_key\nk\n"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown export format")
+    void shouldRejectUnknownExportFormat() throws Exception {
+        mockMvc.perform(get("/limits/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should return validation error for invalid request")
     void shouldReturnValidationErrorForInvalidRequest() throws Exception {
@@ -133,7 +207,7 @@ class RateLimitControllerTest {
     @DisplayName("Should allow access when within rate limit")
     void shouldAllowAccessWhenWithinRateLimit() throws Exception {
         // Given
-        given(rateLimitService.checkApiAccess("test-api-key")).willReturn(allowedResponse);
+        given(rateLimitService.checkApiAccess("test-api-key", 1)).willReturn(allowedResponse);
 
         // When & Then
         mockMvc.perform(get("/check")
@@ -144,14 +218,18 @@ class RateLimitControllerTest {
                 .andExpect(jsonPath("$.message").value("Request allowed"))
                 .andExpect(jsonPath("$.currentCount").value(5))
                 .andExpect(jsonPath("$.limitCount").value(10))
-                .andExpect(jsonPath("$.remainingTtl").value(55));
+                .andExpect(jsonPath("$.remainingTtl").value(55))
+                .andExpect(header().string("RateLimit-Limit", "10"))
+                .andExpect(header().string("RateLimit-Remaining", "5"))
+                .andExpect(header().string("RateLimit-Reset", "55"))
+                .andExpect(header().doesNotExist("Retry-After"));
     }
 
     @Test
     @DisplayName("Should block access when rate limit exceeded")
     void shouldBlockAccessWhenRateLimitExceeded() throws Exception {
         // Given
-        given(rateLimitService.checkApiAccess("test-api-key")).willReturn(blockedResponse);
+        given(rateLimitService.checkApiAccess("test-api-key", 1)).willReturn(blockedResponse);
 
         // When & Then
         mockMvc.perform(get("/check")
@@ -162,14 +240,70 @@ class RateLimitControllerTest {
                 .andExpect(jsonPath("$.message").value("Rate limit exceeded"))
                 .andExpect(jsonPath("$.currentCount").value(11))
                 .andExpect(jsonPath("$.limitCount").value(10))
-                .andExpect(jsonPath("$.remainingTtl").value(45));
+                .andExpect(jsonPath("$.remainingTtl").value(45))
+                .andExpect(header().string("RateLimit-Remaining", "0"))
+                .andExpect(header().string("Retry-After", "45"));
+    }
+
+    @Test
+    @DisplayName("Should pass cost to rate limit check")
+    void shouldPassCostToRateLimitCheck() throws Exception {
+        // Given
+        given(rateLimitService.checkApiAccess("test-api-key", 50)).willReturn(allowedResponse);
+
+        // When & Then
+        mockMvc.perform(get("/check")
+                .param("apiKey", "test-api-key")
+                .param("cost", "50"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive cost")
+    void shouldRejectNonPositiveCost() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/check")
+                .param("apiKey", "test-api-key")
+                .param("cost", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should answer allowed compact check with 204 and headers only")
+    void shouldAnswerAllowedCompactCheckWithNoContent() throws Exception {
+        // Given
+        given(rateLimitService.checkApiAccess("test-api-key", 1)).willReturn(allowedResponse);
+
+        // When & Then
+        mockMvc.perform(get("/check")
+                .param("apiKey", "test-api-key")
+                .param("compact", "true"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("RateLimit-Limit", "10"))
+                .andExpect(header().string("RateLimit-Remaining", "5"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should answer blocked compact check with 429 and Retry-After only")
+    void shouldAnswerBlockedCompactCheckWithHeadersOnly() throws Exception {
+        // Given
+        given(rateLimitService.checkApiAccess("test-api-key", 1)).willReturn(blockedResponse);
+
+        // When & Then
+        mockMvc.perform(get("/check")
+                .param("apiKey", "test-api-key")
+                .param("compact", "true"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "45"))
+                .andExpect(content().string(""));
     }
 
     @Test
     @DisplayName("Should handle service exception during check access")
     void shouldHandleServiceExceptionDuringCheckAccess() throws Exception {
         // Given
-        given(rateLimitService.checkApiAccess("test-api-key"))
+        given(rateLimitService.checkApiAccess("test-api-key", 1))
             .willThrow(new RuntimeException("Redis connection error"));
 
         // When & Then
@@ -181,6 +315,78 @@ class RateLimitControllerTest {
                 .andExpect(jsonPath("$.message").value("Rate limiting service error - request allowed"));
     }
 
+    @Test
+    @DisplayName("Should complete async check from service future")
+    void shouldCompleteAsyncCheckFromServiceFuture() throws Exception {
+        // Given
+        CompletableFuture<CheckResponse> future = new CompletableFuture<>();
+        given(rateLimitService.checkApiAccessAsync("test-api-key", 1)).willReturn(future);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/check/async")
+                .param("apiKey", "test-api-key"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        future.complete(blockedResponse);
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.allowed").value(false))
+                .andExpect(jsonPath("$.currentCount").value(11));
+    }
+
+    @Test
+    @DisplayName("Should fail open when async check completes exceptionally")
+    void shouldFailOpenWhenAsyncCheckFails() throws Exception {
+        // Given
+        given(rateLimitService.checkApiAccessAsync("test-api-key", 1))
+            .willReturn(CompletableFuture.failedFuture(new RuntimeException("Redis connection error")));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/check/async")
+                .param("apiKey", "test-api-key"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.allowed").value(true))
+                .andExpect(jsonPath("$.message").value("Rate limiting service error - request allowed"));
+    }
+
+    @Test
+    @DisplayName("Should return batch check results in request order")
+    void shouldReturnBatchCheckResultsInOrder() throws Exception {
+        // Given
+        given(rateLimitService.checkApiAccessBatch(List.of("a", "b")))
+            .willReturn(CompletableFuture.completedFuture(List.of(allowedResponse, blockedResponse)));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/check/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"a\",\"b\"]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].allowed").value(true))
+                .andExpect(jsonPath("$[1].allowed").value(false));
+    }
+
+    @Test
+    @DisplayName("Should reject empty batch check")
+    void shouldRejectEmptyBatchCheck() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/check/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should get usage information successfully")
     void shouldGetUsageInformationSuccessfully() throws Exception {
@@ -214,6 +420,40 @@ class RateLimitControllerTest {
                 .andExpect(content().string("Failed to get usage information: API key not found"));
     }
 
+    @Test
+    @DisplayName("Should get usage history for the requested range")
+    void shouldGetUsageHistory() throws Exception {
+        // Given
+        Instant from = Instant.parse("2026-01-01T10:00:00Z");
+        Instant to = Instant.parse("2026-01-01T12:00:00Z");
+        UsageHistoryResponse history = new UsageHistoryResponse("test-api-key", UsageGranularity.HOUR, from, to,
+            List.of(new UsageHistoryResponse.UsagePoint(from, 90, 10),
+                new UsageHistoryResponse.UsagePoint(from.plusSeconds(3600), 50, 0)));
+        given(rateLimitService.getUsageHistory("test-api-key", UsageGranularity.HOUR, from, to)).willReturn(history);
+
+        // When & Then
+        mockMvc.perform(get("/usage/history")
+                .param("apiKey", "test-api-key")
+                .param("granularity", "hour")
+                .param("from", "2026-01-01T10:00:00Z")
+                .param("to", "2026-01-01T12:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("HOUR"))
+                .andExpect(jsonPath("$.points.length()").value(2))
+                .andExpect(jsonPath("$.points[0].allowed").value(90))
+                .andExpect(jsonPath("$.points[0].blocked").value(10));
+    }
+
+    @Test
+    @DisplayName("Should reject usage history with unknown granularity")
+    void shouldRejectUsageHistoryWithUnknownGranularity() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/usage/history")
+                .param("apiKey", "test-api-key")
+                .param("granularity", "week"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should remove limit successfully")
     void shouldRemoveLimitSuccessfully() throws Exception {
@@ -269,6 +509,53 @@ class RateLimitControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @DisplayName("Should start keyset pagination with mode=cursor")
+    void shouldStartKeysetPaginationWithCursorMode() throws Exception {
+        // Given
+        LimitsCursorResponse cursorResponse = new LimitsCursorResponse(limitsResponse.getLimits(), 10, "next-token", null);
+        given(rateLimitService.getLimitsPage(null, 10, false)).willReturn(cursorResponse);
+
+        // When & Then
+        mockMvc.perform(get("/limits")
+                .param("mode", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limits[0].apiKey").value("api-key-1"))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+        then(rateLimitService).should(never()).getAllLimits(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should pass cursor and includeTotal to keyset pagination")
+    void shouldPassCursorToKeysetPagination() throws Exception {
+        // Given
+        LimitsCursorResponse cursorResponse = new LimitsCursorResponse(List.of(), 5, null, 42L);
+        given(rateLimitService.getLimitsPage("abc", 5, true)).willReturn(cursorResponse);
+
+        // When & Then
+        mockMvc.perform(get("/limits")
+                .param("cursor", "abc")
+                .param("size", "5")
+                .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(42));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void shouldRejectMalformedCursor() throws Exception {
+        // Given
+        given(rateLimitService.getLimitsPage("bad", 10, false))
+            .willThrow(new IllegalArgumentException("Invalid cursor"));
+
+        // When & Then
+        mockMvc.perform(get("/limits")
+                .param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid pagination request: Invalid cursor"));
+    }
+
     @Test
     @DisplayName("Should reject page size exceeding limit")
     void shouldRejectPageSizeExceedingLimit() throws Exception {
@@ -316,7 +603,7 @@ class RateLimitControllerTest {
     @DisplayName("Should handle empty apiKey parameter")
     void shouldHandleEmptyApiKeyParameter() throws Exception {
         // Given
-        given(rateLimitService.checkApiAccess("")).willReturn(allowedResponse);
+        given(rateLimitService.checkApiAccess("", 1)).willReturn(allowedResponse);
 
         // When & Then
         mockMvc.perform(get("/check")
@@ -329,7 +616,7 @@ class RateLimitControllerTest {
     void shouldHandleSpecialCharactersInApiKey() throws Exception {
         // Given
         String specialApiKey = "test-key-123!@#$%^&*()";
-        given(rateLimitService.checkApiAccess(specialApiKey)).willReturn(allowedResponse);
+        given(rateLimitService.checkApiAccess(specialApiKey, 1)).willReturn(allowedResponse);
 
         // When & Then
         mockMvc.perform(get("/check")
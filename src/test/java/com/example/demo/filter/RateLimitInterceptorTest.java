@@ -0,0 +1,103 @@
+package com.example.demo.filter;
+
+import com.example.demo.model.dto.CheckResponse;
+import com.example.demo.service.RateLimitCheckService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitInterceptor Unit Tests")
+class RateLimitInterceptorTest {
+
+    @Mock
+    private RateLimitCheckService rateLimitCheckService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private RateLimitInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new RateLimitInterceptor(rateLimitCheckService, RateLimitKeyExtractor.firstOf(
+            RateLimitKeyExtractor.header("X-API-Key"), RateLimitKeyExtractor.queryParameter("apiKey")));
+        request = new MockHttpServletRequest("GET", "/orders");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("Should pass request with budget headers when allowed")
+    void shouldPassAllowedRequestWithHeaders() {
+        // Given
+        request.addHeader("X-API-Key", "team-a");
+        given(rateLimitCheckService.checkApiAccess("team-a"))
+            .willReturn(new CheckResponse(true, "Request allowed", 3, 10, 40L));
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, null);
+
+        // Then
+        assertThat(proceed).isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("7");
+        assertThat(response.getHeader("Retry-After")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject with 429 and Retry-After when over limit")
+    void shouldRejectWhenOverLimit() {
+        // Given
+        request.setParameter("apiKey", "team-b");
+        given(rateLimitCheckService.checkApiAccess("team-b"))
+            .willReturn(new CheckResponse(false, "Rate limit exceeded", 11, 10, 25L));
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, null);
+
+        // Then
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("25");
+    }
+
+    @Test
+    @DisplayName("Should skip check when no key can be extracted")
+    void shouldSkipCheckWithoutKey() {
+        // When
+        boolean proceed = interceptor.preHandle(request, response, null);
+
+        // Then
+        assertThat(proceed).isTrue();
+        then(rateLimitCheckService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("Should stop filter chain for rejected request")
+    void shouldStopFilterChainForRejectedRequest() throws Exception {
+        // Given
+        request.addHeader("X-API-Key", "team-b");
+        given(rateLimitCheckService.checkApiAccess("team-b"))
+            .willReturn(new CheckResponse(false, "Rate limit exceeded", 11, 10, 25L));
+
+        // When
+        new RateLimitFilter(interceptor).doFilter(request, response, filterChain);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(429);
+        then(filterChain).should(never()).doFilter(request, response);
+    }
+}
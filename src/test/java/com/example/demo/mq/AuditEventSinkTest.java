@@ -0,0 +1,172 @@
+package com.example.demo.mq;
+
+import com.example.demo.repository.RateLimitEventJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditEventSink Unit Tests")
+class AuditEventSinkTest {
+
+    @Mock
+    private RateLimitEventJdbcRepository eventRepository;
+
+    private AuditEventSink auditEventSink;
+
+    @BeforeEach
+    void setUp() {
+        auditEventSink = new AuditEventSink(eventRepository, 4, 3, 0, 2);
+    }
+
+    @Test
+    @DisplayName("Should buffer events until batch size is reached")
+    void shouldBufferUntilBatchSizeReached() {
+        // When
+        auditEventSink.append(event("key-1"));
+        auditEventSink.append(event("key-2"));
+
+        // Then
+        then(eventRepository).should(never()).batchInsert(anyList());
+        assertThat(auditEventSink.getBufferedCount()).isEqualTo(2);
+
+        // When
+        auditEventSink.append(event("key-3"));
+
+        // Then
+        then(eventRepository).should(times(1)).batchInsert(anyList());
+        assertThat(auditEventSink.getBufferedCount()).isZero();
+        assertThat(auditEventSink.getWrittenCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should write partial batch on scheduled flush")
+    void shouldWritePartialBatchOnScheduledFlush() {
+        // Given
+        auditEventSink.append(event("key-1"));
+
+        // When
+        auditEventSink.flush();
+
+        // Then
+        then(eventRepository).should().batchInsert(anyList());
+        assertThat(auditEventSink.getWrittenCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should keep failed batch and retry it on next flush")
+    void shouldKeepFailedBatchAndRetry() {
+        // Given
+        willThrow(new RuntimeException("MySQL unavailable")).willDoNothing()
+            .given(eventRepository).batchInsert(anyList());
+        auditEventSink.append(event("key-1"));
+
+        // When
+        auditEventSink.flush();
+
+        // Then
+        assertThat(auditEventSink.getBufferedCount()).isEqualTo(1);
+
+        // When
+        auditEventSink.flush();
+
+        // Then
+        assertThat(auditEventSink.getBufferedCount()).isZero();
+        assertThat(auditEventSink.getWrittenCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject event when buffer is full and database is down")
+    void shouldRejectEventWhenBufferFull() {
+        // Given
+        willThrow(new RuntimeException("MySQL unavailable")).given(eventRepository).batchInsert(anyList());
+        // 3 筆寫入失敗後保留重試，另外 4 筆填滿緩衝
+        for (int i = 0; i < 7; i++) {
+            auditEventSink.append(event("key-" + i));
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> auditEventSink.append(event("key-7")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Audit buffer full");
+    }
+
+    @Test
+    @DisplayName("Should write buffered events on shutdown")
+    void shouldWriteBufferedEventsOnShutdown() {
+        // Given
+        willDoNothing().given(eventRepository).batchInsert(anyList());
+        auditEventSink.append(event("key-1"));
+        auditEventSink.append(event("key-2"));
+
+        // When
+        auditEventSink.shutdown();
+
+        // Then
+        then(eventRepository).should().batchInsert(anyList());
+        assertThat(auditEventSink.getBufferedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should write rows one by one and drop rejected rows after repeated batch failures")
+    void shouldDropPoisonRowsAfterRepeatedBatchFailures() {
+        // Given
+        willThrow(new DataIntegrityViolationException("Data too long for column 'api_key'"))
+            .given(eventRepository).batchInsert(argThat(batch -> batch.stream()
+                .anyMatch(event -> event.getApiKey().equals("bad-key"))));
+        RateLimitEventMessage valid = event("key-1");
+        auditEventSink.append(valid);
+        auditEventSink.append(event("bad-key"));
+
+        // When
+        auditEventSink.flush();
+        auditEventSink.flush();
+
+        // Then
+        assertThat(auditEventSink.getBufferedCount()).isZero();
+        assertThat(auditEventSink.getWrittenCount()).isEqualTo(1L);
+        assertThat(auditEventSink.getDroppedCount()).isEqualTo(1L);
+        then(eventRepository).should().batchInsert(List.of(valid));
+    }
+
+    @Test
+    @DisplayName("Should keep remaining rows when database goes down during row-by-row retry")
+    void shouldKeepRemainingRowsOnTransientFailureDuringRowRetry() {
+        // Given
+        willThrow(new RuntimeException("MySQL unavailable"))
+            .given(eventRepository).batchInsert(anyList());
+        RateLimitEventMessage first = event("key-1");
+        auditEventSink.append(first);
+        auditEventSink.append(event("key-2"));
+
+        // When
+        auditEventSink.flush();
+        auditEventSink.flush();
+
+        // Then
+        assertThat(auditEventSink.getBufferedCount()).isEqualTo(2);
+        assertThat(auditEventSink.getDroppedCount()).isZero();
+        then(eventRepository).should(atLeastOnce()).batchInsert(List.of(first));
+    }
+
+    private RateLimitEventMessage event(String apiKey) {
+        return RateLimitEventMessage.blockedSummary(apiKey, 5, 15, 10, 30L, 1000L, 2000L);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.mq;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BlockedEventAggregator Unit Tests")
+class BlockedEventAggregatorTest {
+
+    @Mock
+    private MessageProducer messageProducer;
+
+    @Test
+    @DisplayName("Should fold rejections of one key into a single summary event")
+    void shouldFoldRejectionsIntoSingleSummary() {
+        // Given
+        BlockedEventAggregator aggregator = new BlockedEventAggregator(messageProducer, 100, 60000);
+
+        // When
+        aggregator.record("test-api-key", 11, 10, 30L);
+        aggregator.record("test-api-key", 12, 10, 29L);
+        aggregator.record("test-api-key", 13, 10, 29L);
+        aggregator.shutdown();
+
+        // Then
+        ArgumentCaptor<RateLimitEventMessage> captor = ArgumentCaptor.forClass(RateLimitEventMessage.class);
+        then(messageProducer).should(times(1)).sendRateLimitEvent(captor.capture());
+        RateLimitEventMessage event = captor.getValue();
+        assertThat(event.getEventType()).isEqualTo(RateLimitEventType.Event.BLOCKED);
+        assertThat(event.getApiKey()).isEqualTo("test-api-key");
+        assertThat(event.getRejectedCount()).isEqualTo(3);
+        assertThat(event.getPeakCount()).isEqualTo(13);
+        assertThat(event.getLimitCount()).isEqualTo(10);
+        assertThat(event.getFirstSeen()).isNotNull();
+        assertThat(event.getLastSeen()).isAfterOrEqualTo(event.getFirstSeen());
+        assertThat(aggregator.getPendingKeyCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should wait for a running scheduled flush and then flush everything on shutdown")
+    void shouldWaitForRunningFlushOnShutdown() throws Exception {
+        // Given
+        BlockedEventAggregator aggregator = new BlockedEventAggregator(messageProducer, 100, 200);
+        aggregator.record("expired-key", 11, 10, 30L);
+        Thread.sleep(250);
+        aggregator.record("fresh-key", 11, 10, 30L);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).given(messageProducer).sendRateLimitEvent(argThat(event -> event.getApiKey().equals("expired-key")));
+        Thread scheduled = new Thread(aggregator::flushExpired);
+        scheduled.start();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        Thread shuttingDown = new Thread(aggregator::shutdown);
+        shuttingDown.start();
+        shuttingDown.join(100);
+        boolean finishedBeforeFlush = !shuttingDown.isAlive();
+        release.countDown();
+        scheduled.join(5000);
+        shuttingDown.join(5000);
+
+        // Then
+        assertThat(finishedBeforeFlush).isFalse();
+        then(messageProducer).should().sendRateLimitEvent(argThat(event -> event.getApiKey().equals("fresh-key")));
+        assertThat(aggregator.getPendingKeyCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep summary pending until its window ends")
+    void shouldKeepSummaryPendingUntilWindowEnds() {
+        // Given
+        BlockedEventAggregator aggregator = new BlockedEventAggregator(messageProducer, 100, 60000);
+        aggregator.record("test-api-key", 11, 10, 30L);
+
+        // When
+        aggregator.flushExpired();
+
+        // Then
+        then(messageProducer).should(never()).sendRateLimitEvent(any());
+        assertThat(aggregator.getPendingKeyCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should flush summaries whose window has ended")
+    void shouldFlushSummariesWhoseWindowHasEnded() throws Exception {
+        // Given
+        BlockedEventAggregator aggregator = new BlockedEventAggregator(messageProducer, 100, 10);
+        aggregator.record("test-api-key", 11, 10, 30L);
+        Thread.sleep(20);
+
+        // When
+        aggregator.flushExpired();
+
+        // Then
+        then(messageProducer).should(times(1)).sendRateLimitEvent(any());
+        assertThat(aggregator.getPendingKeyCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop new keys past the threshold and flush all on the next scheduled run")
+    void shouldDropOverflowAndFlushAllOnSchedule() {
+        // Given
+        BlockedEventAggregator aggregator = new BlockedEventAggregator(messageProducer, 2, 60000);
+
+        // When
+        for (String apiKey : List.of("key-1", "key-2", "key-3")) {
+            aggregator.record(apiKey, 11, 10, 30L);
+        }
+
+        // Then
+        then(messageProducer).should(never()).sendRateLimitEvent(any());
+        assertThat(aggregator.getPendingKeyCount()).isEqualTo(2);
+        assertThat(aggregator.getOverflowDropCount()).isEqualTo(1);
+
+        // When
+        aggregator.flushExpired();
+
+        // Then
+        then(messageProducer).should(times(2)).sendRateLimitEvent(any());
+        assertThat(aggregator.getPendingKeyCount()).isZero();
+    }
+}
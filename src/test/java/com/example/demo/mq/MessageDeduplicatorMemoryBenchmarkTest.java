@@ -0,0 +1,112 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.RedisConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 去重儲存記憶體基準測試：每訊息一個 String Key vs 時間分桶 SET
+ * 需 Docker，預設不執行，使用 mvn -P benchmark test 執行
+ */
+@Tag("benchmark")
+@DisplayName("MessageDeduplicator Redis Memory Benchmark")
+class MessageDeduplicatorMemoryBenchmarkTest {
+
+    private static final int MESSAGE_COUNT = 100_000;
+    private static final int BATCH_SIZE = 32;
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7")).withExposedPorts(6379);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Test
+    @DisplayName("Bucketed sets should use much less memory than one key per message")
+    void bucketedSetsShouldUseLessMemoryThanKeyPerMessage() {
+        List<String> msgIds = new ArrayList<>(MESSAGE_COUNT);
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            msgIds.add(UUID.randomUUID().toString().replace("-", "").toUpperCase());
+        }
+
+        // 舊做法：mq:dedup:{msgId} String + 1 小時 TTL
+        flushAll();
+        long baseline = usedMemory();
+        for (int from = 0; from < MESSAGE_COUNT; from += 1000) {
+            List<String> chunk = msgIds.subList(from, Math.min(from + 1000, MESSAGE_COUNT));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String msgId : chunk) {
+                    connection.stringCommands().set(
+                        ("mq:dedup:" + msgId).getBytes(StandardCharsets.UTF_8),
+                        "1".getBytes(StandardCharsets.UTF_8),
+                        Expiration.seconds(3600),
+                        SetOption.ifAbsent());
+                }
+                return null;
+            });
+        }
+        long keyPerMessageBytes = usedMemory() - baseline;
+
+        // 新做法：時間分桶 SET + 指紋
+        flushAll();
+        baseline = usedMemory();
+        MessageDeduplicator deduplicator = new MessageDeduplicator(
+            redisTemplate, new RedisConfig().mqDedupScript(), 1, 1, 300, 12);
+        for (int from = 0; from < MESSAGE_COUNT; from += BATCH_SIZE) {
+            deduplicator.tryAcquireAll(msgIds.subList(from, Math.min(from + BATCH_SIZE, MESSAGE_COUNT)));
+        }
+        long bucketedBytes = usedMemory() - baseline;
+
+        System.out.printf("dedup memory for %d messages: key-per-message=%d bytes (%.1f B/msg), "
+                + "bucketed=%d bytes (%.1f B/msg)%n",
+            MESSAGE_COUNT, keyPerMessageBytes, (double) keyPerMessageBytes / MESSAGE_COUNT,
+            bucketedBytes, (double) bucketedBytes / MESSAGE_COUNT);
+        assertThat(deduplicator.getStats().getNewMessages()).isEqualTo(MESSAGE_COUNT);
+        assertThat(bucketedBytes).isLessThan(keyPerMessageBytes / 2);
+    }
+
+    private static void flushAll() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    private static long usedMemory() {
+        String value = redisTemplate.execute((RedisCallback<String>) connection ->
+            Objects.requireNonNull(connection.serverCommands().info("memory")).getProperty("used_memory"));
+        return Long.parseLong(Objects.requireNonNull(value));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.mq;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageDeduplicator Unit Tests")
+@SuppressWarnings({"unchecked", "rawtypes"})
+class MessageDeduplicatorTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private DefaultRedisScript<List> mqDedupScript;
+
+    private MessageDeduplicator messageDeduplicator;
+
+    @BeforeEach
+    void setUp() {
+        messageDeduplicator = new MessageDeduplicator(redisTemplate, mqDedupScript, 100, 300, 300, 12);
+    }
+
+    @Test
+    @DisplayName("Should answer repeated delivery from local cache")
+    void shouldAnswerRepeatedDeliveryFromLocalCache() {
+        // Given
+        given(redisTemplate.execute(eq(mqDedupScript), anyList(), any(Object[].class))).willReturn(List.of(1L));
+
+        // When
+        boolean first = messageDeduplicator.tryAcquire("msg-1");
+        boolean second = messageDeduplicator.tryAcquire("msg-1");
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        then(redisTemplate).should(times(1)).execute(eq(mqDedupScript), anyList(), any(Object[].class));
+        DedupStats stats = messageDeduplicator.getStats();
+        assertThat(stats.getNewMessages()).isEqualTo(1L);
+        assertThat(stats.getLocalHits()).isEqualTo(1L);
+        assertThat(stats.getRedisHits()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should check all time buckets with fingerprints in one script call")
+    void shouldCheckAllBucketsInOneScriptCall() {
+        // Given
+        given(redisTemplate.execute(eq(mqDedupScript), anyList(), any(Object[].class))).willReturn(List.of(1L, 0L));
+        ArgumentCaptor<List<String>> keysCaptor = ArgumentCaptor.forClass((Class) List.class);
+        ArgumentCaptor<Object[]> argsCaptor = ArgumentCaptor.forClass(Object[].class);
+
+        // When
+        boolean[] result = messageDeduplicator.tryAcquireAll(List.of("msg-1", "msg-2"));
+
+        // Then
+        assertThat(result).containsExactly(true, false);
+        then(redisTemplate).should().execute(eq(mqDedupScript), keysCaptor.capture(), argsCaptor.capture());
+        assertThat(keysCaptor.getValue()).hasSize(12).allMatch(key -> key.startsWith("mq:dedup:"));
+        assertThat(argsCaptor.getValue()).containsExactly("3900",
+            MessageDeduplicator.fingerprint("msg-1"), MessageDeduplicator.fingerprint("msg-2"));
+        assertThat(messageDeduplicator.getStats().getRedisHits()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should allow message when Redis fails")
+    void shouldAllowMessageWhenRedisFails() {
+        // Given
+        given(redisTemplate.execute(eq(mqDedupScript), anyList(), any(Object[].class)))
+            .willThrow(new RuntimeException("Redis connection error"));
+
+        // When
+        boolean result = messageDeduplicator.tryAcquire("msg-1");
+
+        // Then
+        assertThat(result).isTrue();
+        assertThat(messageDeduplicator.getStats().getRedisFailures()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should go to Redis again after release")
+    void shouldGoToRedisAgainAfterRelease() {
+        // Given
+        given(redisTemplate.execute(eq(mqDedupScript), anyList(), any(Object[].class))).willReturn(List.of(1L));
+        messageDeduplicator.tryAcquire("msg-1");
+
+        // When
+        messageDeduplicator.release("msg-1");
+        boolean result = messageDeduplicator.tryAcquire("msg-1");
+
+        // Then
+        assertThat(result).isTrue();
+        then(redisTemplate).should().executePipelined(any(RedisCallback.class));
+        then(redisTemplate).should(times(2)).execute(eq(mqDedupScript), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should skip Redis when whole batch is answered locally")
+    void shouldSkipRedisWhenBatchAnsweredLocally() {
+        // Given
+        given(redisTemplate.execute(eq(mqDedupScript), anyList(), any(Object[].class))).willReturn(List.of(1L, 1L));
+        messageDeduplicator.tryAcquireAll(List.of("msg-1", "msg-2"));
+
+        // When
+        boolean[] result = messageDeduplicator.tryAcquireAll(List.of("msg-1", "msg-2"));
+
+        // Then
+        assertThat(result).containsExactly(false, false);
+        then(redisTemplate).should(times(1)).execute(eq(mqDedupScript), anyList(), any(Object[].class));
+        assertThat(messageDeduplicator.getStats().getLocalHits()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should list current bucket first followed by older buckets")
+    void shouldListCurrentBucketFirst() {
+        // Given
+        long now = 1_700_000_000_000L;
+        long current = 1_700_000_000L / 300;
+
+        // When
+        List<String> keys = messageDeduplicator.bucketKeys(now);
+
+        // Then
+        assertThat(keys).hasSize(12);
+        assertThat(keys.get(0)).isEqualTo("mq:dedup:" + current);
+        assertThat(keys.get(11)).isEqualTo("mq:dedup:" + (current - 11));
+    }
+
+    @Test
+    @DisplayName("Should bound local cache size")
+    void shouldBoundLocalCacheSize() {
+        // Given
+        RecentIdCache cache = new RecentIdCache(2, 60000);
+        long now = System.currentTimeMillis();
+
+        // When
+        cache.add("msg-1", now);
+        cache.add("msg-2", now);
+        cache.add("msg-3", now);
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.contains("msg-1", now)).isFalse();
+        assertThat(cache.contains("msg-3", now)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should expire local entries after TTL")
+    void shouldExpireLocalEntriesAfterTtl() {
+        // Given
+        RecentIdCache cache = new RecentIdCache(100, 1000);
+        long now = System.currentTimeMillis();
+        cache.add("msg-1", now);
+
+        // When & Then
+        assertThat(cache.contains("msg-1", now + 999)).isTrue();
+        assertThat(cache.contains("msg-1", now + 1000)).isFalse();
+        cache.add("msg-2", now + 1000);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
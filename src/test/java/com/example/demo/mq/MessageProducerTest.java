@@ -0,0 +1,125 @@
+package com.example.demo.mq;
+
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageProducer Unit Tests")
+class MessageProducerTest {
+
+    @Mock
+    private RocketMQTemplate rocketMQTemplate;
+
+    private MessageProducer messageProducer;
+
+    @BeforeEach
+    void setUp() {
+        messageProducer = new MessageProducer(rocketMQTemplate);
+        ReflectionTestUtils.setField(messageProducer, "topic", "test-topic");
+        ReflectionTestUtils.setField(messageProducer, "batchEnabled", true);
+        ReflectionTestUtils.setField(messageProducer, "bufferCapacity", 100);
+        ReflectionTestUtils.setField(messageProducer, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(messageProducer, "lingerMillis", 20L);
+        ReflectionTestUtils.setField(messageProducer, "overflowPolicy", MessageProducer.OverflowPolicy.DROP_OLDEST);
+        ReflectionTestUtils.setField(messageProducer, "blockTimeoutMillis", 1L);
+        ReflectionTestUtils.setField(messageProducer, "sendTimeoutMillis", 1000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ReflectionTestUtils.getField(messageProducer, "senderThread") != null) {
+            messageProducer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should send buffered events as one batch per event type")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void shouldSendBufferedEventsAsOneBatch() {
+        // Given
+        SendResult sendResult = new SendResult();
+        sendResult.setSendStatus(SendStatus.SEND_OK);
+        when(rocketMQTemplate.syncSend(anyString(), anyCollection(), anyLong())).thenReturn(sendResult);
+        messageProducer.start();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            messageProducer.sendRateLimitEvent(RateLimitEventMessage.blocked("key-" + i, 11, 10, 30L));
+        }
+
+        // Then
+        ArgumentCaptor<List<Message<?>>> captor = ArgumentCaptor.forClass((Class) List.class);
+        verify(rocketMQTemplate, timeout(1000)).syncSend(eq("test-topic:BLOCKED"), captor.capture(), eq(1000L));
+        assertThat(captor.getValue()).hasSize(3);
+        verify(rocketMQTemplate, never()).asyncSend(anyString(), any(Message.class), any());
+    }
+
+    @Test
+    @DisplayName("Should drop newest events when buffer full with DROP_NEW policy")
+    void shouldDropNewestEventsWhenBufferFull() {
+        // Given
+        ReflectionTestUtils.setField(messageProducer, "overflowPolicy", MessageProducer.OverflowPolicy.DROP_NEW);
+        ArrayBlockingQueue<RateLimitEventMessage> buffer = new ArrayBlockingQueue<>(2);
+        ReflectionTestUtils.setField(messageProducer, "buffer", buffer);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            messageProducer.sendRateLimitEvent(RateLimitEventMessage.blocked("key-" + i, 11, 10, 30L));
+        }
+
+        // Then
+        assertThat(buffer).extracting(RateLimitEventMessage::getApiKey).containsExactly("key-0", "key-1");
+        assertThat(messageProducer.getStats().getQueueDepth()).isEqualTo(2);
+        assertThat(messageProducer.getStats().getDroppedEvents()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should drop oldest events when buffer full with DROP_OLDEST policy")
+    void shouldDropOldestEventsWhenBufferFull() {
+        // Given
+        ArrayBlockingQueue<RateLimitEventMessage> buffer = new ArrayBlockingQueue<>(2);
+        ReflectionTestUtils.setField(messageProducer, "buffer", buffer);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            messageProducer.sendRateLimitEvent(RateLimitEventMessage.blocked("key-" + i, 11, 10, 30L));
+        }
+
+        // Then
+        assertThat(buffer).extracting(RateLimitEventMessage::getApiKey).containsExactly("key-3", "key-4");
+        assertThat(messageProducer.getStats().getDroppedEvents()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should count failed batch and open circuit breaker")
+    void shouldCountFailedBatchAndOpenCircuitBreaker() {
+        // Given
+        when(rocketMQTemplate.syncSend(anyString(), anyCollection(), anyLong()))
+            .thenThrow(new RuntimeException("Broker unavailable"));
+
+        // When
+        messageProducer.sendBatch(List.of(RateLimitEventMessage.blocked("key-1", 11, 10, 30L)));
+
+        // Then
+        assertThat(messageProducer.getStats().getFailedEvents()).isEqualTo(1L);
+        assertThat(messageProducer.getStats().isCircuitClosed()).isFalse();
+    }
+}
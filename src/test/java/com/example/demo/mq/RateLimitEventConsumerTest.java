@@ -0,0 +1,167 @@
+package com.example.demo.mq;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyContext;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyStatus;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitEventConsumer Unit Tests")
+class RateLimitEventConsumerTest {
+
+    @Mock
+    private MessageDeduplicator messageDeduplicator;
+
+    @Mock
+    private DefaultMQPushConsumer pushConsumer;
+
+    @Mock
+    private AuditEventSink auditEventSink;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ConsumeConcurrentlyContext context = new ConsumeConcurrentlyContext(null);
+
+    private RateLimitEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new RateLimitEventConsumer(messageDeduplicator, objectMapper, auditEventSink);
+        ReflectionTestUtils.setField(consumer, "batchSize", 32);
+        consumer.prepareStart(pushConsumer);
+    }
+
+    @Test
+    @DisplayName("Should dedup whole batch in one call and skip duplicates")
+    void shouldDedupWholeBatchAndSkipDuplicates() throws Exception {
+        // Given
+        List<MessageExt> messages = List.of(message("msg-1", event("key-1")), message("msg-2", event("key-2")));
+        given(messageDeduplicator.tryAcquireAll(List.of("msg-1", "msg-2"))).willReturn(new boolean[]{true, false});
+
+        // When
+        ConsumeConcurrentlyStatus status = consumer.consumeBatch(messages, context);
+
+        // Then
+        assertThat(status).isEqualTo(ConsumeConcurrentlyStatus.CONSUME_SUCCESS);
+        then(messageDeduplicator).should(never()).release(anyString());
+        then(pushConsumer).should(never()).sendMessageBack(any(MessageExt.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should release and send back only the failed message")
+    void shouldReleaseAndSendBackOnlyFailedMessage() throws Exception {
+        // Given
+        MessageExt bad = message("msg-2", "not-json");
+        List<MessageExt> messages = List.of(message("msg-1", event("key-1")), bad);
+        given(messageDeduplicator.tryAcquireAll(anyList())).willReturn(new boolean[]{true, true});
+
+        // When
+        ConsumeConcurrentlyStatus status = consumer.consumeBatch(messages, context);
+
+        // Then
+        assertThat(status).isEqualTo(ConsumeConcurrentlyStatus.CONSUME_SUCCESS);
+        then(messageDeduplicator).should().release("msg-2");
+        then(messageDeduplicator).should(never()).release("msg-1");
+        then(pushConsumer).should().sendMessageBack(bad, 0);
+    }
+
+    @Test
+    @DisplayName("Should retry whole batch when message cannot be sent back")
+    void shouldRetryWholeBatchWhenSendBackFails() throws Exception {
+        // Given
+        MessageExt bad = message("msg-1", "not-json");
+        given(messageDeduplicator.tryAcquireAll(anyList())).willReturn(new boolean[]{true});
+        willThrow(new RuntimeException("Broker unavailable")).given(pushConsumer).sendMessageBack(bad, 0);
+
+        // When
+        ConsumeConcurrentlyStatus status = consumer.consumeBatch(List.of(bad), context);
+
+        // Then
+        assertThat(status).isEqualTo(ConsumeConcurrentlyStatus.RECONSUME_LATER);
+        then(messageDeduplicator).should().release("msg-1");
+    }
+
+    @Test
+    @DisplayName("Should release every failed message before send-back so redelivery reprocesses them all")
+    void shouldReleaseAllFailedMessagesBeforeSendBack() throws Exception {
+        // Given
+        Set<String> acquired = new HashSet<>();
+        given(messageDeduplicator.tryAcquireAll(anyList())).willAnswer(invocation -> {
+            List<String> msgIds = invocation.getArgument(0);
+            boolean[] result = new boolean[msgIds.size()];
+            for (int i = 0; i < msgIds.size(); i++) {
+                result[i] = acquired.add(msgIds.get(i));
+            }
+            return result;
+        });
+        willAnswer(invocation -> acquired.remove(invocation.<String>getArgument(0)))
+            .given(messageDeduplicator).release(anyString());
+        MessageExt first = message("msg-1", event("key-1"));
+        MessageExt second = message("msg-2", event("key-2"));
+        willThrow(new IllegalStateException("Audit buffer full"))
+            .willThrow(new IllegalStateException("Audit buffer full"))
+            .willDoNothing()
+            .given(auditEventSink).append(any());
+        willThrow(new RuntimeException("Broker unavailable")).given(pushConsumer).sendMessageBack(first, 0);
+
+        // When
+        ConsumeConcurrentlyStatus status = consumer.consumeBatch(List.of(first, second), context);
+        ConsumeConcurrentlyStatus redelivered = consumer.consumeBatch(List.of(first, second), context);
+
+        // Then
+        assertThat(status).isEqualTo(ConsumeConcurrentlyStatus.RECONSUME_LATER);
+        assertThat(redelivered).isEqualTo(ConsumeConcurrentlyStatus.CONSUME_SUCCESS);
+        then(auditEventSink).should(times(4)).append(any());
+        assertThat(acquired).containsExactlyInAnyOrder("msg-1", "msg-2");
+    }
+
+    @Test
+    @DisplayName("Should send back message when audit buffer is full")
+    void shouldSendBackMessageWhenAuditBufferFull() throws Exception {
+        // Given
+        MessageExt messageExt = message("msg-1", event("key-1"));
+        given(messageDeduplicator.tryAcquireAll(anyList())).willReturn(new boolean[]{true});
+        willThrow(new IllegalStateException("Audit buffer full")).given(auditEventSink).append(any());
+
+        // When
+        ConsumeConcurrentlyStatus status = consumer.consumeBatch(List.of(messageExt), context);
+
+        // Then
+        assertThat(status).isEqualTo(ConsumeConcurrentlyStatus.CONSUME_SUCCESS);
+        then(messageDeduplicator).should().release("msg-1");
+        then(pushConsumer).should().sendMessageBack(messageExt, 0);
+    }
+
+    private String event(String apiKey) throws Exception {
+        return objectMapper.writeValueAsString(RateLimitEventMessage.blocked(apiKey, 11, 10, 30L));
+    }
+
+    private MessageExt message(String msgId, String body) {
+        MessageExt messageExt = new MessageExt();
+        messageExt.setMsgId(msgId);
+        messageExt.setBody(body.getBytes(StandardCharsets.UTF_8));
+        return messageExt;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ApiLimitConfig;
+import com.example.demo.model.FailureMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApiLimitJdbcRepository Unit Tests")
+class ApiLimitJdbcRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private ApiLimitJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ApiLimitJdbcRepository(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should look up config by primary key and map failure mode")
+    @SuppressWarnings("unchecked")
+    void shouldFindConfigByApiKey() throws Exception {
+        // Given
+        given(resultSet.getInt("limit_count")).willReturn(10);
+        given(resultSet.getInt("window_seconds")).willReturn(60);
+        given(resultSet.getString("failure_mode")).willReturn("LOCAL");
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("key-1")))
+            .willAnswer(invocation -> List.of(invocation.getArgument(1, RowMapper.class).mapRow(resultSet, 0)));
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+
+        // When
+        Optional<ApiLimitConfig> result = repository.findConfigByApiKey("key-1");
+
+        // Then
+        assertThat(result).contains(new ApiLimitConfig("key-1", 10, 60, FailureMode.LOCAL));
+        then(jdbcTemplate).should().query(sql.capture(), any(RowMapper.class), eq("key-1"));
+        assertThat(sql.getValue())
+            .contains("SELECT limit_count, window_seconds, failure_mode")
+            .contains("WHERE api_key = ?")
+            .doesNotContain("created_at");
+    }
+
+    @Test
+    @DisplayName("Should map null failure mode to null so the default mode applies")
+    @SuppressWarnings("unchecked")
+    void shouldMapNullFailureMode() throws Exception {
+        // Given
+        given(resultSet.getInt("limit_count")).willReturn(5);
+        given(resultSet.getInt("window_seconds")).willReturn(30);
+        given(resultSet.getString("failure_mode")).willReturn(null);
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("key-2")))
+            .willAnswer(invocation -> List.of(invocation.getArgument(1, RowMapper.class).mapRow(resultSet, 0)));
+
+        // When
+        Optional<ApiLimitConfig> result = repository.findConfigByApiKey("key-2");
+
+        // Then
+        assertThat(result).contains(new ApiLimitConfig("key-2", 5, 30, null));
+    }
+
+    @Test
+    @DisplayName("Should return empty when the key has no row")
+    @SuppressWarnings("unchecked")
+    void shouldReturnEmptyWhenKeyMissing() {
+        // Given
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("unknown-key"))).willReturn(List.of());
+
+        // When
+        Optional<ApiLimitConfig> result = repository.findConfigByApiKey("unknown-key");
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.FailureMode;
+import com.example.demo.model.dto.BulkImportResponse;
+import com.example.demo.mq.MessageProducer;
+import com.example.demo.repository.ApiLimitJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkLimitImportService Unit Tests")
+class BulkLimitImportServiceTest {
+
+    @Mock
+    private ApiLimitJdbcRepository apiLimitJdbcRepository;
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private ConfigSnapshotService configSnapshotService;
+
+    @Mock
+    private MessageProducer messageProducer;
+
+    private ValidatorFactory validatorFactory;
+    private BulkLimitImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importService = new BulkLimitImportService(apiLimitJdbcRepository, redisService, configSnapshotService,
+            messageProducer, validatorFactory.getValidator(), new ObjectMapper(), 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @DisplayName("Should upsert rows in batches and emit one aggregated event")
+    @SuppressWarnings("unchecked")
+    void shouldUpsertInBatchesAndEmitOneEvent() {
+        // Given
+        String body = """
+            {"apiKey":"key-1","limit":10,"windowSeconds":60}
+            {"apiKey":"key-2","limit":20,"windowSeconds":60,"failureMode":"LOCAL"}
+
+            {"apiKey":"key-3","limit":30,"windowSeconds":30}
+            """;
+
+        // When
+        BulkImportResponse response = importService.importNdjson(stream(body));
+
+        // Then
+        ArgumentCaptor<List<ApiLimit>> batches = ArgumentCaptor.forClass(List.class);
+        then(apiLimitJdbcRepository).should(times(2)).batchUpsert(batches.capture());
+        assertThat(batches.getAllValues().get(0)).extracting(ApiLimit::getApiKey).containsExactly("key-1", "key-2");
+        assertThat(batches.getAllValues().get(0).get(1).getFailureMode()).isEqualTo(FailureMode.LOCAL);
+        assertThat(batches.getAllValues().get(1)).extracting(ApiLimit::getApiKey).containsExactly("key-3");
+        then(redisService).should(times(2)).cacheApiLimitConfigs(anyList());
+        then(configSnapshotService).should(times(2)).publishUpserts(anyList());
+        then(messageProducer).should().sendBulkConfigChangeEvent(3);
+
+        assertThat(response.getReceived()).isEqualTo(3);
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getFailed()).isZero();
+        assertThat(response.getErrors()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report invalid rows and keep importing")
+    void shouldReportInvalidRowsAndContinue() {
+        // Given
+        String body = """
+            {"apiKey":"key-1","limit":10,"windowSeconds":60}
+            {"apiKey":"key-2","limit":
+            {"apiKey":"","limit":10,"windowSeconds":60}
+            {"apiKey":"key-4","limit":-1,"windowSeconds":60}
+            {"apiKey":"key-5","limit":10}
+            {"apiKey":"key-6","limit":10,"windowSeconds":60}
+            """;
+
+        // When
+        BulkImportResponse response = importService.importNdjson(stream(body));
+
+        // Then
+        assertThat(response.getReceived()).isEqualTo(6);
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(response.getErrors()).extracting(BulkImportResponse.RowError::getLine).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(response.getErrors().get(0).getError()).startsWith("Malformed JSON");
+        assertThat(response.getErrors().get(2).getApiKey()).isEqualTo("key-4");
+        assertThat(response.getErrors().get(2).getError()).isEqualTo("Limit must be positive");
+        then(messageProducer).should().sendBulkConfigChangeEvent(2);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch row by row and report only the failing rows")
+    void shouldRetryFailedBatchRowByRow() {
+        // Given
+        willThrow(new DataIntegrityViolationException("Duplicate entry"))
+            .given(apiLimitJdbcRepository).batchUpsert(argThat(limits -> limits.stream()
+                .anyMatch(limit -> limit.getApiKey().equals("key-2"))));
+        String body = """
+            {"apiKey":"key-1","limit":10,"windowSeconds":60}
+            {"apiKey":"key-2","limit":10,"windowSeconds":60}
+            {"apiKey":"key-3","limit":10,"windowSeconds":60}
+            """;
+
+        // When
+        BulkImportResponse response = importService.importNdjson(stream(body));
+
+        // Then
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(BulkImportResponse.RowError::getLine).containsExactly(2L);
+        assertThat(response.getErrors().get(0).getApiKey()).isEqualTo("key-2");
+        then(redisService).should(times(2)).cacheApiLimitConfigs(anyList());
+        then(configSnapshotService).should(times(2)).publishUpserts(anyList());
+        then(messageProducer).should().sendBulkConfigChangeEvent(2);
+    }
+
+    @Test
+    @DisplayName("Should report every row of a batch without row retries when the database is unreachable")
+    void shouldReportWholeBatchWhenDatabaseUnreachable() {
+        // Given
+        willThrow(new DataAccessResourceFailureException("Connection refused"))
+            .willDoNothing()
+            .given(apiLimitJdbcRepository).batchUpsert(anyList());
+        String body = """
+            {"apiKey":"key-1","limit":10,"windowSeconds":60}
+            {"apiKey":"key-2","limit":10,"windowSeconds":60}
+            {"apiKey":"key-3","limit":10,"windowSeconds":60}
+            """;
+
+        // When
+        BulkImportResponse response = importService.importNdjson(stream(body));
+
+        // Then
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(BulkImportResponse.RowError::getApiKey)
+            .containsExactly("key-1", "key-2");
+        then(apiLimitJdbcRepository).should(times(2)).batchUpsert(anyList());
+        then(messageProducer).should().sendBulkConfigChangeEvent(1);
+    }
+
+    @Test
+    @DisplayName("Should reject api keys longer than the column")
+    void shouldRejectOverlongApiKey() {
+        // Given
+        String body = "{\"apiKey\":\"" + "k".repeat(256) + "\",\"limit\":10,\"windowSeconds\":60}\n";
+
+        // When
+        BulkImportResponse response = importService.importNdjson(stream(body));
+
+        // Then
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getErrors().get(0).getError()).isEqualTo("API key must be at most 255 characters");
+        then(apiLimitJdbcRepository).should(never()).batchUpsert(anyList());
+    }
+
+    @Test
+    @DisplayName("Should cap reported errors but count every failure")
+    void shouldCapReportedErrors() {
+        // Given
+        String body = "not json\n".repeat(15);
+
+        // When
+        BulkImportResponse response = importService.importNdjson(stream(body));
+
+        // Then
+        assertThat(response.getFailed()).isEqualTo(15);
+        assertThat(response.getErrors()).hasSize(10);
+        assertThat(response.isErrorsTruncated()).isTrue();
+        then(apiLimitJdbcRepository).should(never()).batchUpsert(anyList());
+        then(messageProducer).should(never()).sendBulkConfigChangeEvent(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep written batches when the stream is cut off")
+    void shouldKeepWrittenBatchesWhenStreamAborted() {
+        // Given
+        InputStream rows = stream("""
+            {"apiKey":"key-1","limit":10,"windowSeconds":60}
+            {"apiKey":"key-2","limit":10,"windowSeconds":60}
+            {"apiKey":"key-3","limit":10,"windowSeconds":60}
+            """);
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        // When
+        BulkImportResponse response = importService.importNdjson(new SequenceInputStream(rows, broken));
+
+        // Then
+        assertThat(response.isAborted()).isTrue();
+        assertThat(response.getErrors()).singleElement()
+            .satisfies(error -> assertThat(error.getError()).contains("Connection reset"));
+        then(apiLimitJdbcRepository).should(times(2)).batchUpsert(anyList());
+        then(messageProducer).should().sendBulkConfigChangeEvent(3);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
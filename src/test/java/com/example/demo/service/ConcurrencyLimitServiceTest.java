@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.example.demo.common.RedisKey;
+import com.example.demo.model.ConcurrencyLimit;
+import com.example.demo.model.dto.LeaseResponse;
+import com.example.demo.repository.ConcurrencyLimitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConcurrencyLimitService Unit Tests")
+class ConcurrencyLimitServiceTest {
+
+    private static final String API_KEY = "slow-backend";
+    private static final String LEASES_KEY = RedisKey.concurrencyLeases(API_KEY);
+
+    @Mock
+    private ConcurrencyLimitRepository concurrencyLimitRepository;
+
+    @Mock
+    private RedisTemplate<String, String> counterRedisTemplate;
+
+    @Mock
+    private ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+    @Mock
+    private DefaultRedisScript<Long> concurrencyAcquireScript;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> reactiveZSetOperations;
+
+    private ConcurrencyLimitService concurrencyLimitService;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimitService = new ConcurrencyLimitService(concurrencyLimitRepository, counterRedisTemplate,
+            reactiveRedisTemplate, concurrencyAcquireScript, 5000);
+    }
+
+    @Test
+    @DisplayName("Should grant lease while permits remain")
+    void shouldGrantLeaseWhilePermitsRemain() {
+        // Given
+        given(concurrencyLimitRepository.findByApiKey(API_KEY)).willReturn(Optional.of(new ConcurrencyLimit(API_KEY, 2, 30)));
+        given(counterRedisTemplate.execute(eq(concurrencyAcquireScript), eq(Collections.singletonList(LEASES_KEY)),
+            eq("2"), anyString(), eq("30000"))).willReturn(1L);
+
+        // When
+        LeaseResponse response = concurrencyLimitService.acquire(API_KEY);
+
+        // Then
+        assertThat(response.isAcquired()).isTrue();
+        assertThat(response.getLeaseId()).isNotBlank();
+        assertThat(response.getInFlight()).isEqualTo(1);
+        assertThat(response.getExpiresAt()).isGreaterThan(System.currentTimeMillis());
+        assertThat(concurrencyLimitService.getLocalLeaseCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject when all permits are held")
+    void shouldRejectWhenAllPermitsHeld() {
+        // Given
+        given(concurrencyLimitRepository.findByApiKey(API_KEY)).willReturn(Optional.of(new ConcurrencyLimit(API_KEY, 2, 30)));
+        given(counterRedisTemplate.execute(eq(concurrencyAcquireScript), anyList(), any(), any(), any())).willReturn(3L);
+
+        // When
+        LeaseResponse response = concurrencyLimitService.acquire(API_KEY);
+
+        // Then
+        assertThat(response.isAcquired()).isFalse();
+        assertThat(response.getLeaseId()).isNull();
+        assertThat(response.getInFlight()).isEqualTo(2);
+        assertThat(concurrencyLimitService.getLocalLeaseCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should let keys without a limit through and cache the miss")
+    void shouldAllowKeysWithoutLimit() {
+        // Given
+        given(concurrencyLimitRepository.findByApiKey(API_KEY)).willReturn(Optional.empty());
+
+        // When
+        concurrencyLimitService.acquire(API_KEY);
+        LeaseResponse response = concurrencyLimitService.acquire(API_KEY);
+
+        // Then
+        assertThat(response.isAcquired()).isTrue();
+        assertThat(response.getLeaseId()).isNull();
+        then(concurrencyLimitRepository).should(times(1)).findByApiKey(API_KEY);
+        then(counterRedisTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("Should release locally granted lease without waiting on Redis")
+    void shouldReleaseLocalLeaseAsynchronously() {
+        // Given
+        given(concurrencyLimitRepository.findByApiKey(API_KEY)).willReturn(Optional.of(new ConcurrencyLimit(API_KEY, 2, 30)));
+        given(counterRedisTemplate.execute(eq(concurrencyAcquireScript), anyList(), any(), any(), any())).willReturn(1L);
+        given(reactiveRedisTemplate.opsForZSet()).willReturn(reactiveZSetOperations);
+        String leaseId = concurrencyLimitService.acquire(API_KEY).getLeaseId();
+        given(reactiveZSetOperations.remove(LEASES_KEY, leaseId)).willReturn(Mono.just(1L));
+        given(counterRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.remove(LEASES_KEY, leaseId)).willReturn(0L);
+
+        // When
+        boolean released = concurrencyLimitService.release(API_KEY, leaseId);
+        boolean releasedAgain = concurrencyLimitService.release(API_KEY, leaseId);
+
+        // Then
+        assertThat(released).isTrue();
+        assertThat(releasedAgain).isFalse();
+        then(reactiveZSetOperations).should(times(1)).remove(LEASES_KEY, leaseId);
+    }
+
+    @Test
+    @DisplayName("Should release lease granted by another node through Redis")
+    void shouldReleaseRemoteLeaseThroughRedis() {
+        // Given
+        given(counterRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.remove(LEASES_KEY, "other-node-lease")).willReturn(1L);
+
+        // When
+        boolean released = concurrencyLimitService.release(API_KEY, "other-node-lease");
+
+        // Then
+        assertThat(released).isTrue();
+        then(reactiveRedisTemplate).should(never()).opsForZSet();
+    }
+
+    @Test
+    @DisplayName("Should fail open when Redis is unavailable")
+    void shouldFailOpenWhenRedisUnavailable() {
+        // Given
+        given(concurrencyLimitRepository.findByApiKey(API_KEY)).willReturn(Optional.of(new ConcurrencyLimit(API_KEY, 2, 30)));
+        given(counterRedisTemplate.execute(eq(concurrencyAcquireScript), anyList(), any(), any(), any()))
+            .willThrow(new RuntimeException("Redis connection error"));
+
+        // When
+        LeaseResponse response = concurrencyLimitService.acquire(API_KEY);
+
+        // Then
+        assertThat(response.isAcquired()).isTrue();
+        assertThat(response.getLeaseId()).isNull();
+        assertThat(response.getMessage()).isEqualTo("Concurrency limiting unavailable - request allowed");
+    }
+}
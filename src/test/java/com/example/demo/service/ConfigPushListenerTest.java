@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import com.example.demo.common.RedisKey;
+import io.lettuce.core.api.push.PushMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConfigPushListener Unit Tests")
+class ConfigPushListenerTest {
+
+    @Mock
+    private ConfigSnapshotService configSnapshotService;
+
+    @Mock
+    private PushMessage pushMessage;
+
+    private ConfigPushListener listener;
+
+    @BeforeEach
+    void setUp() {
+        // 不建立實際連線，只驗證推播處理；拉取在呼叫端執行緒同步執行
+        listener = new ConfigPushListener(configSnapshotService, new RedisProperties(), false, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    @DisplayName("Should poll deltas when the config version key is invalidated")
+    void shouldPollWhenVersionKeyInvalidated() {
+        // Given
+        givenPush("invalidate", List.of(RedisKey.configVersion()));
+
+        // When
+        listener.onPush(pushMessage);
+
+        // Then
+        assertThat(listener.getInvalidationCount()).isEqualTo(1);
+        then(configSnapshotService).should().pollDeltas();
+    }
+
+    @Test
+    @DisplayName("Should poll deltas when Redis flushes all tracked keys")
+    void shouldPollOnFlush() {
+        // Given
+        givenPush("invalidate", null);
+
+        // When
+        listener.onPush(pushMessage);
+
+        // Then
+        then(configSnapshotService).should().pollDeltas();
+    }
+
+    @Test
+    @DisplayName("Should schedule one more poll when invalidated during a poll")
+    void shouldCoalesceInvalidationsDuringPoll() {
+        // Given
+        givenPush("invalidate", List.of(RedisKey.configVersion()));
+        int[] polls = {0};
+        willAnswer(invocation -> {
+            // 拉取期間再收到一次推播
+            if (++polls[0] == 1) {
+                listener.onPush(pushMessage);
+            }
+            return null;
+        }).given(configSnapshotService).pollDeltas();
+
+        // When
+        listener.onPush(pushMessage);
+
+        // Then
+        then(configSnapshotService).should(times(2)).pollDeltas();
+    }
+
+    @Test
+    @DisplayName("Should ignore unrelated keys and push types")
+    void shouldIgnoreUnrelatedPushes() {
+        // Given
+        givenPush("invalidate", List.of("other:key"));
+
+        // When
+        listener.onPush(pushMessage);
+        given(pushMessage.getType()).willReturn("message");
+        listener.onPush(pushMessage);
+
+        // Then
+        then(configSnapshotService).should(never()).pollDeltas();
+        assertThat(listener.getInvalidationCount()).isZero();
+    }
+
+    private void givenPush(String type, List<String> keys) {
+        given(pushMessage.getType()).willReturn(type);
+        given(pushMessage.getContent(any())).willReturn(Arrays.asList(type, keys));
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.FailureMode;
+import com.example.demo.repository.ApiLimitJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConfigSnapshotService Unit Tests")
+class ConfigSnapshotServiceTest {
+
+    @Mock
+    private ApiLimitJdbcRepository apiLimitJdbcRepository;
+
+    @Mock
+    private ConfigSnapshotStore snapshotStore;
+
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private LocalConfigCache localConfigCache;
+    private ConfigSnapshotService configSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        given(redisHealthMonitor.getNodeId()).willReturn("node-1");
+        localConfigCache = new LocalConfigCache();
+        configSnapshotService = new ConfigSnapshotService(apiLimitJdbcRepository, snapshotStore, localConfigCache,
+            objectMapper, redisHealthMonitor, 100, 60000);
+    }
+
+    @Test
+    @DisplayName("Should round-trip snapshot encoding")
+    void shouldRoundTripSnapshotEncoding() {
+        // Given
+        ApiLimit limit = limit("key-1", 100);
+        limit.setFailureMode(FailureMode.CLOSED);
+        ApiLimit defaults = limit("key-2", 5);
+        defaults.setCreatedAt(null);
+
+        // When
+        ConfigSnapshotService.Snapshot decoded =
+            ConfigSnapshotService.decode(ConfigSnapshotService.encode(42L, List.of(limit, defaults)));
+
+        // Then
+        assertThat(decoded.version()).isEqualTo(42L);
+        assertThat(decoded.limits()).hasSize(2);
+        assertThat(decoded.limits().get(0)).isEqualTo(limit);
+        assertThat(decoded.limits().get(1).getFailureMode()).isNull();
+        assertThat(decoded.limits().get(1).getCreatedAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should warm up from Redis snapshot then apply newer deltas")
+    void shouldWarmUpFromSnapshotThenApplyDeltas() throws Exception {
+        // Given
+        given(snapshotStore.loadSnapshot()).willReturn(ConfigSnapshotService.encode(7L, List.of(limit("key-1", 10))));
+        given(snapshotStore.deltasAfter(7L)).willReturn(List.of(
+            "8|" + objectMapper.writeValueAsString(new ConfigSnapshotService.ConfigDelta("key-2", limit("key-2", 20))),
+            "9|" + objectMapper.writeValueAsString(new ConfigSnapshotService.ConfigDelta("key-1", null))));
+
+        // When
+        configSnapshotService.pollDeltas();
+
+        // Then
+        assertThat(localConfigCache.getVersion()).isEqualTo(9L);
+        assertThat(localConfigCache.get("key-1")).isNull();
+        assertThat(localConfigCache.get("key-2").getLimitCount()).isEqualTo(20);
+        then(apiLimitJdbcRepository).should(never()).streamAll(any());
+    }
+
+    @Test
+    @DisplayName("Should build and publish snapshot with streaming query when none exists")
+    void shouldBuildSnapshotWithStreamingQueryWhenNoneExists() {
+        // Given
+        given(snapshotStore.loadSnapshot()).willReturn(null);
+        given(snapshotStore.tryLock(eq("node-1"), anyLong())).willReturn(true);
+        given(snapshotStore.currentVersion()).willReturn(3L);
+        given(snapshotStore.saveSnapshot(eq(3L), any())).willReturn(true);
+        streamRows(limit("key-1", 10), limit("key-2", 20));
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+
+        // When
+        configSnapshotService.warmUp();
+
+        // Then
+        assertThat(localConfigCache.getVersion()).isEqualTo(3L);
+        assertThat(localConfigCache.size()).isEqualTo(2);
+        then(snapshotStore).should().saveSnapshot(eq(3L), captor.capture());
+        assertThat(ConfigSnapshotService.decode(captor.getValue()).limits()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should rebuild from MySQL when delta log no longer covers local version")
+    void shouldRebuildWhenDeltaLogHasGap() {
+        // Given
+        localConfigCache.replaceAll(5L, List.of(limit("key-1", 10)));
+        given(snapshotStore.deltasAfter(5L)).willReturn(List.of("20|{}"));
+        given(snapshotStore.tryLock(eq("node-1"), anyLong())).willReturn(false);
+        given(snapshotStore.currentVersion()).willReturn(20L);
+        streamRows(limit("key-3", 30));
+
+        // When
+        configSnapshotService.pollDeltas();
+
+        // Then
+        assertThat(localConfigCache.getVersion()).isEqualTo(20L);
+        assertThat(localConfigCache.get("key-1")).isNull();
+        assertThat(localConfigCache.get("key-3")).isNotNull();
+        then(snapshotStore).should(never()).saveSnapshot(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should update local cache and append delta outside a transaction")
+    void shouldUpdateLocalCacheAndAppendDelta() {
+        // Given
+        given(snapshotStore.appendDelta(anyString(), eq(100))).willReturn(1L);
+
+        // When
+        configSnapshotService.publishUpsert(limit("key-1", 10));
+
+        // Then
+        assertThat(localConfigCache.get("key-1")).isNotNull();
+        then(snapshotStore).should().appendDelta(anyString(), eq(100));
+    }
+
+    @Test
+    @DisplayName("Should publish a batch as one delta that other nodes apply at one version")
+    void shouldPublishBatchAsSingleDelta() {
+        // Given
+        given(snapshotStore.appendDelta(anyString(), eq(100))).willReturn(5L);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+
+        // When
+        configSnapshotService.publishUpserts(List.of(limit("key-1", 10), limit("key-2", 20)));
+
+        // Then
+        assertThat(localConfigCache.get("key-1")).isNotNull();
+        assertThat(localConfigCache.get("key-2")).isNotNull();
+        then(snapshotStore).should(times(1)).appendDelta(payload.capture(), eq(100));
+
+        // Given
+        localConfigCache.replaceAll(4L, List.of(limit("key-1", 1)));
+        given(snapshotStore.deltasAfter(4L)).willReturn(List.of("5|" + payload.getValue()));
+
+        // When
+        configSnapshotService.pollDeltas();
+
+        // Then
+        assertThat(localConfigCache.getVersion()).isEqualTo(5L);
+        assertThat(localConfigCache.get("key-1").getLimitCount()).isEqualTo(10);
+        assertThat(localConfigCache.get("key-2").getLimitCount()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should leave local cache untouched until commit and on rollback")
+    void shouldDeferLocalCacheUpdateUntilCommit() {
+        // Given
+        localConfigCache.replaceAll(1L, List.of(limit("key-1", 10)));
+        given(snapshotStore.appendDelta(anyString(), eq(100))).willReturn(2L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            configSnapshotService.publishUpsert(limit("key-2", 20));
+            configSnapshotService.publishDelete("key-1");
+
+            // Then
+            assertThat(localConfigCache.get("key-2")).isNull();
+            assertThat(localConfigCache.get("key-1")).isNotNull();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            assertThat(localConfigCache.get("key-2")).isNull();
+            synchronizations.get(1).afterCommit();
+            assertThat(localConfigCache.get("key-1")).isNull();
+            then(snapshotStore).should().appendDelta(anyString(), eq(100));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should retry unpublished deltas in order on the next poll")
+    void shouldRetryUnpublishedDeltasInOrder() {
+        // Given
+        localConfigCache.replaceAll(1L, List.of());
+        given(snapshotStore.appendDelta(anyString(), eq(100))).willReturn(null, 2L, 3L);
+        given(snapshotStore.deltasAfter(1L)).willReturn(List.of());
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+
+        // When
+        configSnapshotService.publishUpsert(limit("key-1", 10));
+        configSnapshotService.publishDelete("key-2");
+        configSnapshotService.pollDeltas();
+
+        // Then
+        then(snapshotStore).should(times(3)).appendDelta(payloads.capture(), eq(100));
+        assertThat(payloads.getAllValues().get(1)).contains("key-1");
+        assertThat(payloads.getAllValues().get(2)).contains("key-2");
+    }
+
+    @Test
+    @DisplayName("Should publish a resync snapshot when the delta backlog overflows")
+    void shouldResyncWhenBacklogOverflows() {
+        // Given
+        configSnapshotService = new ConfigSnapshotService(apiLimitJdbcRepository, snapshotStore, localConfigCache,
+            objectMapper, redisHealthMonitor, 2, 60000);
+        localConfigCache.replaceAll(1L, List.of());
+        given(snapshotStore.appendDelta(anyString(), eq(2))).willReturn(null);
+        given(snapshotStore.nextVersion()).willReturn(5L);
+        given(snapshotStore.saveSnapshot(eq(5L), any())).willReturn(true);
+        given(snapshotStore.deltasAfter(5L)).willReturn(List.of());
+        given(snapshotStore.snapshotVersion()).willReturn(5L);
+        streamRows(limit("key-1", 10), limit("key-2", 20), limit("key-3", 30));
+
+        // When
+        configSnapshotService.publishUpsert(limit("key-1", 10));
+        configSnapshotService.publishUpsert(limit("key-2", 20));
+        configSnapshotService.publishUpsert(limit("key-3", 30));
+        configSnapshotService.pollDeltas();
+
+        // Then
+        assertThat(localConfigCache.getVersion()).isEqualTo(5L);
+        assertThat(localConfigCache.size()).isEqualTo(3);
+        then(snapshotStore).should().saveSnapshot(eq(5L), any());
+    }
+
+    @Test
+    @DisplayName("Should reload snapshot that is ahead of the local version")
+    void shouldReloadSnapshotAheadOfLocalVersion() {
+        // Given
+        localConfigCache.replaceAll(4L, List.of(limit("stale-key", 10)));
+        given(snapshotStore.deltasAfter(4L)).willReturn(List.of());
+        given(snapshotStore.snapshotVersion()).willReturn(5L);
+        given(snapshotStore.loadSnapshot()).willReturn(ConfigSnapshotService.encode(5L, List.of(limit("key-1", 10))));
+
+        // When
+        configSnapshotService.pollDeltas();
+
+        // Then
+        assertThat(localConfigCache.getVersion()).isEqualTo(5L);
+        assertThat(localConfigCache.get("stale-key")).isNull();
+        assertThat(localConfigCache.get("key-1")).isNotNull();
+        then(apiLimitJdbcRepository).should(never()).streamAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamRows(ApiLimit... rows) {
+        willAnswer(invocation -> {
+            Consumer<ApiLimit> consumer = invocation.getArgument(0);
+            for (ApiLimit row : rows) {
+                consumer.accept(row);
+            }
+            return null;
+        }).given(apiLimitJdbcRepository).streamAll(any(Consumer.class));
+    }
+
+    private static ApiLimit limit(String apiKey, int limitCount) {
+        ApiLimit limit = new ApiLimit(apiKey, limitCount, 60);
+        limit.setCreatedAt(LocalDateTime.of(2026, 1, 1, 10, 0, 0, 123_000_000));
+        limit.setUpdatedAt(LocalDateTime.of(2026, 1, 2, 10, 0));
+        return limit;
+    }
+}
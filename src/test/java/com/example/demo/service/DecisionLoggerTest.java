@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+@DisplayName("DecisionLogger Unit Tests")
+class DecisionLoggerTest {
+
+    @Test
+    @DisplayName("Should sample allowed decisions per key")
+    void shouldSampleAllowedDecisionsPerKey() {
+        // Given
+        DecisionLogger decisionLogger = new DecisionLogger(1000, 10, 1, 5);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            decisionLogger.record("test-api-key", true, i, 1000, 60L);
+        }
+
+        // Then
+        assertThat(decisionLogger.getQueueSize()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should enqueue every blocked decision when blocked sample rate is 1")
+    void shouldEnqueueEveryBlockedDecision() {
+        // Given
+        DecisionLogger decisionLogger = new DecisionLogger(1000, 10, 1, 5);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            decisionLogger.record("test-api-key", false, 11, 10, 30L);
+        }
+
+        // Then
+        assertThat(decisionLogger.getQueueSize()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should drop decisions when queue is full")
+    void shouldDropDecisionsWhenQueueIsFull() {
+        // Given
+        DecisionLogger decisionLogger = new DecisionLogger(5, 1, 1, 5);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            decisionLogger.record("test-api-key", false, 11, 10, 30L);
+        }
+
+        // Then
+        assertThat(decisionLogger.getQueueSize()).isEqualTo(5);
+        assertThat(decisionLogger.getDroppedCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should empty queue on drain")
+    void shouldEmptyQueueOnDrain() {
+        // Given
+        DecisionLogger decisionLogger = new DecisionLogger(100, 1, 1, 5);
+        decisionLogger.record("test-api-key", true, 1, 10, 59L);
+        decisionLogger.record("test-api-key", false, 11, 10, 30L);
+
+        // When
+        decisionLogger.drain();
+
+        // Then
+        assertThat(decisionLogger.getQueueSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not throw when error logging is rate capped")
+    void shouldNotThrowWhenErrorLoggingIsRateCapped() {
+        // Given
+        DecisionLogger decisionLogger = new DecisionLogger(100, 1, 1, 2);
+
+        // When & Then
+        assertThatNoException().isThrownBy(() -> {
+            for (int i = 0; i < 50; i++) {
+                decisionLogger.error("test-api-key", new RuntimeException("Redis connection error"));
+            }
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.TopKeysResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HeavyHitterTracker Unit Tests")
+class HeavyHitterTrackerTest {
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+
+    private HeavyHitterTracker heavyHitterTracker;
+
+    @BeforeEach
+    void setUp() {
+        given(redisHealthMonitor.getNodeId()).willReturn("node-1");
+        heavyHitterTracker = new HeavyHitterTracker(redisService, redisHealthMonitor, 1024, 64, 10, 15000);
+    }
+
+    @Test
+    @DisplayName("Should rank heavy hitters above background keys")
+    void shouldRankHeavyHittersAboveBackgroundKeys() {
+        // Given
+        given(redisService.mergeTopKeys(anyString(), anyLong())).willReturn(null);
+        for (int i = 0; i < 5000; i++) {
+            heavyHitterTracker.record("background-" + i, true);
+        }
+        for (int i = 0; i < 1000; i++) {
+            heavyHitterTracker.record("hot-1", true);
+            if (i % 2 == 0) {
+                heavyHitterTracker.record("hot-2", false);
+            }
+        }
+
+        // When
+        TopKeysResponse checks = heavyHitterTracker.top(HeavyHitterTracker.Metric.CHECKS, 2);
+        TopKeysResponse blocked = heavyHitterTracker.top(HeavyHitterTracker.Metric.BLOCKED, 1);
+
+        // Then
+        assertThat(checks.getScope()).isEqualTo("local");
+        assertThat(checks.getKeys()).extracting(TopKeysResponse.KeyCount::getApiKey)
+            .containsExactly("hot-1", "hot-2");
+        assertThat(checks.getKeys().get(0).getCount()).isGreaterThanOrEqualTo(1000L);
+        assertThat(blocked.getKeys()).singleElement()
+            .satisfies(key -> assertThat(key.getApiKey()).isEqualTo("hot-2"));
+    }
+
+    @Test
+    @DisplayName("Should keep previous window until the next rotation")
+    void shouldKeepPreviousWindowUntilNextRotation() {
+        // Given
+        given(redisService.mergeTopKeys(anyString(), anyLong())).willReturn(null);
+        heavyHitterTracker.record("key-1", true);
+
+        // When & Then
+        heavyHitterTracker.rotate();
+        assertThat(heavyHitterTracker.top(HeavyHitterTracker.Metric.CHECKS, 5).getKeys()).hasSize(1);
+        heavyHitterTracker.rotate();
+        assertThat(heavyHitterTracker.top(HeavyHitterTracker.Metric.CHECKS, 5).getKeys()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should publish local top keys per metric")
+    @SuppressWarnings("unchecked")
+    void shouldPublishLocalTopKeysPerMetric() {
+        // Given
+        heavyHitterTracker.record("key-1", false);
+        ArgumentCaptor<Map<String, Long>> captor = ArgumentCaptor.forClass(Map.class);
+
+        // When
+        heavyHitterTracker.publish();
+
+        // Then
+        then(redisService).should().publishTopKeys(eq("checks"), eq("node-1"), anyMap(), eq(15000L));
+        then(redisService).should().publishTopKeys(eq("blocked"), eq("node-1"), captor.capture(), eq(15000L));
+        assertThat(captor.getValue()).containsEntry("key-1", 1L);
+    }
+
+    @Test
+    @DisplayName("Should return cluster view merged through Redis")
+    void shouldReturnClusterViewMergedThroughRedis() {
+        // Given
+        given(redisService.mergeTopKeys("blocked", 15000L)).willReturn(Map.of("key-1", 40L, "key-2", 90L, "key-3", 5L));
+
+        // When
+        TopKeysResponse result = heavyHitterTracker.top(HeavyHitterTracker.Metric.BLOCKED, 2);
+
+        // Then
+        assertThat(result.getScope()).isEqualTo("cluster");
+        assertThat(result.getKeys()).extracting(TopKeysResponse.KeyCount::getApiKey)
+            .containsExactly("key-2", "key-1");
+    }
+}
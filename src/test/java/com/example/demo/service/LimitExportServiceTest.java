@@ -0,0 +1,130 @@
+package com.example.demo.service;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.FailureMode;
+import com.example.demo.repository.ApiLimitJdbcRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LimitExportService Unit Tests")
+class LimitExportServiceTest {
+
+    @Mock
+    private ApiLimitJdbcRepository apiLimitJdbcRepository;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private LimitExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new LimitExportService(apiLimitJdbcRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void shouldWriteNdjson() throws Exception {
+        // Given
+        givenRows(limit("key-1", FailureMode.LOCAL), limit("key-2", null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exportService.export(LimitExportService.Format.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[2]).isEmpty();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("apiKey").asText()).isEqualTo("key-1");
+        assertThat(first.get("limitCount").asInt()).isEqualTo(10);
+        assertThat(first.get("failureMode").asText()).isEqualTo("LOCAL");
+        assertThat(first.get("createdAt").asText()).isEqualTo("2024-01-02T03:04:00");
+        assertThat(objectMapper.readTree(lines[1]).get("failureMode").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should write CSV with header and quoted fields")
+    void shouldWriteCsv() throws Exception {
+        // Given
+        givenRows(limit("key-1", FailureMode.OPEN), limit("odd,\"key\"", null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(LimitExportService.Format.CSV, out);
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            LimitExportService.CSV_HEADER + "\n"
+                + "key-1,10,60,OPEN,2024-01-02T03:04:00,2024-01-02T03:04:00\n"
+                + "\"odd,\"\"key\"\"\",10,60,,2024-01-02T03:04:00,2024-01-02T03:04:00\n");
+    }
+
+    @Test
+    @DisplayName("Should stop reading the cursor when the client goes away")
+    void shouldStopReadingWhenClientDisconnects() {
+        // Given
+        AtomicInteger delivered = new AtomicInteger();
+        willAnswer(invocation -> {
+            Consumer<ApiLimit> consumer = invocation.getArgument(0);
+            for (int i = 0; i < 100_000; i++) {
+                delivered.incrementAndGet();
+                consumer.accept(limit("key-" + i, null));
+            }
+            return null;
+        }).given(apiLimitJdbcRepository).streamAll(any());
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> exportService.export(LimitExportService.Format.CSV, closed))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Broken pipe");
+        assertThat(delivered.get()).isLessThan(100_000);
+    }
+
+    private void givenRows(ApiLimit... limits) {
+        willAnswer(invocation -> {
+            Consumer<ApiLimit> consumer = invocation.getArgument(0);
+            List.of(limits).forEach(consumer);
+            return null;
+        }).given(apiLimitJdbcRepository).streamAll(any());
+    }
+
+    private static ApiLimit limit(String apiKey, FailureMode failureMode) {
+        ApiLimit limit = new ApiLimit();
+        limit.setApiKey(apiKey);
+        limit.setLimitCount(10);
+        limit.setWindowSeconds(60);
+        limit.setFailureMode(failureMode);
+        limit.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4));
+        limit.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 3, 4));
+        return limit;
+    }
+}
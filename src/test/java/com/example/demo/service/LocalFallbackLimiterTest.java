@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ApiLimit;
+import com.example.demo.model.FailureMode;
+import com.example.demo.model.dto.CheckResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LocalFallbackLimiter Unit Tests")
+class LocalFallbackLimiterTest {
+
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+
+    private LocalFallbackLimiter localFallbackLimiter;
+    private ApiLimit testApiLimit;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisHealthMonitor.getNodeCount()).thenReturn(1);
+        localFallbackLimiter = new LocalFallbackLimiter(redisHealthMonitor, FailureMode.LOCAL);
+        testApiLimit = new ApiLimit("test-api-key", 10, 60);
+    }
+
+    @Test
+    @DisplayName("Should allow request in OPEN mode")
+    void shouldAllowRequestInOpenMode() {
+        // Given
+        testApiLimit.setFailureMode(FailureMode.OPEN);
+
+        // When
+        CheckResponse result = localFallbackLimiter.check(testApiLimit);
+
+        // Then
+        assertThat(result.isAllowed()).isTrue();
+        assertThat(result.getMessage()).isEqualTo("Rate limiting unavailable - request allowed");
+    }
+
+    @Test
+    @DisplayName("Should reject request in CLOSED mode")
+    void shouldRejectRequestInClosedMode() {
+        // Given
+        testApiLimit.setFailureMode(FailureMode.CLOSED);
+
+        // When
+        CheckResponse result = localFallbackLimiter.check(testApiLimit);
+
+        // Then
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getMessage()).isEqualTo("Rate limiting unavailable - request rejected");
+    }
+
+    @Test
+    @DisplayName("Should enforce limit locally when failure mode not set")
+    void shouldEnforceLimitLocallyWithDefaultMode() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThat(localFallbackLimiter.check(testApiLimit).isAllowed()).isTrue();
+        }
+        CheckResponse result = localFallbackLimiter.check(testApiLimit);
+
+        // Then
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getMessage()).isEqualTo("Rate limit exceeded (local fallback)");
+        assertThat(result.getCurrentCount()).isEqualTo(10);
+        assertThat(result.getLimitCount()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should reject cost that does not fit without consuming the rest of the budget")
+    void shouldRejectOversizedCostWithoutConsuming() {
+        // When
+        assertThat(localFallbackLimiter.check(testApiLimit, 7).isAllowed()).isTrue();
+        CheckResponse rejected = localFallbackLimiter.check(testApiLimit, 4);
+        CheckResponse fitting = localFallbackLimiter.check(testApiLimit, 3);
+
+        // Then
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getCurrentCount()).isEqualTo(7);
+        assertThat(fitting.isAllowed()).isTrue();
+        assertThat(fitting.getCurrentCount()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should scale local limit by node count")
+    void shouldScaleLocalLimitByNodeCount() {
+        // Given
+        given(redisHealthMonitor.getNodeCount()).willReturn(3);
+
+        // When
+        CheckResponse first = localFallbackLimiter.check(testApiLimit);
+        localFallbackLimiter.check(testApiLimit);
+        localFallbackLimiter.check(testApiLimit);
+        localFallbackLimiter.check(testApiLimit);
+        CheckResponse fifth = localFallbackLimiter.check(testApiLimit);
+
+        // Then - ceil(10 / 3) = 4
+        assertThat(first.getLimitCount()).isEqualTo(4);
+        assertThat(fifth.isAllowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should clear local windows once Redis is healthy")
+    void shouldClearLocalWindowsOnceRedisIsHealthy() {
+        // Given
+        localFallbackLimiter.check(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+
+        // When
+        localFallbackLimiter.purge();
+
+        // Then
+        assertThat(localFallbackLimiter.getWindowCount()).isZero();
+    }
+}
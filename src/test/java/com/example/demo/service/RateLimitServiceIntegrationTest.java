@@ -9,6 +9,7 @@ import com.example.demo.model.dto.UsageResponse;
 import com.example.demo.mq.MessageProducer;
 import com.example.demo.repository.ApiLimitRepository;
 import org.apache.rocketmq.spring.autoconfigure.RocketMQAutoConfiguration;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,21 @@ class RateLimitServiceIntegrationTest {
     @MockBean
     private MessageProducer messageProducer;
 
+    // 快照同步會在啟動後載入 LocalConfigCache，之後未命中即視為未設定，與每個測試的 @Sql 資料不同步；
+    // 停用後設定一律經由 Redis 快取 (mock) 與 MySQL 讀取
+    @MockBean
+    private ConfigSnapshotService configSnapshotService;
+
+    // RedisService 為 mock，心跳無法成功，固定為健康以走 Redis 判斷路徑
+    @MockBean
+    private RedisHealthMonitor redisHealthMonitor;
+
+    @BeforeEach
+    void setUpRedisHealth() {
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisHealthMonitor.getNodeCount()).willReturn(1);
+    }
+
     // ========== 建立限流配置測試 ==========
 
     @Nested
@@ -97,8 +113,7 @@ class RateLimitServiceIntegrationTest {
         void shouldFindExistingLimitFromDatabaseWhenCacheMiss() {
             // Given - 資料已由 @Sql 插入
             given(redisService.getCachedApiLimitConfig(anyString())).willReturn(null);
-            given(redisService.isRedisAvailable()).willReturn(true);
-            given(redisService.executeRateLimit("test-key-1", 60, 100)).willReturn(5L);
+            given(redisService.executeRateLimit("test-key-1", 60, 100, 1)).willReturn(5L);
             given(redisService.getTtl("test-key-1")).willReturn(45L);
 
             // When
@@ -116,7 +131,7 @@ class RateLimitServiceIntegrationTest {
             // Given - 資料已由 @Sql 插入
             given(redisService.getCachedApiLimitConfig(anyString())).willReturn(null);
             given(redisService.getCurrentCount("test-key-2")).willReturn(25L);
-            given(redisService.getTtl("test-key-2")).willReturn(20L);
+            given(redisService.getUsageTtl("test-key-2")).willReturn(20L);
 
             // When
             UsageResponse result = rateLimitService.getUsage("test-key-2");
@@ -134,8 +149,7 @@ class RateLimitServiceIntegrationTest {
         void shouldBlockRequestWhenRateLimitExceeded() {
             // Given - 資料已由 @Sql 插入
             given(redisService.getCachedApiLimitConfig(anyString())).willReturn(null);
-            given(redisService.isRedisAvailable()).willReturn(true);
-            given(redisService.executeRateLimit("test-key-2", 30, 50)).willReturn(60L);
+            given(redisService.executeRateLimit("test-key-2", 30, 50, 1)).willReturn(51L);
             given(redisService.getTtl("test-key-2")).willReturn(15L);
 
             // When
@@ -144,7 +158,7 @@ class RateLimitServiceIntegrationTest {
             // Then
             assertThat(result.isAllowed()).isFalse();
             assertThat(result.getMessage()).isEqualTo("Rate limit exceeded");
-            assertThat(result.getCurrentCount()).isEqualTo(60);
+            assertThat(result.getCurrentCount()).isEqualTo(50);
             assertThat(result.getLimitCount()).isEqualTo(50);
         }
     }
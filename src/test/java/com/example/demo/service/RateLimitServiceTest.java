@@ -1,22 +1,27 @@
 package com.example.demo.service;
 
+import com.example.demo.common.LimitCursor;
 import com.example.demo.model.ApiLimit;
+import com.example.demo.model.ApiLimitConfig;
 import com.example.demo.model.dto.CheckResponse;
 import com.example.demo.model.dto.CreateLimitRequest;
+import com.example.demo.model.dto.LimitsCursorResponse;
 import com.example.demo.model.dto.LimitsResponse;
 import com.example.demo.model.dto.UsageResponse;
+import com.example.demo.mq.BlockedEventAggregator;
 import com.example.demo.mq.MessageProducer;
 import com.example.demo.mq.RateLimitEventType;
+import com.example.demo.repository.ApiLimitJdbcRepository;
 import com.example.demo.repository.ApiLimitRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -24,7 +29,10 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -39,27 +47,62 @@ class RateLimitServiceTest {
 
     @Mock
     private ApiLimitRepository apiLimitRepository;
+
+    @Mock
+    private ApiLimitJdbcRepository apiLimitJdbcRepository;
     
     @Mock
     private RedisService redisService;
     
     @Mock
-    private ObjectMapper objectMapper;
+    private MessageProducer messageProducer;
     
     @Mock
-    private MessageProducer messageProducer;
+    private BlockedEventAggregator blockedEventAggregator;
+    
+    @Mock
+    private DecisionLogger decisionLogger;
+    
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+    
+    @Mock
+    private LocalFallbackLimiter localFallbackLimiter;
+
+    @Mock
+    private UsageHistoryService usageHistoryService;
+
+    @Mock
+    private HeavyHitterTracker heavyHitterTracker;
+
+    @Mock
+    private LocalConfigCache localConfigCache;
+
+    @Mock
+    private ConfigSnapshotService configSnapshotService;
+    
+    // 非同步決策在呼叫端執行緒完成，測試結果保持確定
+    @Spy
+    private Executor applicationTaskExecutor = new SyncTaskExecutor();
     
-    @InjectMocks
     private RateLimitService rateLimitService;
     
     private ApiLimit testApiLimit;
+    private ApiLimitConfig testConfig;
     private CreateLimitRequest testRequest;
     
     @BeforeEach
     void setUp() {
+        // 檢查路徑以真實 RateLimitCheckService 組裝，決策邏輯與委派一併驗證
+        RateLimitCheckService rateLimitCheckService = new RateLimitCheckService(apiLimitJdbcRepository, redisService,
+            blockedEventAggregator, decisionLogger, redisHealthMonitor, localFallbackLimiter, usageHistoryService,
+            heavyHitterTracker, localConfigCache, applicationTaskExecutor);
+        rateLimitService = new RateLimitService(apiLimitRepository, redisService, messageProducer, usageHistoryService,
+            localConfigCache, configSnapshotService, rateLimitCheckService);
         testApiLimit = new ApiLimit("test-api-key", 10, 60);
         testApiLimit.setCreatedAt(LocalDateTime.now());
         testApiLimit.setUpdatedAt(LocalDateTime.now());
+        testConfig = new ApiLimitConfig("test-api-key", 10, 60, null);
         
         testRequest = new CreateLimitRequest("test-api-key", 10, 60);
     }
@@ -68,9 +111,7 @@ class RateLimitServiceTest {
     @DisplayName("Should create limit successfully")
     void shouldCreateLimitSuccessfully() throws Exception {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
         given(apiLimitRepository.save(any(ApiLimit.class))).willReturn(testApiLimit);
-        given(objectMapper.writeValueAsString(testApiLimit)).willReturn(configJson);
         
         // When
         ApiLimit result = rateLimitService.createLimit(testRequest);
@@ -82,23 +123,8 @@ class RateLimitServiceTest {
         assertThat(result.getWindowSeconds()).isEqualTo(60);
         
         then(apiLimitRepository).should().save(any(ApiLimit.class));
-        then(redisService).should().cacheApiLimitConfig("test-api-key", configJson);
-        then(messageProducer).should().sendConfigChangeEvent("test-api-key", RateLimitEventType.ConfigAction.CREATED);
-    }
-    
-    @Test
-    @DisplayName("Should handle cache failure gracefully during create")
-    void shouldHandleCacheFailureGracefullyDuringCreate() throws Exception {
-        // Given
-        given(apiLimitRepository.save(any(ApiLimit.class))).willReturn(testApiLimit);
-        given(objectMapper.writeValueAsString(testApiLimit)).willThrow(new JsonProcessingException("Cache error") {});
-        
-        // When
-        ApiLimit result = rateLimitService.createLimit(testRequest);
-        
-        // Then
-        assertThat(result).isNotNull();
-        then(apiLimitRepository).should().save(any(ApiLimit.class));
+        then(redisService).should().cacheApiLimitConfig(testApiLimit);
+        then(configSnapshotService).should().publishUpsert(testApiLimit);
         then(messageProducer).should().sendConfigChangeEvent("test-api-key", RateLimitEventType.ConfigAction.CREATED);
     }
     
@@ -107,7 +133,7 @@ class RateLimitServiceTest {
     void shouldAllowRequestWhenNoRateLimitConfigured() {
         // Given
         given(redisService.getCachedApiLimitConfig("unknown-key")).willReturn(null);
-        given(apiLimitRepository.findByApiKey("unknown-key")).willReturn(Optional.empty());
+        given(apiLimitJdbcRepository.findConfigByApiKey("unknown-key")).willReturn(Optional.empty());
         
         // When
         CheckResponse result = rateLimitService.checkApiAccess("unknown-key");
@@ -118,31 +144,30 @@ class RateLimitServiceTest {
     }
     
     @Test
-    @DisplayName("Should allow request when Redis unavailable (fail-open)")
-    void shouldAllowRequestWhenRedisUnavailable() throws Exception {
+    @DisplayName("Should delegate to local fallback when Redis unhealthy")
+    void shouldDelegateToLocalFallbackWhenRedisUnhealthy() throws Exception {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(configJson);
-        given(objectMapper.readValue(configJson, ApiLimit.class)).willReturn(testApiLimit);
-        given(redisService.isRedisAvailable()).willReturn(false);
+        CheckResponse fallbackResponse = new CheckResponse(true, "Request allowed (local fallback)", 1, 5, 30L);
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(false);
+        given(localFallbackLimiter.check(testApiLimit, 1)).willReturn(fallbackResponse);
         
         // When
         CheckResponse result = rateLimitService.checkApiAccess("test-api-key");
         
         // Then
-        assertThat(result.isAllowed()).isTrue();
-        assertThat(result.getMessage()).isEqualTo("Rate limiting unavailable - request allowed");
+        assertThat(result).isSameAs(fallbackResponse);
+        then(redisService).should(never()).executeRateLimit(anyString(), anyInt(), anyInt(), anyInt());
+        then(decisionLogger).should().record("test-api-key", true, 1, 5, 30L);
     }
     
     @Test
     @DisplayName("Should allow request when within rate limit")
     void shouldAllowRequestWhenWithinRateLimit() throws Exception {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(configJson);
-        given(objectMapper.readValue(configJson, ApiLimit.class)).willReturn(testApiLimit);
-        given(redisService.isRedisAvailable()).willReturn(true);
-        given(redisService.executeRateLimit("test-api-key", 60, 10)).willReturn(5L);
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willReturn(5L);
         given(redisService.getTtl("test-api-key")).willReturn(45L);
         
         // When
@@ -160,11 +185,9 @@ class RateLimitServiceTest {
     @DisplayName("Should block request when rate limit exceeded")
     void shouldBlockRequestWhenRateLimitExceeded() throws Exception {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(configJson);
-        given(objectMapper.readValue(configJson, ApiLimit.class)).willReturn(testApiLimit);
-        given(redisService.isRedisAvailable()).willReturn(true);
-        given(redisService.executeRateLimit("test-api-key", 60, 10)).willReturn(12L);
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willReturn(11L);
         given(redisService.getTtl("test-api-key")).willReturn(30L);
         
         // When
@@ -173,29 +196,133 @@ class RateLimitServiceTest {
         // Then
         assertThat(result.isAllowed()).isFalse();
         assertThat(result.getMessage()).isEqualTo("Rate limit exceeded");
-        assertThat(result.getCurrentCount()).isEqualTo(12);
+        assertThat(result.getCurrentCount()).isEqualTo(10);
         assertThat(result.getLimitCount()).isEqualTo(10);
         assertThat(result.getRemainingTtl()).isEqualTo(30L);
         
-        then(messageProducer).should().sendBlockedEvent("test-api-key", 12, 10, 30L);
+        then(blockedEventAggregator).should().record("test-api-key", 10, 10, 30L);
+        then(decisionLogger).should().record("test-api-key", false, 10, 10, 30L);
+        then(usageHistoryService).should().record("test-api-key", false);
+        then(heavyHitterTracker).should().record("test-api-key", false);
     }
     
     @Test
-    @DisplayName("Should allow request when rate limit execution fails (fail-open)")
-    void shouldAllowRequestWhenRateLimitExecutionFails() throws Exception {
+    @DisplayName("Should report the window length as reset when the counter TTL is unknown")
+    void shouldReportWindowLengthWhenTtlUnknown() throws Exception {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(configJson);
-        given(objectMapper.readValue(configJson, ApiLimit.class)).willReturn(testApiLimit);
-        given(redisService.isRedisAvailable()).willReturn(true);
-        given(redisService.executeRateLimit("test-api-key", 60, 10)).willReturn(null);
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willReturn(11L);
+        given(redisService.getTtl("test-api-key")).willReturn(-1L);
         
         // When
         CheckResponse result = rateLimitService.checkApiAccess("test-api-key");
         
         // Then
-        assertThat(result.isAllowed()).isTrue();
-        assertThat(result.getMessage()).isEqualTo("Rate limiting failed - request allowed");
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getRemainingTtl()).isEqualTo(60L);
+        then(decisionLogger).should().record("test-api-key", false, 10, 10, -1L);
+    }
+    
+    @Test
+    @DisplayName("Should reject costly request without charging and report the uncharged count")
+    void shouldRejectCostlyRequestWithoutCharging() {
+        // Given
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 5)).willReturn(13L);
+        given(redisService.getTtl("test-api-key")).willReturn(30L);
+        
+        // When
+        CheckResponse result = rateLimitService.checkApiAccess("test-api-key", 5);
+        
+        // Then
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getCurrentCount()).isEqualTo(8);
+        then(decisionLogger).should().record("test-api-key", false, 8, 10, 30L);
+    }
+    
+    @Test
+    @DisplayName("Should block request asynchronously when rate limit exceeded")
+    void shouldBlockRequestAsynchronouslyWhenRateLimitExceeded() {
+        // Given
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimitAsync("test-api-key", 60, 10, 1))
+            .willReturn(CompletableFuture.completedFuture(11L));
+        given(redisService.getTtlAsync("test-api-key")).willReturn(CompletableFuture.completedFuture(30L));
+        
+        // When
+        CheckResponse result = rateLimitService.checkApiAccessAsync("test-api-key").join();
+        
+        // Then
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getCurrentCount()).isEqualTo(10);
+        assertThat(result.getRemainingTtl()).isEqualTo(30L);
+        then(blockedEventAggregator).should().record("test-api-key", 10, 10, 30L);
+        then(decisionLogger).should().record("test-api-key", false, 10, 10, 30L);
+        then(redisService).should(never()).executeRateLimit(anyString(), anyInt(), anyInt(), anyInt());
+        then(applicationTaskExecutor).should().execute(any(Runnable.class));
+    }
+    
+    @Test
+    @DisplayName("Should check batch keys and keep request order")
+    void shouldCheckBatchKeysInOrder() {
+        // Given
+        ApiLimit otherLimit = new ApiLimit("other-key", 5, 60);
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisService.getCachedApiLimitConfig("other-key")).willReturn(otherLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        CompletableFuture<Long> slowCount = new CompletableFuture<>();
+        given(redisService.executeRateLimitAsync("test-api-key", 60, 10, 1)).willReturn(slowCount);
+        given(redisService.executeRateLimitAsync("other-key", 60, 5, 1)).willReturn(CompletableFuture.completedFuture(6L));
+        given(redisService.getTtlAsync(anyString())).willReturn(CompletableFuture.completedFuture(20L));
+        
+        // When
+        CompletableFuture<List<CheckResponse>> batch = rateLimitService.checkApiAccessBatch(List.of("test-api-key", "other-key"));
+        slowCount.complete(1L);
+        
+        // Then
+        assertThat(batch.join()).extracting(CheckResponse::isAllowed).containsExactly(true, false);
+    }
+    
+    @Test
+    @DisplayName("Should use local fallback when async rate limit execution fails")
+    void shouldUseLocalFallbackWhenAsyncRateLimitExecutionFails() {
+        // Given
+        CheckResponse fallbackResponse = new CheckResponse(true, "Rate limiting unavailable - request allowed");
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimitAsync("test-api-key", 60, 10, 1))
+            .willReturn(CompletableFuture.completedFuture(null));
+        given(localFallbackLimiter.check(testApiLimit, 1)).willReturn(fallbackResponse);
+        
+        // When
+        CheckResponse result = rateLimitService.checkApiAccessAsync("test-api-key").join();
+        
+        // Then
+        assertThat(result).isSameAs(fallbackResponse);
+        then(redisHealthMonitor).should().recordFailure();
+        then(redisService).should(never()).getTtlAsync(anyString());
+    }
+    
+    @Test
+    @DisplayName("Should mark Redis unhealthy and use local fallback when rate limit execution fails")
+    void shouldUseLocalFallbackWhenRateLimitExecutionFails() throws Exception {
+        // Given
+        CheckResponse fallbackResponse = new CheckResponse(false, "Rate limiting unavailable - request rejected");
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willReturn(null);
+        given(localFallbackLimiter.check(testApiLimit, 1)).willReturn(fallbackResponse);
+        
+        // When
+        CheckResponse result = rateLimitService.checkApiAccess("test-api-key");
+        
+        // Then
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getMessage()).isEqualTo("Rate limiting unavailable - request rejected");
+        then(redisHealthMonitor).should().recordFailure();
     }
     
     @Test
@@ -203,10 +330,9 @@ class RateLimitServiceTest {
     void shouldHandleExceptionsGracefully() throws Exception {
         // Given
         given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(null);
-        given(apiLimitRepository.findByApiKey("test-api-key")).willReturn(Optional.of(testApiLimit));
-        given(objectMapper.writeValueAsString(testApiLimit)).willReturn("config");
-        given(redisService.isRedisAvailable()).willReturn(true);
-        given(redisService.executeRateLimit("test-api-key", 60, 10)).willThrow(new RuntimeException("Redis execution error"));
+        given(apiLimitJdbcRepository.findConfigByApiKey("test-api-key")).willReturn(Optional.of(testConfig));
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willThrow(new RuntimeException("Redis execution error"));
         
         // When
         CheckResponse result = rateLimitService.checkApiAccess("test-api-key");
@@ -220,11 +346,9 @@ class RateLimitServiceTest {
     @DisplayName("Should get usage information successfully")
     void shouldGetUsageInformationSuccessfully() throws Exception {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(configJson);
-        given(objectMapper.readValue(configJson, ApiLimit.class)).willReturn(testApiLimit);
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
         given(redisService.getCurrentCount("test-api-key")).willReturn(3L);
-        given(redisService.getTtl("test-api-key")).willReturn(45L);
+        given(redisService.getUsageTtl("test-api-key")).willReturn(45L);
         
         // When
         UsageResponse result = rateLimitService.getUsage("test-api-key");
@@ -243,11 +367,9 @@ class RateLimitServiceTest {
     @DisplayName("Should handle null values in usage response")
     void shouldHandleNullValuesInUsageResponse() throws Exception {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(configJson);
-        given(objectMapper.readValue(configJson, ApiLimit.class)).willReturn(testApiLimit);
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
         given(redisService.getCurrentCount("test-api-key")).willReturn(null);
-        given(redisService.getTtl("test-api-key")).willReturn(-1L);
+        given(redisService.getUsageTtl("test-api-key")).willReturn(-1L);
         
         // When
         UsageResponse result = rateLimitService.getUsage("test-api-key");
@@ -263,7 +385,7 @@ class RateLimitServiceTest {
     void shouldThrowExceptionWhenApiKeyNotFoundForUsage() {
         // Given
         given(redisService.getCachedApiLimitConfig("unknown-key")).willReturn(null);
-        given(apiLimitRepository.findByApiKey("unknown-key")).willReturn(Optional.empty());
+        given(apiLimitJdbcRepository.findConfigByApiKey("unknown-key")).willReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> rateLimitService.getUsage("unknown-key"))
@@ -283,6 +405,7 @@ class RateLimitServiceTest {
         // Then
         then(apiLimitRepository).should().deleteByApiKey("test-api-key");
         then(redisService).should().evictCache("test-api-key");
+        then(configSnapshotService).should().publishDelete("test-api-key");
         then(messageProducer).should().sendConfigChangeEvent("test-api-key", RateLimitEventType.ConfigAction.DELETED);
     }
     
@@ -325,15 +448,79 @@ class RateLimitServiceTest {
         assertThat(result.getLimits().get(1).getLimitCount()).isEqualTo(15);
     }
     
+    @Test
+    @DisplayName("Should return first keyset page with next cursor")
+    void shouldReturnFirstKeysetPageWithNextCursor() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        ApiLimit limit1 = limitCreatedAt("api-key-3", createdAt);
+        ApiLimit limit2 = limitCreatedAt("api-key-2", createdAt);
+        ApiLimit limit3 = limitCreatedAt("api-key-1", createdAt.minusDays(1));
+        given(apiLimitRepository.findAllByOrderByCreatedAtDescApiKeyDesc(Limit.of(3)))
+            .willReturn(List.of(limit1, limit2, limit3));
+        
+        // When
+        LimitsCursorResponse result = rateLimitService.getLimitsPage(null, 2, false);
+        
+        // Then
+        assertThat(result.getLimits()).extracting(LimitsResponse.LimitInfo::getApiKey)
+            .containsExactly("api-key-3", "api-key-2");
+        assertThat(LimitCursor.decode(result.getNextCursor())).isEqualTo(new LimitCursor(createdAt, "api-key-2"));
+        assertThat(result.getTotalElements()).isNull();
+        then(apiLimitRepository).should(never()).count();
+    }
+    
+    @Test
+    @DisplayName("Should seek after cursor and end without next cursor")
+    void shouldSeekAfterCursorOnLastPage() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        String cursor = new LimitCursor(createdAt, "api-key-2").encode();
+        given(apiLimitRepository.findPageAfter(createdAt, "api-key-2", Limit.of(3)))
+            .willReturn(List.of(limitCreatedAt("api-key-1", createdAt.minusDays(1))));
+        given(localConfigCache.isLoaded()).willReturn(true);
+        given(localConfigCache.size()).willReturn(3);
+        
+        // When
+        LimitsCursorResponse result = rateLimitService.getLimitsPage(cursor, 2, true);
+        
+        // Then
+        assertThat(result.getLimits()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+        assertThat(result.getTotalElements()).isEqualTo(3L);
+        then(apiLimitRepository).should(never()).count();
+    }
+    
+    @Test
+    @DisplayName("Should cache total count when local snapshot is not loaded")
+    void shouldCacheTotalCountWhenSnapshotNotLoaded() {
+        // Given
+        given(apiLimitRepository.findAllByOrderByCreatedAtDescApiKeyDesc(any(Limit.class))).willReturn(List.of());
+        given(apiLimitRepository.count()).willReturn(7L);
+        
+        // When
+        rateLimitService.getLimitsPage(null, 10, true);
+        LimitsCursorResponse result = rateLimitService.getLimitsPage(null, 10, true);
+        
+        // Then
+        assertThat(result.getTotalElements()).isEqualTo(7L);
+        then(apiLimitRepository).should(times(1)).count();
+    }
+    
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> rateLimitService.getLimitsPage("not-a-cursor", 10, false))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
     @Test
     @DisplayName("Should get config from cache successfully")
     void shouldGetConfigFromCacheSuccessfully() throws Exception {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(configJson);
-        given(objectMapper.readValue(configJson, ApiLimit.class)).willReturn(testApiLimit);
-        given(redisService.isRedisAvailable()).willReturn(true);
-        given(redisService.executeRateLimit("test-api-key", 60, 10)).willReturn(5L);
+        given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willReturn(5L);
         given(redisService.getTtl("test-api-key")).willReturn(45L);
         
         // When
@@ -341,7 +528,26 @@ class RateLimitServiceTest {
         
         // Then
         assertThat(result.isAllowed()).isTrue();
-        then(apiLimitRepository).should(never()).findByApiKey("test-api-key");
+        then(apiLimitJdbcRepository).should(never()).findConfigByApiKey("test-api-key");
+    }
+    
+    @Test
+    @DisplayName("Should serve config from loaded local snapshot without Redis or database")
+    void shouldServeConfigFromLocalSnapshot() {
+        // Given
+        given(localConfigCache.isLoaded()).willReturn(true);
+        given(localConfigCache.get("test-api-key")).willReturn(testApiLimit);
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willReturn(5L);
+        given(redisService.getTtl("test-api-key")).willReturn(45L);
+        
+        // When
+        CheckResponse result = rateLimitService.checkApiAccess("test-api-key");
+        
+        // Then
+        assertThat(result.isAllowed()).isTrue();
+        then(redisService).should(never()).getCachedApiLimitConfig(anyString());
+        then(apiLimitJdbcRepository).should(never()).findConfigByApiKey(anyString());
     }
     
     @Test
@@ -349,11 +555,9 @@ class RateLimitServiceTest {
     void shouldGetConfigFromDatabaseWhenCacheMiss() throws Exception {
         // Given
         given(redisService.getCachedApiLimitConfig("test-api-key")).willReturn(null);
-        given(apiLimitRepository.findByApiKey("test-api-key")).willReturn(Optional.of(testApiLimit));
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(objectMapper.writeValueAsString(testApiLimit)).willReturn(configJson);
-        given(redisService.isRedisAvailable()).willReturn(true);
-        given(redisService.executeRateLimit("test-api-key", 60, 10)).willReturn(5L);
+        given(apiLimitJdbcRepository.findConfigByApiKey("test-api-key")).willReturn(Optional.of(testConfig));
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willReturn(5L);
         given(redisService.getTtl("test-api-key")).willReturn(45L);
         
         // When
@@ -361,8 +565,10 @@ class RateLimitServiceTest {
         
         // Then
         assertThat(result.isAllowed()).isTrue();
-        then(apiLimitRepository).should().findByApiKey("test-api-key");
-        then(redisService).should().cacheApiLimitConfig("test-api-key", configJson);
+        then(apiLimitJdbcRepository).should().findConfigByApiKey("test-api-key");
+        then(redisService).should().cacheApiLimitConfig(argThat(limit ->
+            limit.getApiKey().equals("test-api-key") && limit.getLimitCount() == 10 && limit.getWindowSeconds() == 60));
+        then(apiLimitRepository).should(never()).findByApiKey(anyString());
     }
     
     @Test
@@ -370,11 +576,9 @@ class RateLimitServiceTest {
     void shouldHandleCacheReadFailureGracefully() throws Exception {
         // Given
         given(redisService.getCachedApiLimitConfig("test-api-key")).willThrow(new RuntimeException("Cache read error"));
-        given(apiLimitRepository.findByApiKey("test-api-key")).willReturn(Optional.of(testApiLimit));
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        given(objectMapper.writeValueAsString(testApiLimit)).willReturn(configJson);
-        given(redisService.isRedisAvailable()).willReturn(true);
-        given(redisService.executeRateLimit("test-api-key", 60, 10)).willReturn(5L);
+        given(apiLimitJdbcRepository.findConfigByApiKey("test-api-key")).willReturn(Optional.of(testConfig));
+        given(redisHealthMonitor.isHealthy()).willReturn(true);
+        given(redisService.executeRateLimit("test-api-key", 60, 10, 1)).willReturn(5L);
         given(redisService.getTtl("test-api-key")).willReturn(45L);
         
         // When
@@ -382,6 +586,12 @@ class RateLimitServiceTest {
         
         // Then
         assertThat(result.isAllowed()).isTrue();
-        then(apiLimitRepository).should().findByApiKey("test-api-key");
+        then(apiLimitJdbcRepository).should().findConfigByApiKey("test-api-key");
+    }
+    
+    private static ApiLimit limitCreatedAt(String apiKey, LocalDateTime createdAt) {
+        ApiLimit limit = new ApiLimit(apiKey, 10, 60);
+        limit.setCreatedAt(createdAt);
+        return limit;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisReadRouting Unit Tests")
+class RedisReadRoutingTest {
+
+    @Mock
+    private RedisTemplate<String, String> counterRedisTemplate;
+
+    @Mock
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Mock
+    private RedisTemplate<String, String> counterReplicaTemplate;
+
+    @Mock
+    private RedisTemplate<String, byte[]> binaryReplicaTemplate;
+
+    @Mock
+    private ValueOperations<String, String> primaryOps;
+
+    @Mock
+    private ValueOperations<String, String> replicaOps;
+
+    @Test
+    @DisplayName("Should read from replica when it answers")
+    void shouldReadFromReplica() {
+        // Given
+        RedisReadRouting routing = new RedisReadRouting(counterRedisTemplate, binaryRedisTemplate,
+            counterReplicaTemplate, binaryReplicaTemplate);
+        given(counterReplicaTemplate.opsForValue()).willReturn(replicaOps);
+        given(replicaOps.get("k")).willReturn("7");
+
+        // When
+        String result = routing.readCounter(template -> template.opsForValue().get("k"));
+
+        // Then
+        assertThat(routing.isReplicaEnabled()).isTrue();
+        assertThat(result).isEqualTo("7");
+        assertThat(routing.getPrimaryFallbackCount()).isZero();
+        then(counterRedisTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("Should fall back to primary when replica read fails")
+    void shouldFallBackToPrimaryWhenReplicaFails() {
+        // Given
+        RedisReadRouting routing = new RedisReadRouting(counterRedisTemplate, binaryRedisTemplate,
+            counterReplicaTemplate, binaryReplicaTemplate);
+        given(counterReplicaTemplate.opsForValue()).willThrow(new RedisConnectionFailureException("replica down"));
+        given(counterRedisTemplate.opsForValue()).willReturn(primaryOps);
+        given(primaryOps.get("k")).willReturn("9");
+
+        // When
+        String result = routing.readCounter(template -> template.opsForValue().get("k"));
+
+        // Then
+        assertThat(result).isEqualTo("9");
+        assertThat(routing.getPrimaryFallbackCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should propagate primary failure after replica fallback")
+    void shouldPropagatePrimaryFailure() {
+        // Given
+        RedisReadRouting routing = new RedisReadRouting(counterRedisTemplate, binaryRedisTemplate,
+            counterReplicaTemplate, binaryReplicaTemplate);
+        given(counterReplicaTemplate.opsForValue()).willThrow(new RedisConnectionFailureException("replica down"));
+        given(counterRedisTemplate.opsForValue()).willThrow(new RedisConnectionFailureException("primary down"));
+
+        // When & Then
+        assertThatThrownBy(() -> routing.readCounter(template -> template.opsForValue().get("k")))
+            .isInstanceOf(RedisConnectionFailureException.class)
+            .hasMessage("primary down");
+    }
+
+    @Test
+    @DisplayName("Should use primary templates when replica reads are disabled")
+    void shouldUsePrimaryWhenDisabled() {
+        // Given
+        RedisReadRouting routing = new RedisReadRouting(counterRedisTemplate, binaryRedisTemplate,
+            counterRedisTemplate, binaryRedisTemplate);
+        given(counterRedisTemplate.opsForValue()).willReturn(primaryOps);
+        given(primaryOps.get("k")).willReturn("1");
+
+        // When
+        String result = routing.readCounter(template -> template.opsForValue().get("k"));
+
+        // Then
+        assertThat(routing.isReplicaEnabled()).isFalse();
+        assertThat(result).isEqualTo("1");
+        then(counterReplicaTemplate).shouldHaveNoInteractions();
+    }
+}
@@ -1,21 +1,29 @@
 package com.example.demo.service;
 
+import com.example.demo.common.ApiLimitCodec;
 import com.example.demo.common.RedisKey;
+import com.example.demo.model.ApiLimit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -24,7 +32,7 @@ import static org.mockito.Mockito.*;
 class RedisServiceTest {
 
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
 
     @Mock
     private RedisTemplate<String, String> counterRedisTemplate;
@@ -33,10 +41,10 @@ class RedisServiceTest {
     private DefaultRedisScript<Long> rateLimitScript;
 
     @Mock
-    private DefaultRedisScript<Long> getCurrentCountScript;
+    private ReactiveStringRedisTemplate reactiveRedisTemplate;
 
     @Mock
-    private ValueOperations<String, Object> valueOperations;
+    private ValueOperations<String, byte[]> valueOperations;
 
     @Mock
     private ValueOperations<String, String> counterValueOperations;
@@ -49,9 +57,11 @@ class RedisServiceTest {
 
     @BeforeEach
     void setUp() {
-        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(binaryRedisTemplate.opsForValue()).thenReturn(valueOperations);
         lenient().when(counterRedisTemplate.opsForValue()).thenReturn(counterValueOperations);
-        redisService = new RedisService(redisTemplate, counterRedisTemplate, rateLimitScript, getCurrentCountScript);
+        redisService = new RedisService(binaryRedisTemplate, counterRedisTemplate, rateLimitScript,
+            new RedisReadRouting(counterRedisTemplate, binaryRedisTemplate, counterRedisTemplate, binaryRedisTemplate),
+            reactiveRedisTemplate);
     }
 
     @Test
@@ -66,11 +76,12 @@ class RedisServiceTest {
             eq(rateLimitScript),
             eq(Collections.singletonList(RATE_LIMIT_KEY)),
             eq("60"),
-            eq("10")
+            eq("10"),
+            eq("1")
         )).thenReturn(expectedCount);
 
         // When
-        Long result = redisService.executeRateLimit(TEST_API_KEY, windowSeconds, limit);
+        Long result = redisService.executeRateLimit(TEST_API_KEY, windowSeconds, limit, 1);
 
         // Then
         assertThat(result).isEqualTo(expectedCount);
@@ -87,26 +98,71 @@ class RedisServiceTest {
             any(DefaultRedisScript.class),
             anyList(),
             anyString(),
+            anyString(),
             anyString()
         )).thenThrow(new RuntimeException("Redis connection error"));
 
         // When
-        Long result = redisService.executeRateLimit(TEST_API_KEY, windowSeconds, limit);
+        Long result = redisService.executeRateLimit(TEST_API_KEY, windowSeconds, limit, 1);
 
         // Then
         assertThat(result).isNull();
     }
 
+    @Test
+    @DisplayName("Should execute rate limit script asynchronously")
+    void shouldExecuteRateLimitScriptAsynchronously() {
+        // Given
+        when(reactiveRedisTemplate.execute(
+            eq(rateLimitScript),
+            eq(Collections.singletonList(RATE_LIMIT_KEY)),
+            eq(List.of("60", "10", "1"))
+        )).thenReturn(Flux.just(4L));
+
+        // When
+        Long result = redisService.executeRateLimitAsync(TEST_API_KEY, 60, 10, 1).join();
+
+        // Then
+        assertThat(result).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Should complete async rate limit with null on Redis error")
+    void shouldCompleteAsyncRateLimitWithNullOnError() {
+        // Given
+        when(reactiveRedisTemplate.execute(
+            eq(rateLimitScript),
+            eq(Collections.singletonList(RATE_LIMIT_KEY)),
+            eq(List.of("60", "10", "1"))
+        )).thenReturn(Flux.error(new RuntimeException("Redis connection error")));
+
+        // When
+        Long result = redisService.executeRateLimitAsync(TEST_API_KEY, 60, 10, 1).join();
+
+        // Then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    @DisplayName("Should get TTL asynchronously")
+    void shouldGetTtlAsynchronously() {
+        // Given
+        when(reactiveRedisTemplate.getExpire(RATE_LIMIT_KEY)).thenReturn(Mono.just(Duration.ofSeconds(42)));
+
+        // When
+        Long result = redisService.getTtlAsync(TEST_API_KEY).join();
+
+        // Then
+        assertThat(result).isEqualTo(42L);
+    }
+
     @Test
     @DisplayName("Should get current count successfully")
     void shouldGetCurrentCountSuccessfully() {
         // Given
         Long expectedCount = 3L;
         
-        when(counterRedisTemplate.execute(
-            eq(getCurrentCountScript),
-            eq(Collections.singletonList(RATE_LIMIT_KEY))
-        )).thenReturn(expectedCount);
+        when(counterValueOperations.get(RATE_LIMIT_KEY)).thenReturn("3");
 
         // When
         Long result = redisService.getCurrentCount(TEST_API_KEY);
@@ -119,10 +175,8 @@ class RedisServiceTest {
     @DisplayName("Should handle exception during get current count")
     void shouldHandleExceptionDuringGetCurrentCount() {
         // Given
-        lenient().when(counterRedisTemplate.execute(
-            any(DefaultRedisScript.class),
-            anyList()
-        )).thenThrow(new RuntimeException("Redis connection error"));
+        when(counterValueOperations.get(RATE_LIMIT_KEY))
+            .thenThrow(new RuntimeException("Redis connection error"));
 
         // When
         Long result = redisService.getCurrentCount(TEST_API_KEY);
@@ -131,6 +185,19 @@ class RedisServiceTest {
         assertThat(result).isNull();
     }
 
+    @Test
+    @DisplayName("Should return zero when counter does not exist")
+    void shouldReturnZeroWhenCounterDoesNotExist() {
+        // Given
+        when(counterValueOperations.get(RATE_LIMIT_KEY)).thenReturn(null);
+
+        // When
+        Long result = redisService.getCurrentCount(TEST_API_KEY);
+
+        // Then
+        assertThat(result).isZero();
+    }
+
     @Test
     @DisplayName("Should get TTL successfully")
     void shouldGetTtlSuccessfully() {
@@ -161,47 +228,58 @@ class RedisServiceTest {
         assertThat(result).isNull();
     }
 
+    @Test
+    @DisplayName("Should get usage TTL through read routing")
+    void shouldGetUsageTtlThroughReadRouting() {
+        // Given
+        when(counterRedisTemplate.getExpire(RATE_LIMIT_KEY, TimeUnit.SECONDS)).thenReturn(30L);
+
+        // When
+        Long result = redisService.getUsageTtl(TEST_API_KEY);
+
+        // Then
+        assertThat(result).isEqualTo(30L);
+    }
+
     @Test
     @DisplayName("Should cache API limit config successfully")
     void shouldCacheApiLimitConfigSuccessfully() {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
+        ApiLimit limit = testApiLimit();
 
         // When
         assertThatNoException().isThrownBy(() -> 
-            redisService.cacheApiLimitConfig(TEST_API_KEY, configJson));
+            redisService.cacheApiLimitConfig(limit));
 
         // Then
-        verify(valueOperations).set(CONFIG_KEY, configJson, 300, TimeUnit.SECONDS);
+        verify(valueOperations).set(eq(CONFIG_KEY), aryEq(ApiLimitCodec.encode(limit)), eq(300L), eq(TimeUnit.SECONDS));
     }
 
     @Test
     @DisplayName("Should handle exception during cache config")
     void shouldHandleExceptionDuringCacheConfig() {
         // Given
-        String configJson = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
-        
         lenient().doThrow(new RuntimeException("Redis connection error"))
             .when(valueOperations).set(anyString(), any(), anyLong(), any(TimeUnit.class));
 
         // When & Then - Should not throw exception
         assertThatNoException().isThrownBy(() -> 
-            redisService.cacheApiLimitConfig(TEST_API_KEY, configJson));
+            redisService.cacheApiLimitConfig(testApiLimit()));
     }
 
     @Test
     @DisplayName("Should get cached config successfully")
     void shouldGetCachedConfigSuccessfully() {
         // Given
-        String expectedConfig = "{\"apiKey\":\"test-api-key\",\"limitCount\":10,\"windowSeconds\":60}";
+        ApiLimit expected = testApiLimit();
         
-        when(valueOperations.get(CONFIG_KEY)).thenReturn(expectedConfig);
+        when(valueOperations.get(CONFIG_KEY)).thenReturn(ApiLimitCodec.encode(expected));
 
         // When
-        String result = redisService.getCachedApiLimitConfig(TEST_API_KEY);
+        ApiLimit result = redisService.getCachedApiLimitConfig(TEST_API_KEY);
 
         // Then
-        assertThat(result).isEqualTo(expectedConfig);
+        assertThat(result).isEqualTo(expected);
     }
 
     @Test
@@ -211,7 +289,7 @@ class RedisServiceTest {
         lenient().when(valueOperations.get(CONFIG_KEY)).thenReturn(null);
 
         // When
-        String result = redisService.getCachedApiLimitConfig(TEST_API_KEY);
+        ApiLimit result = redisService.getCachedApiLimitConfig(TEST_API_KEY);
 
         // Then
         assertThat(result).isNull();
@@ -225,25 +303,23 @@ class RedisServiceTest {
             .thenThrow(new RuntimeException("Redis connection error"));
 
         // When
-        String result = redisService.getCachedApiLimitConfig(TEST_API_KEY);
+        ApiLimit result = redisService.getCachedApiLimitConfig(TEST_API_KEY);
 
         // Then
         assertThat(result).isNull();
     }
 
     @Test
-    @DisplayName("Should convert non-string cached values to string")
-    void shouldConvertNonStringCachedValuesToString() {
+    @DisplayName("Should return null when cached value cannot be decoded")
+    void shouldReturnNullWhenCachedValueCannotBeDecoded() {
         // Given
-        Integer integerValue = 12345;
-        
-        when(valueOperations.get(CONFIG_KEY)).thenReturn(integerValue);
+        when(valueOperations.get(CONFIG_KEY)).thenReturn(new byte[] {9, 9, 9});
 
         // When
-        String result = redisService.getCachedApiLimitConfig(TEST_API_KEY);
+        ApiLimit result = redisService.getCachedApiLimitConfig(TEST_API_KEY);
 
         // Then
-        assertThat(result).isEqualTo("12345");
+        assertThat(result).isNull();
     }
 
     @Test
@@ -254,7 +330,7 @@ class RedisServiceTest {
             redisService.evictCache(TEST_API_KEY));
 
         // Then
-        verify(redisTemplate).delete(CONFIG_KEY);
+        verify(binaryRedisTemplate).delete(CONFIG_KEY);
         verify(counterRedisTemplate).delete(RATE_LIMIT_KEY);
     }
 
@@ -263,7 +339,7 @@ class RedisServiceTest {
     void shouldHandleExceptionDuringCacheEviction() {
         // Given
         lenient().doThrow(new RuntimeException("Redis connection error"))
-            .when(redisTemplate).delete(anyString());
+            .when(binaryRedisTemplate).delete(anyString());
 
         // When & Then - Should not throw exception
         assertThatNoException().isThrownBy(() -> 
@@ -309,4 +385,12 @@ class RedisServiceTest {
         // Then
         assertThat(result).isTrue(); // Method only checks if no exception is thrown
     }
-}
\ No newline at end of file
+
+    private static ApiLimit testApiLimit() {
+        ApiLimit limit = new ApiLimit();
+        limit.setApiKey(TEST_API_KEY);
+        limit.setLimitCount(10);
+        limit.setWindowSeconds(60);
+        return limit;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UsageGranularity;
+import com.example.demo.model.dto.UsageHistoryResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UsageHistoryService Unit Tests")
+class UsageHistoryServiceTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private UsageHistoryService usageHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        usageHistoryService = new UsageHistoryService(redisService, 100);
+    }
+
+    @Test
+    @DisplayName("Should flush one increment per granularity in a single pipeline")
+    @SuppressWarnings("unchecked")
+    void shouldFlushAllGranularitiesInOnePipeline() {
+        // Given
+        given(redisService.incrementHashes(anyMap(), anyMap())).willReturn(true);
+        usageHistoryService.record("key-1", true);
+        usageHistoryService.record("key-1", true);
+        usageHistoryService.record("key-1", false);
+        ArgumentCaptor<Map<String, Map<String, Long>>> deltasCaptor = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Map<String, Long>> ttlCaptor = ArgumentCaptor.forClass(Map.class);
+
+        // When
+        usageHistoryService.flush();
+
+        // Then
+        then(redisService).should(times(1)).incrementHashes(deltasCaptor.capture(), ttlCaptor.capture());
+        Map<String, Map<String, Long>> deltas = deltasCaptor.getValue();
+        assertThat(deltas).hasSize(3);
+        assertThat(deltas.keySet()).anyMatch(key -> key.startsWith("usage:m:key-1:"))
+            .anyMatch(key -> key.startsWith("usage:h:key-1:"))
+            .anyMatch(key -> key.startsWith("usage:d:key-1:"));
+        deltas.values().forEach(fields -> {
+            assertThat(fields.entrySet()).filteredOn(e -> e.getKey().startsWith("a"))
+                .singleElement().extracting(Map.Entry::getValue).isEqualTo(2L);
+            assertThat(fields.entrySet()).filteredOn(e -> e.getKey().startsWith("b"))
+                .singleElement().extracting(Map.Entry::getValue).isEqualTo(1L);
+        });
+        assertThat(ttlCaptor.getValue()).containsValue(UsageGranularity.DAY.getRetention().toSeconds());
+    }
+
+    @Test
+    @DisplayName("Should skip Redis when nothing was recorded")
+    void shouldSkipRedisWhenNothingRecorded() {
+        // When
+        usageHistoryService.flush();
+
+        // Then
+        then(redisService).should(never()).incrementHashes(anyMap(), anyMap());
+    }
+
+    @Test
+    @DisplayName("Should keep counts for retry when Redis write fails")
+    @SuppressWarnings("unchecked")
+    void shouldKeepCountsWhenRedisWriteFails() {
+        // Given
+        given(redisService.incrementHashes(anyMap(), anyMap())).willReturn(false, true);
+        usageHistoryService.record("key-1", true);
+        ArgumentCaptor<Map<String, Map<String, Long>>> deltasCaptor = ArgumentCaptor.forClass(Map.class);
+
+        // When
+        usageHistoryService.flush();
+        usageHistoryService.flush();
+
+        // Then
+        then(redisService).should(times(2)).incrementHashes(deltasCaptor.capture(), anyMap());
+        assertThat(deltasCaptor.getAllValues().get(1).values())
+            .allSatisfy(fields -> assertThat(fields.values()).containsExactly(1L));
+    }
+
+    @Test
+    @DisplayName("Should build zero-filled series from hourly rollups")
+    void shouldBuildZeroFilledSeriesFromRollups() {
+        // Given
+        Instant from = Instant.parse("2026-01-01T10:00:00Z");
+        Instant to = Instant.parse("2026-01-01T13:00:00Z");
+        long group = UsageGranularity.HOUR.groupOf(from.getEpochSecond());
+        given(redisService.getHashes(List.of("usage:h:key-1:" + group)))
+            .willReturn(List.of(Map.of("a10", "90", "b10", "10", "a12", "5")));
+
+        // When
+        UsageHistoryResponse result = usageHistoryService.getHistory("key-1", UsageGranularity.HOUR, from, to);
+
+        // Then
+        assertThat(result.getPoints()).hasSize(3);
+        assertThat(result.getPoints().get(0).getTimestamp()).isEqualTo(from);
+        assertThat(result.getPoints().get(0).getAllowed()).isEqualTo(90L);
+        assertThat(result.getPoints().get(0).getBlocked()).isEqualTo(10L);
+        assertThat(result.getPoints().get(1).getAllowed()).isZero();
+        assertThat(result.getPoints().get(2).getAllowed()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("Should reject ranges with too many points")
+    void shouldRejectRangesWithTooManyPoints() {
+        // Given
+        Instant to = Instant.parse("2026-01-01T10:00:00Z");
+        Instant from = to.minusSeconds(101 * 60);
+
+        // When & Then
+        assertThatThrownBy(() -> usageHistoryService.getHistory("key-1", UsageGranularity.MINUTE, from, to))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("maximum is 100");
+    }
+}
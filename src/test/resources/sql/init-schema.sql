@@ -5,6 +5,37 @@ CREATE TABLE api_limits (
     api_key VARCHAR(255) NOT NULL PRIMARY KEY,
     limit_count INT NOT NULL,
     window_seconds INT NOT NULL,
+    failure_mode VARCHAR(16),
     created_at DATETIME(6),
     updated_at DATETIME(6)
 );
+
+CREATE INDEX idx_api_limits_created_at_api_key ON api_limits(created_at, api_key);
+
+DROP TABLE IF EXISTS concurrency_limits;
+
+CREATE TABLE concurrency_limits (
+    api_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    max_concurrent INT NOT NULL,
+    lease_seconds INT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6)
+);
+
+DROP TABLE IF EXISTS rate_limit_events;
+
+CREATE TABLE rate_limit_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_time DATETIME(3) NOT NULL,
+    api_key VARCHAR(255) NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    current_count INT,
+    limit_count INT,
+    rejected_count INT,
+    window_ttl BIGINT,
+    first_seen DATETIME(3),
+    last_seen DATETIME(3),
+    message VARCHAR(255),
+    INDEX idx_rate_limit_events_time (event_time),
+    INDEX idx_rate_limit_events_key_time (api_key, event_time)
+);
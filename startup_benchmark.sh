@@ -0,0 +1,105 @@
+#!/bin/bash
+# 啟動時間與首個請求延遲基準：./startup_benchmark.sh [jvm|cds|native] [runs]
+# 需先 docker-compose up -d，並依模式建置：
+#   jvm    ./mvnw package -DskipTests
+#   cds    ./mvnw -P cds package -DskipTests（首次執行時自動訓練 CDS / AOT cache）
+#   native ./mvnw -P native native:compile -DskipTests
+
+MODE="${1:-jvm}"
+RUNS="${2:-5}"
+BASE_URL="http://localhost:8080"
+API_KEY="startup-bench-key"
+JAR="target/demo-0.0.1-SNAPSHOT-exec.jar"
+CDS_DIR="target/cds"
+
+now_ms() {
+  date +%s%3N
+}
+
+java_feature_version() {
+  java -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ {print $2}'
+}
+
+# 解開 jar 並做一次訓練啟動（context refresh 後即結束）產生共享封存
+prepare_cds() {
+  if [ -f "${CDS_DIR}/app.jsa" ] || [ -f "${CDS_DIR}/app.aot" ]; then
+    return
+  fi
+  echo "🏋️ Training CDS archive..."
+  rm -rf "$CDS_DIR"
+  java -Djarmode=tools -jar "$JAR" extract --destination "$CDS_DIR" > /dev/null || exit 1
+  if [ "$(java_feature_version)" -ge 25 ]; then
+    # JDK 25+：AOT cache 同時保存已載入與已連結的類別
+    java -XX:AOTCacheOutput="${CDS_DIR}/app.aot" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+      -jar "${CDS_DIR}/$(basename "$JAR")" > /dev/null
+  else
+    java -XX:ArchiveClassesAtExit="${CDS_DIR}/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+      -jar "${CDS_DIR}/$(basename "$JAR")" > /dev/null
+  fi
+}
+
+start_app() {
+  case "$MODE" in
+    jvm)
+      java -jar "$JAR" > /dev/null 2>&1 &
+      ;;
+    cds)
+      if [ -f "${CDS_DIR}/app.aot" ]; then
+        java -XX:AOTCache="${CDS_DIR}/app.aot" -Dspring.aot.enabled=true \
+          -jar "${CDS_DIR}/$(basename "$JAR")" > /dev/null 2>&1 &
+      else
+        java -XX:SharedArchiveFile="${CDS_DIR}/app.jsa" -Dspring.aot.enabled=true \
+          -jar "${CDS_DIR}/$(basename "$JAR")" > /dev/null 2>&1 &
+      fi
+      ;;
+    native)
+      target/rate-limiter > /dev/null 2>&1 &
+      ;;
+    *)
+      echo "Unknown mode: $MODE (expected jvm, cds or native)"
+      exit 1
+      ;;
+  esac
+  APP_PID=$!
+}
+
+median() {
+  sort -n | awk '{a[NR]=$1} END {print (NR % 2) ? a[(NR+1)/2] : (a[NR/2] + a[NR/2+1]) / 2}'
+}
+
+if [ "$MODE" = "cds" ]; then
+  prepare_cds
+fi
+
+echo "⏱️ Startup benchmark: mode=${MODE}, runs=${RUNS}"
+STARTUP_RESULTS=()
+FIRST_REQUEST_RESULTS=()
+
+for run in $(seq 1 "$RUNS"); do
+  begin=$(now_ms)
+  start_app
+
+  # 以 /health 回應 200 作為可服務的時間點
+  until curl -sf -o /dev/null "${BASE_URL}/health"; do
+    if ! kill -0 "$APP_PID" 2>/dev/null; then
+      echo "❌ Application exited during startup"
+      exit 1
+    fi
+    sleep 0.05
+  done
+  ready=$(now_ms)
+
+  # 首個 /check 會經過尚未暖機的 Redis 連線、Lua 腳本與 JSON 序列化
+  first_request=$(curl -s -o /dev/null -w '%{time_total}' "${BASE_URL}/check?apiKey=${API_KEY}" \
+    | awk '{printf "%.1f", $1 * 1000}')
+
+  kill "$APP_PID"
+  wait "$APP_PID" 2>/dev/null
+
+  STARTUP_RESULTS+=($((ready - begin)))
+  FIRST_REQUEST_RESULTS+=("$first_request")
+  echo "   Run #${run}: startup $((ready - begin)) ms, first /check ${first_request} ms"
+done
+
+echo "📊 Median startup: $(printf '%s\n' "${STARTUP_RESULTS[@]}" | median) ms"
+echo "📊 Median first /check: $(printf '%s\n' "${FIRST_REQUEST_RESULTS[@]}" | median) ms"
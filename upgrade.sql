@@ -0,0 +1,59 @@
+-- 既有資料庫升級：init.sql 只在 MySQL 首次啟動時執行，已存在的資料庫需手動執行本檔
+-- 可重複執行；MySQL 不支援 ADD COLUMN / CREATE INDEX IF NOT EXISTS，改以 information_schema 判斷
+-- docker-compose exec -T mysql mysql -uroot -proot taskdb < upgrade.sql
+
+-- api_limits.failure_mode：ddl-auto=validate 要求欄位存在
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'api_limits' AND COLUMN_NAME = 'failure_mode') = 0,
+    'ALTER TABLE api_limits ADD COLUMN failure_mode VARCHAR(16) NULL COMMENT ''OPEN | LOCAL | CLOSED, NULL = app default'' AFTER window_seconds',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- GET /limits keyset 分頁索引，取代原本只有 created_at 的索引
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.STATISTICS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'api_limits'
+       AND INDEX_NAME = 'idx_api_limits_created_at_api_key') = 0,
+    'CREATE INDEX idx_api_limits_created_at_api_key ON api_limits(created_at, api_key)',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.STATISTICS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'api_limits'
+       AND INDEX_NAME = 'idx_api_limits_created_at') > 0,
+    'DROP INDEX idx_api_limits_created_at ON api_limits',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 新增的資料表，定義與 init.sql 相同
+CREATE TABLE IF NOT EXISTS concurrency_limits (
+    api_key VARCHAR(255) PRIMARY KEY,
+    max_concurrent INT NOT NULL,
+    lease_seconds INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS rate_limit_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_time DATETIME(3) NOT NULL,
+    api_key VARCHAR(255) NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    current_count INT NULL,
+    limit_count INT NULL,
+    rejected_count INT NULL COMMENT 'BLOCKED summary: rejections in the window',
+    window_ttl BIGINT NULL,
+    first_seen DATETIME(3) NULL,
+    last_seen DATETIME(3) NULL,
+    message VARCHAR(255) NULL,
+    INDEX idx_rate_limit_events_time (event_time),
+    INDEX idx_rate_limit_events_key_time (api_key, event_time)
+);